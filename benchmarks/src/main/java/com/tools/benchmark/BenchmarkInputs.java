@@ -0,0 +1,124 @@
+package com.tools.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.tools.model.database.DatabaseMetadata;
+import com.tools.services.TemplateResources;
+import com.tools.synthetic.SyntheticDatabaseGenerator;
+import com.tools.synthetic.SyntheticOpenApiGenerator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared inputs for the JMH benchmarks
+ */
+public final class BenchmarkInputs {
+
+    public static final String OPENAPI_TEMPLATE = "swagger/default-swagger-template.docx";
+    public static final String DATABASE_TEMPLATE = "sql/database_template.docx";
+
+    private static final String BUNDLED_SPEC = "swagger/openapi.json";
+    private static final String SCHEMA_REF_PREFIX = "#/components/schemas/";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * The bundled OpenAPI spec scaled by the given factor
+     * Every path, tag and component schema is copied factor - 1 times with a numeric suffix, and the
+     * $refs inside each copy point at the copied schemas, so a 10x spec has ten times the endpoints,
+     * resources and definitions of the original.
+     */
+    public static String scaledSpec(int factor) throws IOException {
+        ObjectNode spec = (ObjectNode) MAPPER.readTree(new String(TemplateResources.load(BUNDLED_SPEC), StandardCharsets.UTF_8));
+        ObjectNode paths = (ObjectNode) spec.get("paths");
+        ObjectNode schemas = (ObjectNode) spec.get("components").get("schemas");
+        ArrayNode tags = (ArrayNode) spec.get("tags");
+
+        List<Map.Entry<String, JsonNode>> originalPaths = entries(paths);
+        List<Map.Entry<String, JsonNode>> originalSchemas = entries(schemas);
+        List<JsonNode> originalTags = new ArrayList<>();
+        tags.forEach(originalTags::add);
+
+        for (int copy = 1; copy < factor; copy++) {
+            String suffix = "_" + copy;
+            for (Map.Entry<String, JsonNode> path : originalPaths) {
+                paths.set("/copy" + copy + path.getKey(), renamed(path.getValue().deepCopy(), suffix));
+            }
+            for (Map.Entry<String, JsonNode> schema : originalSchemas) {
+                schemas.set(schema.getKey() + suffix, renamed(schema.getValue().deepCopy(), suffix));
+            }
+            for (JsonNode tag : originalTags) {
+                ObjectNode copiedTag = tag.deepCopy();
+                copiedTag.put("name", tag.get("name").asText() + suffix);
+                tags.add(copiedTag);
+            }
+        }
+        return MAPPER.writeValueAsString(spec);
+    }
+
+    /**
+     * Database metadata with the given number of tables, each with columnsPerTable columns,
+     * a primary key, indexes and a foreign key to an earlier table
+     */
+    public static DatabaseMetadata databaseMetadata(int tableCount, int columnsPerTable) {
+        SyntheticDatabaseGenerator.Options options = new SyntheticDatabaseGenerator.Options();
+        options.setTables(tableCount);
+        options.setColumnsPerTable(columnsPerTable);
+        return new SyntheticDatabaseGenerator().generate(options);
+    }
+
+    /**
+     * Synthetic OpenAPI spec with the given shape, see SyntheticOpenApiGenerator
+     */
+    public static String syntheticSpec(int paths, int schemas, int refDepth, int fanOut, boolean cyclicRefs) {
+        SyntheticOpenApiGenerator.Options options = new SyntheticOpenApiGenerator.Options();
+        options.setPaths(paths);
+        options.setSchemas(schemas);
+        options.setRefDepth(refDepth);
+        options.setFanOut(fanOut);
+        options.setCyclicRefs(cyclicRefs);
+        return new SyntheticOpenApiGenerator().generateJson(options);
+    }
+
+    /**
+     * Rename tags and schema $refs inside a copied path item or schema
+     */
+    private static JsonNode renamed(JsonNode node, String suffix) {
+        if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            for (Map.Entry<String, JsonNode> field : entries(object)) {
+                JsonNode value = field.getValue();
+                if ("$ref".equals(field.getKey()) && value.isTextual() && value.asText().startsWith(SCHEMA_REF_PREFIX)) {
+                    object.set("$ref", TextNode.valueOf(value.asText() + suffix));
+                } else if ("tags".equals(field.getKey()) && value.isArray()) {
+                    ArrayNode renamedTags = object.putArray("tags");
+                    value.forEach(tag -> renamedTags.add(tag.asText() + suffix));
+                } else if ("operationId".equals(field.getKey()) && value.isTextual()) {
+                    object.put("operationId", value.asText() + suffix);
+                } else {
+                    renamed(value, suffix);
+                }
+            }
+        } else if (node.isArray()) {
+            node.forEach(element -> renamed(element, suffix));
+        }
+        return node;
+    }
+
+    private static List<Map.Entry<String, JsonNode>> entries(JsonNode node) {
+        List<Map.Entry<String, JsonNode>> entries = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        fields.forEachRemaining(entries::add);
+        return entries;
+    }
+}
@@ -0,0 +1,85 @@
+package com.tools.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts JDBC calls made through a connection
+ * Wraps the connection and every DatabaseMetaData, Statement and ResultSet obtained from it, and counts
+ * metadata queries (DatabaseMetaData methods returning a ResultSet), statement executions, rows read
+ * and the total number of JDBC method calls.
+ */
+public final class CountingJdbc {
+
+    public final AtomicLong metadataQueries = new AtomicLong();
+    public final AtomicLong statementExecutions = new AtomicLong();
+    public final AtomicLong rowsRead = new AtomicLong();
+    public final AtomicLong totalCalls = new AtomicLong();
+
+    public void reset() {
+        metadataQueries.set(0);
+        statementExecutions.set(0);
+        rowsRead.set(0);
+        totalCalls.set(0);
+    }
+
+    public Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection);
+    }
+
+    private Object wrapResult(Object result) {
+        if (result instanceof DatabaseMetaData) {
+            return proxy(DatabaseMetaData.class, (DatabaseMetaData) result);
+        }
+        if (result instanceof ResultSet) {
+            return proxy(ResultSet.class, (ResultSet) result);
+        }
+        // statements are proxied through their most specific interface
+        if (result instanceof CallableStatement) {
+            return proxyAs(CallableStatement.class, result);
+        }
+        if (result instanceof PreparedStatement) {
+            return proxyAs(PreparedStatement.class, result);
+        }
+        if (result instanceof Statement) {
+            return proxyAs(Statement.class, result);
+        }
+        return result;
+    }
+
+    private <T> T proxy(Class<T> type, T target) {
+        return type.cast(proxyAs(type, target));
+    }
+
+    private Object proxyAs(Class<?> type, Object target) {
+        InvocationHandler handler = (proxy, method, args) -> invoke(type, target, method, args);
+        return Proxy.newProxyInstance(CountingJdbc.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private Object invoke(Class<?> type, Object target, Method method, Object[] args) throws Throwable {
+        totalCalls.incrementAndGet();
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        if (type == DatabaseMetaData.class && result instanceof ResultSet) {
+            metadataQueries.incrementAndGet();
+        } else if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+            statementExecutions.incrementAndGet();
+        } else if (type == ResultSet.class && "next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+            rowsRead.incrementAndGet();
+        }
+        return wrapResult(result);
+    }
+}
@@ -0,0 +1,160 @@
+package com.tools.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-to-first-request of the packaged application
+ * Every invocation starts the jar with the given profile and JVM options, then polls a real generation
+ * endpoint until the first successful response. The application output goes to a temporary log file.
+ *
+ * <pre>
+ * mvn package -Dmaven.test.skip=true
+ * java -jar benchmarks/target/benchmarks.jar StartupBenchmark -p jar=target/tips-1.0-SNAPSHOT.jar \
+ *     -p profile=default,fast -p jvmOptions=,-XX:TieredStopAtLevel=1
+ * </pre>
+ *
+ * profile "default" means no active profile.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final String BOUNDARY = "----startup-benchmark";
+    private static final String SAMPLE_METADATA = "{\"databaseName\":\"bench\",\"databaseType\":\"h2\",\"tables\":["
+            + "{\"tableName\":\"users\",\"tableComment\":\"users\",\"primaryKeys\":[\"id\"],\"columns\":["
+            + "{\"columnName\":\"id\",\"dataType\":\"BIGINT\",\"columnSize\":19,\"isPrimaryKey\":true,\"isNullable\":false,\"ordinalPosition\":1},"
+            + "{\"columnName\":\"name\",\"dataType\":\"VARCHAR\",\"columnSize\":64,\"ordinalPosition\":2}]}]}";
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    @Param({"target/tips-1.0-SNAPSHOT.jar"})
+    private String jar;
+
+    @Param({"default", "fast"})
+    private String profile;
+
+    /** Space separated JVM options for the application process */
+    @Param({""})
+    private String jvmOptions;
+
+    private File log;
+    private Process process;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (!new File(jar).isFile()) {
+            throw new IllegalStateException("application jar not found: " + new File(jar).getAbsolutePath());
+        }
+        log = File.createTempFile("startup-benchmark", ".log");
+    }
+
+    @TearDown
+    public void tearDown() {
+        log.delete();
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        if (!jvmOptions.trim().isEmpty()) {
+            command.addAll(Arrays.asList(jvmOptions.trim().split("\\s+")));
+        }
+        command.addAll(Arrays.asList("-jar", jar, "--server.port=" + port));
+        if (!"default".equals(profile)) {
+            command.add("--spring.profiles.active=" + profile);
+        }
+
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("application exited with code " + process.exitValue()
+                        + ", see " + log.getAbsolutePath());
+            }
+            if (tryRequest(port)) {
+                return port;
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("no successful response within " + TIMEOUT_MILLIS + " ms");
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            process = null;
+        }
+    }
+
+    /**
+     * Upload a minimal metadata file, which exercises template loading, poi-tl compile and render
+     */
+    private static boolean tryRequest(int port) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL("http://localhost:" + port + "/api/database/document/upload")
+                    .openConnection();
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(200);
+            connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + BOUNDARY);
+            String body = "--" + BOUNDARY + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"metadata.json\"\r\n"
+                    + "Content-Type: application/json\r\n\r\n"
+                    + SAMPLE_METADATA + "\r\n"
+                    + "--" + BOUNDARY + "--\r\n";
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+            return connection.getResponseCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
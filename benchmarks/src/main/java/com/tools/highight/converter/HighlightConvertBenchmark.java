@@ -0,0 +1,55 @@
+package com.tools.highight.converter;
+
+import com.tools.benchmark.BenchmarkInputs;
+import com.tools.highight.HighlightRenderData;
+import com.tools.model.ApiDataModel;
+import com.tools.model.Definition;
+import com.tools.services.JsonOpenApiParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Syntax highlighting of the definition example code (HighlightToDocumentRenderDataConverter.convert)
+ * One operation converts the example code of every definition of the bundled spec.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class HighlightConvertBenchmark {
+
+    private final HighlightToDocumentRenderDataConverter converter = new HighlightToDocumentRenderDataConverter();
+    private final List<HighlightRenderData> codes = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws Exception {
+        ApiDataModel model = new JsonOpenApiParser().buildStructuredDataModel(BenchmarkInputs.scaledSpec(1));
+        for (Definition definition : model.getDefinitions()) {
+            if (definition.getDefinitionCode() != null) {
+                codes.add(definition.getDefinitionCode());
+            }
+        }
+    }
+
+    @Benchmark
+    public void convert(Blackhole blackhole) throws Exception {
+        for (HighlightRenderData code : codes) {
+            blackhole.consume(converter.convert(code));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.tools.model.database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembly of a wide table the way the extractor builds it
+ * Primary keys are added first, then every column is added and flagged via the primary key lookup,
+ * then every imported key row is applied to its column by name, and finally each column is looked up
+ * once more by name (findColumnByName). indexedAssembly uses the name-indexed TableMetadata, listScanAssembly
+ * replays the previous List.contains / linear column scan on plain lists as the baseline. The time per
+ * column of indexedAssembly should stay flat as the column count grows, the baseline grows linearly.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar TableMetadataAssemblyBenchmark -p columns=100,1500
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class TableMetadataAssemblyBenchmark {
+
+    @Param({"100", "1500", "5000"})
+    private int columns;
+
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<String> primaryKeyNames = new ArrayList<>();
+    /** Imported key rows: one foreign key for every fifth column */
+    private final List<String> foreignKeyColumns = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (int i = 1; i <= columns; i++) {
+            String name = "col_" + i;
+            columnNames.add(name);
+            if (i % 50 == 1) {
+                primaryKeyNames.add(name);
+            }
+            if (i % 5 == 0) {
+                foreignKeyColumns.add(name);
+            }
+        }
+    }
+
+    @Benchmark
+    public TableMetadata indexedAssembly() {
+        TableMetadata table = new TableMetadata();
+        table.setTableName("wide_table");
+        for (String primaryKey : primaryKeyNames) {
+            table.addPrimaryKey(primaryKey);
+        }
+        for (String name : columnNames) {
+            ColumnMetadata column = newColumn(name);
+            column.setPrimaryKey(table.isPrimaryKey(name));
+            table.addColumn(column);
+        }
+        for (String name : foreignKeyColumns) {
+            ColumnMetadata column = table.getColumn(name);
+            if (column != null) {
+                column.setForeignKey(true);
+                column.setForeignKeyTable("ref_table");
+                column.setForeignKeyColumn("id");
+            }
+        }
+        for (String name : columnNames) {
+            table.findColumnByName(name);
+        }
+        return table;
+    }
+
+    @Benchmark
+    public List<ColumnMetadata> listScanAssembly() {
+        List<String> primaryKeys = new ArrayList<>(primaryKeyNames);
+        List<ColumnMetadata> tableColumns = new ArrayList<>();
+        for (String name : columnNames) {
+            ColumnMetadata column = newColumn(name);
+            column.setPrimaryKey(primaryKeys.contains(name));
+            tableColumns.add(column);
+        }
+        for (String name : foreignKeyColumns) {
+            for (ColumnMetadata column : tableColumns) {
+                if (column.getColumnName().equals(name)) {
+                    column.setForeignKey(true);
+                    column.setForeignKeyTable("ref_table");
+                    column.setForeignKeyColumn("id");
+                    break;
+                }
+            }
+        }
+        for (String name : columnNames) {
+            tableColumns.stream().filter(col -> col.getColumnName().equalsIgnoreCase(name)).findFirst();
+        }
+        return tableColumns;
+    }
+
+    private static ColumnMetadata newColumn(String name) {
+        ColumnMetadata column = new ColumnMetadata();
+        column.setColumnName(name);
+        column.setDataType("VARCHAR");
+        column.setColumnSize(64);
+        column.setNullable(true);
+        return column;
+    }
+}
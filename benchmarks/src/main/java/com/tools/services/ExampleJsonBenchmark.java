@@ -0,0 +1,67 @@
+package com.tools.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tools.benchmark.BenchmarkInputs;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Example JSON generation (generateExampleJson) for every component schema of the spec
+ * One operation generates the examples of all schemas, so throughput is "whole specs per second".
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ExampleJsonBenchmark {
+
+    @Param({"1", "10"})
+    private int scale;
+
+    private final JsonOpenApiParser jsonParser = new JsonOpenApiParser();
+    private final ObjectOpenApiParser objectParser = new ObjectOpenApiParser();
+    private JsonNode schemasNode;
+    private Map<String, Schema> schemas;
+
+    @Setup
+    public void setUp() throws IOException {
+        String spec = BenchmarkInputs.scaledSpec(scale);
+        schemasNode = new ObjectMapper().readTree(spec).get("components").get("schemas");
+        schemas = new OpenAPIV3Parser().readContents(spec).getOpenAPI().getComponents().getSchemas();
+    }
+
+    @Benchmark
+    public void jsonParser(Blackhole blackhole) throws IOException {
+        Iterator<JsonNode> schemaNodes = schemasNode.elements();
+        while (schemaNodes.hasNext()) {
+            blackhole.consume(jsonParser.generateExampleJson(schemaNodes.next(), schemasNode));
+        }
+    }
+
+    @Benchmark
+    public void objectParser(Blackhole blackhole) throws IOException {
+        for (Schema schema : schemas.values()) {
+            blackhole.consume(objectParser.generateExampleJson(schema, schemas));
+        }
+    }
+}
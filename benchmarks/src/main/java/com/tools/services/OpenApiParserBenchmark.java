@@ -0,0 +1,54 @@
+package com.tools.services;
+
+import com.tools.benchmark.BenchmarkInputs;
+import com.tools.model.ApiDataModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonOpenApiParser vs ObjectOpenApiParser on the bundled spec scaled 1x to 100x
+ * Both parse from the raw JSON string, so JSON tree parsing (and swagger-parser resolution for the
+ * object model) is part of the measured work, as it is in the service.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class OpenApiParserBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int scale;
+
+    private final JsonOpenApiParser jsonParser = new JsonOpenApiParser();
+    private final ObjectOpenApiParser objectParser = new ObjectOpenApiParser();
+    private String spec;
+
+    @Setup
+    public void setUp() throws IOException {
+        spec = BenchmarkInputs.scaledSpec(scale);
+    }
+
+    @Benchmark
+    public ApiDataModel jsonParser() throws IOException {
+        return jsonParser.buildStructuredDataModel(spec);
+    }
+
+    @Benchmark
+    public ApiDataModel objectParser() throws IOException {
+        return objectParser.buildStructuredDataModel(spec);
+    }
+}
@@ -0,0 +1,53 @@
+package com.tools.services;
+
+import com.tools.benchmark.BenchmarkInputs;
+import com.tools.model.ApiDataModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpenApiDocService.renderDocument on a pre-parsed model with the default template
+ * Uses the service defaults (typed binding, parallel fragments above the endpoint threshold).
+ * A single render of the bundled spec takes seconds, so iterations are long; use -p scale=10
+ * only with a large heap.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 2, time = 20)
+@Measurement(iterations = 3, time = 30)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class OpenApiRenderBenchmark {
+
+    @Param({"1"})
+    private int scale;
+
+    private OpenApiDocService service;
+    private ApiDataModel model;
+    private byte[] template;
+
+    @Setup
+    public void setUp() throws IOException {
+        service = new OpenApiDocService(new OpenApiParserService(new JsonOpenApiParser(), new ObjectOpenApiParser()));
+        model = new JsonOpenApiParser().buildStructuredDataModel(BenchmarkInputs.scaledSpec(scale));
+        template = TemplateResources.load(BenchmarkInputs.OPENAPI_TEMPLATE);
+    }
+
+    @Benchmark
+    public byte[] renderDocument() throws IOException {
+        return service.renderDocument(model, new ByteArrayInputStream(template));
+    }
+}
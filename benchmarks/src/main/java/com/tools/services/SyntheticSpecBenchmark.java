@@ -0,0 +1,65 @@
+package com.tools.services;
+
+import com.tools.benchmark.BenchmarkInputs;
+import com.tools.model.ApiDataModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Both parsers on synthetic specs, to separate the cost of spec size from the cost of $ref depth,
+ * fan-out and cycles (which drive schema resolution and example generation)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class SyntheticSpecBenchmark {
+
+    @Param({"100", "1000"})
+    private int paths;
+
+    @Param({"200"})
+    private int schemas;
+
+    @Param({"2", "5"})
+    private int refDepth;
+
+    @Param({"2", "4"})
+    private int fanOut;
+
+    @Param({"false", "true"})
+    private boolean cyclicRefs;
+
+    private final JsonOpenApiParser jsonParser = new JsonOpenApiParser();
+    private final ObjectOpenApiParser objectParser = new ObjectOpenApiParser();
+    private String spec;
+
+    @Setup
+    public void setUp() {
+        spec = BenchmarkInputs.syntheticSpec(paths, schemas, refDepth, fanOut, cyclicRefs);
+    }
+
+    @Benchmark
+    public ApiDataModel jsonParser() throws IOException {
+        return jsonParser.buildStructuredDataModel(spec);
+    }
+
+    @Benchmark
+    public ApiDataModel objectParser() throws IOException {
+        return objectParser.buildStructuredDataModel(spec);
+    }
+}
@@ -0,0 +1,68 @@
+package com.tools.services;
+
+import com.tools.benchmark.BenchmarkInputs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpenApiDocService.generateDocFromJson through the map + Spring EL binding (ApiDataModel.toMap())
+ * and through the typed binding
+ * Parallel fragment rendering is switched off so the two bindings render the same way; run with
+ * -prof gc to compare the bytes allocated per document.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar TemplateBindingBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class TemplateBindingBenchmark {
+
+    @Param({"map", "typed"})
+    private String binding;
+
+    private OpenApiDocService service;
+    private String spec;
+    private byte[] template;
+
+    @Setup
+    public void setUp() throws Exception {
+        service = new OpenApiDocService(new OpenApiParserService(new JsonOpenApiParser(), new ObjectOpenApiParser()));
+        setField(service, "parallelRenderEnabled", false);
+        setField(service, "typedBindingEnabled", "typed".equals(binding));
+        spec = BenchmarkInputs.scaledSpec(1);
+        template = TemplateResources.load(BenchmarkInputs.OPENAPI_TEMPLATE);
+    }
+
+    @Benchmark
+    public byte[] generateDocFromJson() throws IOException {
+        return service.generateDocFromJson(spec, new ByteArrayInputStream(template));
+    }
+
+    /**
+     * The switches are @Value fields without setters
+     */
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,162 @@
+package com.tools.services.database;
+
+import com.tools.benchmark.BenchmarkInputs;
+import com.tools.benchmark.CountingJdbc;
+import com.tools.model.database.DatabaseConnectionConfig;
+import com.tools.model.database.DatabaseMetadata;
+import com.tools.services.TemplateResources;
+import com.tools.services.document.DatabaseDocumentService;
+import com.tools.synthetic.SyntheticDatabaseGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end extractor benchmark against an embedded H2 database
+ * Builds an in-memory H2 schema of 100 / 1k / 10k tables (20 columns, table and column comments, two
+ * indexes and a foreign key per table, from SyntheticDatabaseGenerator), then measures
+ * GenericMetadataExtractor alone and the full extract-to-docx pipeline. Besides the wall time of each
+ * run it reports, as secondary results, the JDBC calls made by the extractor (metadata queries, rows
+ * read, total calls) and the peak heap usage during the run, so extractor regressions show up
+ * without an external database.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ExtractorPipelineBenchmark -p tables=1000
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ExtractorPipelineBenchmark {
+
+    private static final int COLUMNS_PER_TABLE = 20;
+    private static final long MB = 1024 * 1024;
+
+    @Param({"100", "1000", "10000"})
+    private int tables;
+
+    private final CountingJdbc jdbc = new CountingJdbc();
+    private final DatabaseDocumentService documentService = new DatabaseDocumentService();
+    private DatabaseMetadataExtractor extractor;
+    private DatabaseConnectionConfig config;
+    private Connection keepAlive;
+    private byte[] template;
+    private File output;
+
+    /**
+     * JDBC call counts and heap peak of the last run, reported next to the timing
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PipelineCounters {
+        public long metadataQueries;
+        public long rowsRead;
+        public long jdbcCalls;
+        public long heapPeakMb;
+    }
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        config = new DatabaseConnectionConfig();
+        config.setDatabaseType("h2");
+        config.setDatabaseName("extractor_benchmark_" + tables);
+        config.setJdbcUrl("jdbc:h2:mem:extractor_benchmark_" + tables + ";DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setSchema("PUBLIC");
+
+        SyntheticDatabaseGenerator.Options options = new SyntheticDatabaseGenerator.Options();
+        options.setTables(tables);
+        options.setColumnsPerTable(COLUMNS_PER_TABLE);
+        SyntheticDatabaseGenerator generator = new SyntheticDatabaseGenerator();
+        List<String> ddl = generator.toDdl(generator.generate(options));
+
+        keepAlive = DriverManager.getConnection(config.getJdbcUrl(), config.getUsername(), config.getPassword());
+        try (Statement statement = keepAlive.createStatement()) {
+            for (String sql : ddl) {
+                statement.execute(sql);
+            }
+        }
+
+        extractor = new GenericMetadataExtractor() {
+            @Override
+            protected Connection getConnection(DatabaseConnectionConfig connectionConfig) throws SQLException {
+                return jdbc.wrap(super.getConnection(connectionConfig));
+            }
+        };
+        template = TemplateResources.load(BenchmarkInputs.DATABASE_TEMPLATE);
+        output = File.createTempFile("extractor-pipeline-benchmark", ".docx");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        keepAlive.close();
+        output.delete();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        // start every run from a collected heap so that the peak reflects this run only
+        System.gc();
+        jdbc.reset();
+        ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @Benchmark
+    public DatabaseMetadata extract(PipelineCounters counters) {
+        DatabaseMetadata metadata = extractor.extractMetadata(config);
+        record(counters);
+        return metadata;
+    }
+
+    @Benchmark
+    public long extractAndRender(PipelineCounters counters) throws IOException {
+        DatabaseMetadata metadata = extractor.extractMetadata(config);
+        documentService.generateDocument(metadata, new ByteArrayInputStream(template), output.getPath());
+        record(counters);
+        return output.length();
+    }
+
+    private void record(PipelineCounters counters) {
+        counters.metadataQueries = jdbc.metadataQueries.get();
+        counters.rowsRead = jdbc.rowsRead.get();
+        counters.jdbcCalls = jdbc.totalCalls.get();
+        // sum of the per-pool peaks, an upper bound of the actual heap peak
+        counters.heapPeakMb = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum() / MB;
+    }
+}
@@ -0,0 +1,99 @@
+package com.tools.services.document;
+
+import com.tools.benchmark.BenchmarkInputs;
+import com.tools.model.database.ColumnMetadata;
+import com.tools.model.database.DatabaseMetadata;
+import com.tools.model.database.TableMetadata;
+import com.tools.services.TemplateResources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Column detail table rendering of a single table with an increasing number of columns
+ * Quadratic behaviour in row insertion shows up as a time per operation that grows faster than the
+ * column count.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ColumnTableRenderBenchmark -p columns=100,5000
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ColumnTableRenderBenchmark {
+
+    @Param({"10", "100", "1000", "2000", "5000"})
+    private int columns;
+
+    private final DatabaseDocumentService service = new DatabaseDocumentService();
+    private DatabaseMetadata metadata;
+    private byte[] template;
+    private File output;
+
+    @Setup
+    public void setUp() throws IOException {
+        metadata = createMetadata(columns);
+        template = TemplateResources.load(BenchmarkInputs.DATABASE_TEMPLATE);
+        output = File.createTempFile("column-table-benchmark", ".docx");
+    }
+
+    @TearDown
+    public void tearDown() {
+        output.delete();
+    }
+
+    @Benchmark
+    public long generateDocument() throws IOException {
+        service.generateDocument(metadata, new ByteArrayInputStream(template), output.getPath());
+        return output.length();
+    }
+
+    /**
+     * Build metadata containing one table with the given number of columns
+     */
+    private static DatabaseMetadata createMetadata(int columnCount) {
+        TableMetadata table = new TableMetadata();
+        table.setTableName("wide_table");
+        table.setTableComment("wide table");
+        table.addPrimaryKey("col_1");
+        for (int i = 1; i <= columnCount; i++) {
+            ColumnMetadata column = new ColumnMetadata();
+            column.setOrdinalPosition(i);
+            column.setColumnName("col_" + i);
+            column.setColumnComment("column " + i);
+            column.setDataType(i % 3 == 0 ? "DECIMAL" : "VARCHAR");
+            column.setColumnSize(i % 3 == 0 ? 10 : 64);
+            column.setDecimalDigits(i % 3 == 0 ? 2 : null);
+            column.setPrimaryKey(i == 1);
+            column.setNullable(i != 1);
+            column.setForeignKey(i % 10 == 0);
+            column.setForeignKeyTable(i % 10 == 0 ? "ref_table" : null);
+            column.setForeignKeyColumn(i % 10 == 0 ? "id" : null);
+            table.addColumn(column);
+        }
+
+        DatabaseMetadata metadata = new DatabaseMetadata();
+        metadata.setDatabaseName("benchmark");
+        metadata.setDatabaseType("h2");
+        metadata.addTable(table);
+        return metadata;
+    }
+}
@@ -0,0 +1,62 @@
+package com.tools.services.document;
+
+import com.tools.benchmark.BenchmarkInputs;
+import com.tools.model.database.DatabaseMetadata;
+import com.tools.services.TemplateResources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DatabaseDocumentService.generateDocument for schemas of increasing size (20 columns per table)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class DatabaseDocumentBenchmark {
+
+    private static final int COLUMNS_PER_TABLE = 20;
+
+    @Param({"10", "100", "500"})
+    private int tables;
+
+    private final DatabaseDocumentService service = new DatabaseDocumentService();
+    private DatabaseMetadata metadata;
+    private byte[] template;
+    private File output;
+
+    @Setup
+    public void setUp() throws IOException {
+        metadata = BenchmarkInputs.databaseMetadata(tables, COLUMNS_PER_TABLE);
+        template = TemplateResources.load(BenchmarkInputs.DATABASE_TEMPLATE);
+        output = File.createTempFile("database-document-benchmark", ".docx");
+    }
+
+    @TearDown
+    public void tearDown() {
+        output.delete();
+    }
+
+    @Benchmark
+    public long generateDocument() throws IOException {
+        service.generateDocument(metadata, new ByteArrayInputStream(template), output.getPath());
+        return output.length();
+    }
+}
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+#
+# Load test against a running instance with synthetic inputs.
+# Generates a synthetic OpenAPI spec and database metadata file with the CLI, then uploads
+# each of them REQUESTS times with CONCURRENCY parallel clients and prints per-request timings.
+#
+#   mvn package -Dmaven.test.skip=true
+#   java -jar target/tips-1.0-SNAPSHOT.jar &
+#   scripts/load-test.sh
+#
+# Knobs (environment variables):
+#   BASE_URL      http://localhost:8081
+#   JAR           target/tips-1.0-SNAPSHOT.jar
+#   REQUESTS      20        requests per endpoint
+#   CONCURRENCY   4         parallel clients
+#   PATHS SCHEMAS REF_DEPTH FAN_OUT CYCLIC   OpenAPI generator (defaults 200 100 3 2 false)
+#   TABLES COLUMNS                           database generator (defaults 500 20)
+#   SEED          42
+
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:8081}
+JAR=${JAR:-target/tips-1.0-SNAPSHOT.jar}
+REQUESTS=${REQUESTS:-20}
+CONCURRENCY=${CONCURRENCY:-4}
+PATHS=${PATHS:-200}
+SCHEMAS=${SCHEMAS:-100}
+REF_DEPTH=${REF_DEPTH:-3}
+FAN_OUT=${FAN_OUT:-2}
+CYCLIC=${CYCLIC:-false}
+TABLES=${TABLES:-500}
+COLUMNS=${COLUMNS:-20}
+SEED=${SEED:-42}
+
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+cyclic_flag=""
+if [ "$CYCLIC" = "true" ]; then
+    cyclic_flag="--cyclic"
+fi
+
+java -jar "$JAR" cli generate --out "$WORK_DIR" --seed "$SEED" openapi \
+    --paths "$PATHS" --schemas "$SCHEMAS" --ref-depth "$REF_DEPTH" --fan-out "$FAN_OUT" $cyclic_flag
+java -jar "$JAR" cli generate --out "$WORK_DIR" --seed "$SEED" database \
+    --tables "$TABLES" --columns "$COLUMNS"
+
+OPENAPI_FILE=$(ls "$WORK_DIR"/openapi-*.json)
+DATABASE_FILE=$(ls "$WORK_DIR"/database-*.json)
+
+# run_endpoint <name> <url> <file>: prints "status seconds" per request, then a summary
+run_endpoint() {
+    local name=$1 url=$2 file=$3
+    local results="$WORK_DIR/$name.txt"
+    echo "== $name: $REQUESTS requests, concurrency $CONCURRENCY -> $url"
+    local start end
+    start=$(date +%s.%N)
+    seq "$REQUESTS" | xargs -P "$CONCURRENCY" -I{} \
+        curl -s -o /dev/null -w '%{http_code} %{time_total}\n' -F "file=@$file" "$url" > "$results"
+    end=$(date +%s.%N)
+    sort -k2 -n "$results" | awk -v start="$start" -v end="$end" '
+        BEGIN { wall = end - start }
+        { status[$1]++; t[NR] = $2; sum += $2 }
+        END {
+            printf "  wall %.2fs, throughput %.2f req/s\n", wall, NR / wall
+            printf "  latency avg %.2fs, p50 %.2fs, p95 %.2fs, max %.2fs\n",
+                sum / NR, t[int((NR + 1) * 0.5)], t[int((NR - 1) * 0.95) + 1], t[NR]
+            for (s in status) printf "  HTTP %s: %d\n", s, status[s]
+        }'
+}
+
+run_endpoint openapi "$BASE_URL/api/openapi-doc/generate-from-file" "$OPENAPI_FILE"
+run_endpoint database "$BASE_URL/api/database/document/upload" "$DATABASE_FILE"
@@ -1,23 +1,32 @@
 package com.tools;
 
+import com.tools.cli.DocGeneratorCli;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import java.net.InetAddress;
+import java.util.Arrays;
 
 @SpringBootApplication
 public class Main {
     public static void main(String[] args) {
+        // "cli" 子命令走无Web容器的批量生成模式
+        if (args.length > 0 && "cli".equals(args[0])) {
+            DocGeneratorCli.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         SpringApplication.run(Main.class, args);
     }
     
     @Component
+    @ConditionalOnProperty(prefix = "swagger", name = "enabled", havingValue = "true", matchIfMissing = true)
     public static class SwaggerUrlPrinter implements ApplicationRunner {
         
         private static final Logger logger = LoggerFactory.getLogger(SwaggerUrlPrinter.class);
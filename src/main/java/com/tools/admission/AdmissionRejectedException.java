@@ -0,0 +1,50 @@
+package com.tools.admission;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 生成请求未被准入
+ * 单个请求的预估内存超过预算时为413，排队已满或等待超时时为503（可稍后重试）。
+ * 准入过滤器拒绝时自行设置Retry-After，请求处理中调大额度被拒绝时由异常携带
+ */
+public class AdmissionRejectedException extends ResponseStatusException {
+
+    private final String reason;
+    private final int retryAfterSeconds;
+
+    public AdmissionRejectedException(HttpStatus status, String reason, String message) {
+        this(status, reason, message, 0);
+    }
+
+    public AdmissionRejectedException(HttpStatus status, String reason, String message, int retryAfterSeconds) {
+        super(status, message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * 拒绝原因，用作指标的reason标签：too_large、queue_full、timeout、overcommit、interrupted
+     */
+    public String getRejectReason() {
+        return reason;
+    }
+
+    /**
+     * 是否可以稍后重试
+     */
+    public boolean isRetryable() {
+        return getStatus() == HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    @Override
+    public HttpHeaders getResponseHeaders() {
+        if (retryAfterSeconds <= 0) {
+            return HttpHeaders.EMPTY;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,272 @@
+package com.tools.admission;
+
+import com.tools.metrics.PipelineMetrics;
+import com.tools.metrics.PipelineTrace;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生成请求的按客户端限流和公平调度
+ * <ul>
+ *     <li>限流：每个客户端一个令牌桶（scheduling.rate-limit.*，默认不限流），超出时返回429</li>
+ *     <li>调度：提取（I/O密集）和渲染（CPU密集）分别在两条限定并发数的通道中执行，
+ *     通道满时按加权公平排队（WFQ）：每个客户端的请求按虚拟完成时间排序，
+ *     权重高的客户端获得更多的执行机会，单个客户端的大量请求不会饿死其他客户端</li>
+ * </ul>
+ * 通道是请求线程上的并发许可而不是独立的线程池，工作仍在请求线程上执行，
+ * 请求跟踪、内存准入额度和上传的输入流都保持可用。排队等待和执行时间分别记录为
+ * docgen.scheduler.wait和docgen.scheduler.execution，并计入请求跟踪的queue-io/queue-cpu阶段。
+ * 客户端由SchedulingFilter识别后绑定到请求线程，没有绑定客户端（命令行）或未启用时直接执行
+ */
+@Component
+public class FairScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FairScheduler.class);
+
+    private static final ThreadLocal<String> CLIENT = new ThreadLocal<>();
+
+    /** 回收空闲客户端状态的阈值 */
+    private static final int MAX_IDLE_CLIENTS = 10000;
+
+    @Value("${scheduling.enabled:false}")
+    private boolean enabled;
+
+    /** 每个客户端每分钟的请求数，0表示不限流 */
+    @Value("${scheduling.rate-limit.requests-per-minute:0}")
+    private double requestsPerMinute;
+
+    @Value("${scheduling.rate-limit.burst:10}")
+    private int burst = 10;
+
+    /** I/O通道并发数（从URL获取规范、从数据库提取元数据） */
+    @Value("${scheduling.io-concurrency:16}")
+    private int ioConcurrency = 16;
+
+    /** CPU通道并发数（解析和渲染），0表示CPU核数 */
+    @Value("${scheduling.cpu-concurrency:0}")
+    private int cpuConcurrency;
+
+    @Value("${scheduling.queue-timeout-ms:60000}")
+    private long queueTimeoutMs = 60000;
+
+    /** 客户端权重，如 ci=1,portal=4（键为SchedulingFilter识别的客户端标识），未列出的客户端权重为1 */
+    @Value("${scheduling.client-weights:}")
+    private String clientWeights = "";
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Double> weights = new HashMap<>();
+    private Lane ioLane;
+    private Lane cpuLane;
+
+    @PostConstruct
+    public void init() {
+        for (String entry : clientWeights.split(",")) {
+            String[] pair = entry.split("=");
+            if (pair.length == 2 && !pair[0].trim().isEmpty()) {
+                weights.put(pair[0].trim(), Math.max(0.01, Double.parseDouble(pair[1].trim())));
+            }
+        }
+        ioLane = new Lane("io", ioConcurrency);
+        cpuLane = new Lane("cpu", cpuConcurrency > 0 ? cpuConcurrency : Runtime.getRuntime().availableProcessors());
+        if (enabled) {
+            logger.info("生成请求调度: I/O并发{}，CPU并发{}，{}", ioLane.slots, cpuLane.slots, requestsPerMinute > 0
+                    ? "每客户端" + requestsPerMinute + "次/分钟（突发" + burst + "）" : "不限流");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 取客户端的一个令牌
+     *
+     * @throws RateLimitedException 超出限流
+     */
+    public void checkRateLimit(String client) {
+        if (requestsPerMinute <= 0) {
+            return;
+        }
+        if (buckets.size() > MAX_IDLE_CLIENTS) {
+            buckets.values().removeIf(TokenBucket::isFull);
+        }
+        long waitNanos = buckets.computeIfAbsent(client, c -> new TokenBucket(burst, requestsPerMinute)).tryAcquire();
+        if (waitNanos > 0) {
+            PipelineMetrics.counter(PipelineMetrics.SCHEDULER_THROTTLED).increment();
+            throw new RateLimitedException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+        }
+    }
+
+    /**
+     * 将客户端绑定到当前请求线程，请求结束时传入null解除
+     */
+    public static void bindClient(String client) {
+        if (client == null) {
+            CLIENT.remove();
+        } else {
+            CLIENT.set(client);
+        }
+    }
+
+    /**
+     * 在I/O通道中执行
+     */
+    public <T, E extends Exception> T io(Work<T, E> work) throws E {
+        return run(ioLane, work);
+    }
+
+    /**
+     * 在CPU通道中执行
+     */
+    public <T, E extends Exception> T cpu(Work<T, E> work) throws E {
+        return run(cpuLane, work);
+    }
+
+    private <T, E extends Exception> T run(Lane lane, Work<T, E> work) throws E {
+        String client = CLIENT.get();
+        if (!enabled || client == null) {
+            return work.call();
+        }
+        PipelineTrace.Span wait = PipelineTrace.span("queue-" + lane.name, client);
+        lane.acquire(client, weights.getOrDefault(client, 1.0));
+        wait.stop(PipelineMetrics.timer(PipelineMetrics.SCHEDULER_WAIT, "pool", lane.name));
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            PipelineMetrics.timer(PipelineMetrics.SCHEDULER_EXECUTION, "pool", lane.name)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            lane.release();
+        }
+    }
+
+    /**
+     * 通道中执行的工作
+     */
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * 限定并发数的执行通道，许可按加权公平排队分配
+     * 客户端c的第k个请求的虚拟开始时间为max(通道虚拟时间, c上一个请求的虚拟完成时间)，
+     * 虚拟完成时间为开始时间加1/权重；许可空出时分配给虚拟完成时间最小的排队请求
+     */
+    private final class Lane {
+        private final String name;
+        private final int slots;
+        private final PriorityQueue<Ticket> waiting = new PriorityQueue<>();
+        private final Map<String, Double> lastFinish = new HashMap<>();
+        private int busy;
+        private double virtualTime;
+        private long sequence;
+
+        Lane(String name, int slots) {
+            this.name = name;
+            this.slots = slots;
+            Metrics.globalRegistry.gauge(PipelineMetrics.SCHEDULER_QUEUE_DEPTH, Tags.of("pool", name), this, Lane::queueDepth);
+            Metrics.globalRegistry.gauge(PipelineMetrics.SCHEDULER_ACTIVE, Tags.of("pool", name), this, Lane::active);
+        }
+
+        synchronized void acquire(String client, double weight) {
+            Double previousFinish = lastFinish.get(client);
+            double start = Math.max(virtualTime, previousFinish != null ? previousFinish : 0.0);
+            Ticket ticket = new Ticket(start, start + 1 / weight, sequence++);
+            // 排队时就推进客户端的虚拟完成时间，同一客户端随后排队的请求排在它后面
+            lastFinish.put(client, ticket.finish);
+            if (busy < slots && waiting.isEmpty()) {
+                grant(ticket);
+                return;
+            }
+            waiting.add(ticket);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+            boolean granted = false;
+            try {
+                while (waiting.peek() != ticket || busy >= slots) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        PipelineMetrics.counter(PipelineMetrics.SCHEDULER_TIMEOUT, "pool", name).increment();
+                        throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "timeout",
+                                "等待" + name + "执行通道超时（" + queueTimeoutMs + "ms），请稍后重试");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                granted = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "interrupted",
+                        "等待" + name + "执行通道时被中断");
+            } finally {
+                waiting.remove(ticket);
+                if (granted) {
+                    grant(ticket);
+                } else if (Objects.equals(lastFinish.get(client), ticket.finish)) {
+                    // 超时或中断的请求没有执行，不占用客户端的份额（之后已排队的同一客户端请求除外）
+                    if (previousFinish != null) {
+                        lastFinish.put(client, previousFinish);
+                    } else {
+                        lastFinish.remove(client);
+                    }
+                }
+                notifyAll();
+            }
+        }
+
+        synchronized void release() {
+            busy--;
+            if (lastFinish.size() > MAX_IDLE_CLIENTS) {
+                // 虚拟完成时间不晚于通道虚拟时间的客户端，下次请求本来就从通道虚拟时间开始
+                lastFinish.values().removeIf(finish -> finish <= virtualTime);
+            }
+            notifyAll();
+        }
+
+        private void grant(Ticket ticket) {
+            busy++;
+            virtualTime = Math.max(virtualTime, ticket.start);
+        }
+
+        synchronized int queueDepth() {
+            return waiting.size();
+        }
+
+        synchronized int active() {
+            return busy;
+        }
+    }
+
+    /**
+     * 排队的请求，按虚拟完成时间排序，相同时先到先得
+     */
+    private static final class Ticket implements Comparable<Ticket> {
+        private final double start;
+        private final double finish;
+        private final long sequence;
+
+        Ticket(double start, double finish, long sequence) {
+            this.start = start;
+            this.finish = finish;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int byFinish = Double.compare(finish, other.finish);
+            return byFinish != 0 ? byFinish : Long.compare(sequence, other.sequence);
+        }
+    }
+}
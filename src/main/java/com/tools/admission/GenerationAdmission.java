@@ -0,0 +1,344 @@
+package com.tools.admission;
+
+import com.tools.metrics.PipelineMetrics;
+import com.tools.model.database.TableMetadata;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文档生成的内存准入控制
+ * 每个生成请求按预估内存占用向堆预算申请额度，额度不足时按到达顺序排队，
+ * 排队已满或等待超时返回503，单个请求超过整个预算返回413。
+ * 请求开始时只知道输入大小，按输入大小预估；解析出数据模型后由服务按接口/数据模型/列数量重新估算（{@link #refineOpenApi}、
+ * {@link #refineDatabase}），调整已占用的额度：调大后超出预算时等待其他请求释放额度（优先于排队中的新请求），
+ * 等待超时或持有额度的请求都在等待调大（互相等待）时返回503。
+ * 额度绑定在处理请求的线程上，命令行等没有准入的环境下调整为空操作
+ */
+@Component
+public class GenerationAdmission {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationAdmission.class);
+
+    private static final ThreadLocal<Permit> CURRENT = new ThreadLocal<>();
+
+    /** OpenAPI文档生成 */
+    public static final String OPENAPI = "openapi";
+    /** 数据库文档生成 */
+    public static final String DATABASE = "database";
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled = true;
+
+    /** 堆预算（MB），0表示最大堆的heap-budget-ratio */
+    @Value("${admission.heap-budget-mb:0}")
+    private long heapBudgetMb;
+
+    @Value("${admission.heap-budget-ratio:0.6}")
+    private double heapBudgetRatio = 0.6;
+
+    @Value("${admission.max-queue:16}")
+    private int maxQueue = 16;
+
+    @Value("${admission.queue-timeout-ms:30000}")
+    private long queueTimeoutMs = 30000;
+
+    /** 输入大小未知（如从URL获取规范、从数据库提取）时按此大小预估 */
+    @Value("${admission.default-input-bytes:4194304}")
+    private long defaultInputBytes = 4L << 20;
+
+    /** 每个请求的固定开销：模板、XWPF文档骨架和输出缓冲 */
+    @Value("${admission.base-bytes:33554432}")
+    private long baseBytes = 32L << 20;
+
+    /** OpenAPI输入每字节的内存：原始字符串、JsonNode树和数据模型 */
+    @Value("${admission.openapi.bytes-per-input-byte:12}")
+    private long openApiBytesPerInputByte = 12;
+
+    @Value("${admission.openapi.bytes-per-endpoint:262144}")
+    private long bytesPerEndpoint = 256L << 10;
+
+    @Value("${admission.openapi.bytes-per-definition:131072}")
+    private long bytesPerDefinition = 128L << 10;
+
+    /** 元数据JSON输入每字节的内存：原始内容、JsonNode树和元数据对象 */
+    @Value("${admission.database.bytes-per-input-byte:10}")
+    private long databaseBytesPerInputByte = 10;
+
+    /** 每列元数据对象的内存 */
+    @Value("${admission.database.bytes-per-column:2048}")
+    private long bytesPerColumn = 2L << 10;
+
+    /** 同时渲染的每列在XWPF文档中的内存 */
+    @Value("${admission.database.bytes-per-rendered-column:32768}")
+    private long bytesPerRenderedColumn = 32L << 10;
+
+    /** 调大额度被拒绝时的Retry-After */
+    @Value("${admission.retry-after-seconds:10}")
+    private int retryAfterSeconds = 10;
+
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private long budgetBytes;
+    private long reservedBytes;
+    /** 等待调大额度的请求数及其已占用的额度 */
+    private int growingPermits;
+    private long growingBytes;
+
+    @PostConstruct
+    public void init() {
+        budgetBytes = heapBudgetMb > 0 ? heapBudgetMb << 20 : (long) (Runtime.getRuntime().maxMemory() * heapBudgetRatio);
+        Metrics.globalRegistry.gauge(PipelineMetrics.ADMISSION_QUEUE_DEPTH, Tags.empty(), this, GenerationAdmission::getQueueDepth);
+        Metrics.globalRegistry.gauge(PipelineMetrics.ADMISSION_RESERVED, Tags.empty(), this, GenerationAdmission::getReservedBytes);
+        Metrics.globalRegistry.gauge(PipelineMetrics.ADMISSION_BUDGET, Tags.empty(), this, GenerationAdmission::getBudgetBytes);
+        logger.info("文档生成内存预算: {} MB（最大堆 {} MB）", budgetBytes >> 20, Runtime.getRuntime().maxMemory() >> 20);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 按输入大小申请额度，必要时排队等待，成功后额度绑定到当前线程
+     *
+     * @param kind       请求类型：openapi或database
+     * @param inputBytes 请求体大小，未知时为负数
+     * @return 额度，请求结束时关闭
+     * @throws AdmissionRejectedException 超过预算、排队已满或等待超时
+     * @throws InterruptedException       等待时被中断
+     */
+    public Permit admit(String kind, long inputBytes) throws InterruptedException {
+        long input = inputBytes >= 0 ? inputBytes : defaultInputBytes;
+        long cost = baseBytes + input * (OPENAPI.equals(kind) ? openApiBytesPerInputByte : databaseBytesPerInputByte);
+        long start = System.nanoTime();
+        try {
+            acquire(cost);
+        } catch (AdmissionRejectedException e) {
+            PipelineMetrics.counter(PipelineMetrics.ADMISSION_REJECTED, "kind", kind, "reason", e.getRejectReason()).increment();
+            throw e;
+        } finally {
+            PipelineMetrics.timer(PipelineMetrics.ADMISSION_WAIT, "kind", kind).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        Permit permit = new Permit(this, kind, input, cost);
+        CURRENT.set(permit);
+        return permit;
+    }
+
+    /**
+     * 请求开始时未知的输入大小（如从URL获取的规范）确定后记录下来，用于之后的重新估算
+     */
+    public static void recordInputSize(long inputBytes) {
+        Permit permit = CURRENT.get();
+        if (permit != null) {
+            permit.inputBytes = inputBytes;
+        }
+    }
+
+    /**
+     * 当前请求共享其他请求的计算结果（合并执行）时释放额度，只保留线程绑定
+     */
+    public static void releaseShared() {
+        Permit permit = CURRENT.get();
+        if (permit != null) {
+            permit.owner.release(permit);
+        }
+    }
+
+    /**
+     * 按解析出的OpenAPI数据模型重新估算当前请求的额度
+     */
+    public static void refineOpenApi(int endpoints, int definitions) {
+        Permit permit = CURRENT.get();
+        if (permit != null) {
+            GenerationAdmission owner = permit.owner;
+            permit.resize(owner.baseBytes + permit.inputBytes * owner.openApiBytesPerInputByte
+                    + endpoints * owner.bytesPerEndpoint + definitions * owner.bytesPerDefinition);
+        }
+    }
+
+    /**
+     * 按数据库元数据重新估算当前请求的额度
+     *
+     * @param tables          所有表
+     * @param concurrentTables 同时渲染的表数量（分片渲染时为分片大小乘以并行度，整体渲染时为全部表）
+     */
+    public static void refineDatabase(List<TableMetadata> tables, int concurrentTables) {
+        Permit permit = CURRENT.get();
+        if (permit != null) {
+            long columns = 0;
+            for (TableMetadata table : tables) {
+                columns += table.getColumns().size();
+            }
+            long renderedColumns = tables.isEmpty() ? 0
+                    : columns * Math.min(concurrentTables, tables.size()) / tables.size();
+            GenerationAdmission owner = permit.owner;
+            permit.resize(owner.baseBytes + permit.inputBytes * owner.databaseBytesPerInputByte
+                    + columns * owner.bytesPerColumn + renderedColumns * owner.bytesPerRenderedColumn);
+        }
+    }
+
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    public synchronized long getReservedBytes() {
+        return reservedBytes;
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * 申请额度：队列为空且额度足够时直接通过，否则排队，只有队首且额度足够时通过
+     */
+    private synchronized void acquire(long cost) throws InterruptedException {
+        if (cost > budgetBytes) {
+            throw tooLarge(cost);
+        }
+        if (queue.isEmpty() && growingPermits == 0 && reservedBytes + cost <= budgetBytes) {
+            reservedBytes += cost;
+            return;
+        }
+        if (queue.size() >= maxQueue) {
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "queue_full",
+                    "生成请求排队已满（" + maxQueue + "），请稍后重试");
+        }
+        Waiter waiter = new Waiter();
+        queue.addLast(waiter);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+        try {
+            while (queue.peekFirst() != waiter || growingPermits > 0 || reservedBytes + cost > budgetBytes) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "timeout",
+                            "等待内存预算超时（" + queueTimeoutMs + "ms），请稍后重试");
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            reservedBytes += cost;
+        } finally {
+            queue.remove(waiter);
+            notifyAll();
+        }
+    }
+
+    /**
+     * 调整额度：调小立即生效；调大后超出预算时等待其他请求释放额度
+     */
+    private synchronized void resize(Permit permit, long cost) {
+        if (cost > budgetBytes) {
+            throw tooLarge(cost);
+        }
+        long delta = cost - permit.costBytes;
+        if (delta > 0 && reservedBytes + delta > budgetBytes) {
+            awaitGrowth(permit, delta);
+        }
+        reservedBytes += delta;
+        permit.costBytes = cost;
+        notifyAll();
+    }
+
+    /**
+     * 等待预算容得下调大的额度。其余额度都由同样在等待调大的请求占用时，等待不会有结果，直接拒绝
+     * （被拒绝的请求结束后释放额度，其他请求得以继续）
+     */
+    private void awaitGrowth(Permit permit, long delta) {
+        growingPermits++;
+        growingBytes += permit.costBytes;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+        try {
+            while (reservedBytes + delta > budgetBytes) {
+                if (reservedBytes - growingBytes <= 0) {
+                    throw overcommitted("overcommit", "生成请求的内存预估超出剩余预算，请稍后重试");
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw overcommitted("timeout", "等待内存预算超时（" + queueTimeoutMs + "ms），请稍后重试");
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw overcommitted("interrupted", "等待内存预算时被中断");
+        } finally {
+            growingPermits--;
+            growingBytes -= permit.costBytes;
+            notifyAll();
+        }
+    }
+
+    private synchronized void release(Permit permit) {
+        reservedBytes -= permit.costBytes;
+        permit.costBytes = 0;
+        notifyAll();
+    }
+
+    private AdmissionRejectedException overcommitted(String reason, String message) {
+        return new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, reason, message, retryAfterSeconds);
+    }
+
+    private AdmissionRejectedException tooLarge(long cost) {
+        return new AdmissionRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, "too_large",
+                String.format("预估内存 %d MB 超过生成预算 %d MB", cost >> 20, budgetBytes >> 20));
+    }
+
+    /**
+     * 排队中的请求（按对象身份区分）
+     */
+    private static final class Waiter {
+    }
+
+    /**
+     * 已准入请求占用的额度
+     */
+    public static final class Permit implements AutoCloseable {
+        private final GenerationAdmission owner;
+        private final String kind;
+        private long inputBytes;
+        private long costBytes;
+
+        private Permit(GenerationAdmission owner, String kind, long inputBytes, long costBytes) {
+            this.owner = owner;
+            this.kind = kind;
+            this.inputBytes = inputBytes;
+            this.costBytes = costBytes;
+        }
+
+        /**
+         * 调整额度，超过整个预算时抛出413，调大后无法等到足够的额度时抛出503，由调用方结束请求
+         */
+        private void resize(long cost) {
+            try {
+                owner.resize(this, cost);
+            } catch (AdmissionRejectedException e) {
+                PipelineMetrics.counter(PipelineMetrics.ADMISSION_REJECTED, "kind", kind, "reason", e.getRejectReason()).increment();
+                throw e;
+            }
+        }
+
+        public long getCostBytes() {
+            return costBytes;
+        }
+
+        /**
+         * 释放额度并解除线程绑定
+         */
+        @Override
+        public void close() {
+            owner.release(this);
+            if (CURRENT.get() == this) {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.tools.admission;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 客户端超出请求频率限制（429）
+ */
+public class RateLimitedException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "请求过于频繁，请" + retryAfterSeconds + "秒后重试");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * 下一个令牌可用前的秒数，用作Retry-After
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,129 @@
+package com.tools.admission;
+
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 相同请求的合并执行
+ * 同一个键同时只有一次计算：第一个请求（leader）在自己的线程上计算，
+ * 计算期间到达的相同请求等待并共享结果（包括异常）。计算结束后键被移除，之后的请求重新计算，不做结果缓存。
+ * leader被准入或调度拒绝（{@link AdmissionRejectedException}）只针对它自己的请求和客户端，不转给等待者，
+ * 等待者改为自己重新执行或加入下一次计算
+ *
+ * @param <K> 请求键
+ * @param <V> 结果，所有等待者共享同一个对象，调用方不应修改
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行或加入同一个键正在进行的计算
+     *
+     * @param key         请求键
+     * @param timeoutMs   加入已有计算时最多等待的毫秒数（包括leader被拒绝后加入下一次计算的等待）
+     * @param computation 计算
+     * @param onJoin      加入已有计算时的回调（在等待之前调用），如计数和释放资源
+     * @return 计算结果
+     * @throws IOException                计算抛出的IO异常
+     * @throws AdmissionRejectedException 等待合并的结果超时（503），或自己重新执行时被拒绝
+     */
+    public V execute(K key, long timeoutMs, Computation<V> computation, Runnable onJoin) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (true) {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                return compute(key, future, computation);
+            }
+            onJoin.run();
+            await(existing, deadline, timeoutMs);
+            if (!isRejected(existing)) {
+                return join(existing);
+            }
+        }
+    }
+
+    /**
+     * 正在进行的计算数量
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    private V compute(K key, CompletableFuture<V> future, Computation<V> computation) throws IOException {
+        try {
+            V result = computation.compute();
+            future.complete(result);
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 在截止时间前等待计算结束，超时拒绝（503），不取消leader的计算
+     */
+    private static void await(CompletableFuture<?> future, long deadline, long timeoutMs) throws IOException {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "timeout",
+                    "等待合并的请求结果超时（" + timeoutMs + "ms），请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待合并的请求结果时被中断", e);
+        } catch (ExecutionException e) {
+            // 由join处理
+        }
+    }
+
+    private static boolean isRejected(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return false;
+        } catch (CompletionException e) {
+            return e.getCause() instanceof AdmissionRejectedException;
+        }
+    }
+
+    /**
+     * 取出已结束计算的结果，异常原样抛出
+     */
+    private static <V> V join(CompletableFuture<V> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("合并的请求执行失败", cause);
+        }
+    }
+
+    /**
+     * 合并执行的计算
+     */
+    @FunctionalInterface
+    public interface Computation<V> {
+        V compute() throws IOException;
+    }
+}
@@ -0,0 +1,54 @@
+package com.tools.admission;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶
+ * 按固定速率补充令牌，最多积累capacity个，每个请求消耗一个
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param capacity          桶容量（允许的突发请求数）
+     * @param requestsPerMinute 每分钟补充的令牌数
+     */
+    TokenBucket(int capacity, double requestsPerMinute) {
+        this.capacity = capacity;
+        this.tokensPerNano = requestsPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 尝试取一个令牌
+     *
+     * @return 0表示成功，否则为下一个令牌可用前需要等待的纳秒数
+     */
+    synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * 桶是否已满（长时间没有请求的客户端可以回收）
+     */
+    synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
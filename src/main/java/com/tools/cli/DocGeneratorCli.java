@@ -0,0 +1,447 @@
+package com.tools.cli;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tools.model.database.DatabaseConnectionConfig;
+import com.tools.model.database.DatabaseMetadata;
+import com.tools.services.JsonOpenApiParser;
+import com.tools.services.ObjectOpenApiParser;
+import com.tools.services.OpenApiDocService;
+import com.tools.services.OpenApiParserService;
+import com.tools.services.TemplateResources;
+import com.tools.services.database.DatabaseMetadataExtractor;
+import com.tools.services.database.DatabaseMetadataExtractorFactory;
+import com.tools.services.document.DatabaseDocumentService;
+import com.tools.services.document.DatabaseMetadataParser;
+import com.tools.synthetic.SyntheticDatabaseGenerator;
+import com.tools.synthetic.SyntheticOpenApiGenerator;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 命令行批量生成入口
+ * 不启动Spring MVC/Springfox，直接组装解析器、提取器和渲染器，在一个JVM中处理多个输入
+ *
+ * <pre>
+ * cli openapi  [--template file.docx] [--out dir] [--object-model] spec.json|url|dir ...
+ * cli database [--template file.docx] [--out dir] [--shard-size n [--zip]] db-config.json|metadata.json|dir ...
+ * cli generate [--out dir] [--seed n] openapi [--paths n] [--schemas n] [--ref-depth n] [--fan-out n] [--cyclic]
+ * cli generate [--out dir] [--seed n] database [--tables n] [--columns n]
+ * </pre>
+ */
+public class DocGeneratorCli {
+
+    private static final String DEFAULT_OPENAPI_TEMPLATE = "swagger/default-swagger-template.docx";
+    private static final String DEFAULT_DATABASE_TEMPLATE = "sql/database_template.docx";
+    private static final String CLI_LOGBACK_CONFIG = "logback-cli.xml";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public DocGeneratorCli(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        // 命令行模式下使用精简的日志配置，避免poi-tl逐个标签输出INFO日志
+        if (System.getProperty("logback.configurationFile") == null) {
+            System.setProperty("logback.configurationFile", CLI_LOGBACK_CONFIG);
+        }
+        int exitCode = new DocGeneratorCli(System.out, System.err).run(args);
+        System.exit(exitCode);
+    }
+
+    /**
+     * 执行命令
+     *
+     * @param args 命令行参数（第一个参数为子命令）
+     * @return 进程退出码，0表示全部成功
+     */
+    public int run(String[] args) {
+        if (args.length == 0) {
+            printUsage();
+            return 2;
+        }
+
+        CliOptions options;
+        try {
+            options = CliOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            printUsage();
+            return 2;
+        }
+
+        try {
+            switch (options.command) {
+                case "openapi":
+                    return runOpenApi(options);
+                case "database":
+                    return runDatabase(options);
+                case "generate":
+                    return runGenerate(options);
+                default:
+                    err.println("未知命令: " + options.command);
+                    printUsage();
+                    return 2;
+            }
+        } catch (IOException e) {
+            err.println("执行失败: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * 批量生成OpenAPI文档
+     */
+    private int runOpenApi(CliOptions options) throws IOException {
+        OpenApiParserService parserService = new OpenApiParserService(new JsonOpenApiParser(), new ObjectOpenApiParser());
+        parserService.setParsingMode(options.objectModel);
+        OpenApiDocService docService = new OpenApiDocService(parserService);
+
+        byte[] template = loadTemplate(options.template, DEFAULT_OPENAPI_TEMPLATE);
+        Path outputDir = createOutputDirectory(options.outputDir);
+
+        int failures = 0;
+        Set<String> usedNames = new HashSet<>();
+        for (String input : expandInputs(options.inputs)) {
+            long start = System.nanoTime();
+            Path target = outputDir.resolve(uniqueName(outputName(input), usedNames));
+            try {
+                byte[] document;
+                if (isUrl(input)) {
+                    document = docService.generateDocFromUrl(input, new ByteArrayInputStream(template));
+                } else {
+                    try (InputStream specStream = Files.newInputStream(Paths.get(input))) {
+                        document = docService.generateDocFromFile(specStream, new ByteArrayInputStream(template));
+                    }
+                }
+                Files.write(target, document);
+                report(input, target, start);
+            } catch (Exception e) {
+                failures++;
+                err.println("[FAIL] " + input + ": " + describe(e));
+            }
+        }
+        return failures == 0 ? 0 : 1;
+    }
+
+    /**
+     * 批量生成数据库文档
+     * 输入文件既可以是数据库连接配置，也可以是已导出的元数据JSON（含tables字段）
+     */
+    private int runDatabase(CliOptions options) throws IOException {
+        DatabaseDocumentService documentService = new DatabaseDocumentService();
+        DatabaseMetadataParser metadataParser = new DatabaseMetadataParser();
+
+        byte[] template = loadTemplate(options.template, DEFAULT_DATABASE_TEMPLATE);
+        Path outputDir = createOutputDirectory(options.outputDir);
+
+        int failures = 0;
+        Set<String> usedNames = new HashSet<>();
+        for (String input : expandInputs(options.inputs)) {
+            long start = System.nanoTime();
+            String outputName = outputName(input);
+            if (options.zip) {
+                outputName = outputName.substring(0, outputName.length() - ".docx".length()) + ".zip";
+            }
+            Path target = outputDir.resolve(uniqueName(outputName, usedNames));
+            try {
+                DatabaseMetadata metadata;
+                JsonNode rootNode = objectMapper.readTree(new File(input));
+                if (rootNode.has("tables")) {
+                    metadata = metadataParser.parseFromFile(new File(input));
+                } else {
+                    DatabaseConnectionConfig config = objectMapper.treeToValue(rootNode, DatabaseConnectionConfig.class);
+                    DatabaseMetadataExtractor extractor = DatabaseMetadataExtractorFactory.getExtractor(config.getDatabaseType());
+                    metadata = extractor.extractMetadata(config);
+                }
+
+                if (options.shardSize > 0) {
+                    documentService.generateShardedDocument(metadata, template, options.shardSize,
+                            options.zip ? DatabaseDocumentService.ShardFormat.ZIP : DatabaseDocumentService.ShardFormat.MERGED,
+                            target.toString());
+                } else {
+                    documentService.generateDocument(metadata, new ByteArrayInputStream(template), target.toString());
+                }
+                report(input, target, start);
+            } catch (Exception e) {
+                failures++;
+                err.println("[FAIL] " + input + ": " + describe(e));
+            }
+        }
+        return failures == 0 ? 0 : 1;
+    }
+
+    /**
+     * 生成合成的OpenAPI规范或数据库元数据JSON，供压测和基准测试使用
+     * 输出文件名包含规模参数，生成的文件可直接作为openapi/database命令或上传接口的输入
+     */
+    private int runGenerate(CliOptions options) throws IOException {
+        Path outputDir = createOutputDirectory(options.outputDir);
+        long start = System.nanoTime();
+        String kind = options.inputs.get(0);
+        String json;
+        String name;
+        if ("openapi".equals(kind)) {
+            SyntheticOpenApiGenerator.Options generatorOptions = options.openApiOptions;
+            json = new SyntheticOpenApiGenerator().generateJson(generatorOptions);
+            name = String.format("openapi-p%d-s%d-d%d-f%d%s.json", generatorOptions.getPaths(), generatorOptions.getSchemas(),
+                    generatorOptions.getRefDepth(), generatorOptions.getFanOut(), generatorOptions.isCyclicRefs() ? "-cyclic" : "");
+        } else if ("database".equals(kind)) {
+            SyntheticDatabaseGenerator.Options generatorOptions = options.databaseOptions;
+            json = new SyntheticDatabaseGenerator().generateJson(generatorOptions);
+            name = String.format("database-t%d-c%d.json", generatorOptions.getTables(), generatorOptions.getColumnsPerTable());
+        } else {
+            err.println("未知生成类型: " + kind);
+            printUsage();
+            return 2;
+        }
+        Path target = outputDir.resolve(name);
+        Files.write(target, json.getBytes(StandardCharsets.UTF_8));
+        report(kind, target, start);
+        return 0;
+    }
+
+    /**
+     * 读取模板（未指定时使用classpath中的默认模板），只读取一次供所有输入复用
+     */
+    private byte[] loadTemplate(String templateFile, String defaultTemplate) throws IOException {
+        if (templateFile != null) {
+            return Files.readAllBytes(Paths.get(templateFile));
+        }
+        return TemplateResources.load(defaultTemplate);
+    }
+
+    private Path createOutputDirectory(String outputDir) throws IOException {
+        Path path = Paths.get(outputDir);
+        if (!Files.exists(path)) {
+            Files.createDirectories(path);
+        }
+        return path;
+    }
+
+    /**
+     * 展开输入参数，目录按文件名顺序展开为其中的JSON文件
+     */
+    private List<String> expandInputs(List<String> inputs) throws IOException {
+        List<String> expanded = new ArrayList<>();
+        for (String input : inputs) {
+            Path path = isUrl(input) ? null : Paths.get(input);
+            if (path != null && Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.list(path)) {
+                    expanded.addAll(files
+                            .filter(file -> file.getFileName().toString().toLowerCase().endsWith(".json"))
+                            .map(Path::toString)
+                            .sorted()
+                            .collect(Collectors.toList()));
+                }
+            } else {
+                expanded.add(input);
+            }
+        }
+        return expanded;
+    }
+
+    private boolean isUrl(String input) {
+        return input.startsWith("http://") || input.startsWith("https://");
+    }
+
+    /**
+     * 根据输入推导输出文件名
+     */
+    static String outputName(String input) {
+        String name = input;
+        int queryIndex = name.indexOf('?');
+        if (queryIndex >= 0) {
+            name = name.substring(0, queryIndex);
+        }
+        if (name.endsWith("/")) {
+            name = name.substring(0, name.length() - 1);
+        }
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf(File.separatorChar)) + 1);
+        int extIndex = name.lastIndexOf('.');
+        if (extIndex > 0) {
+            name = name.substring(0, extIndex);
+        }
+        name = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return (name.isEmpty() ? "document" : name) + ".docx";
+    }
+
+    /**
+     * 同一次运行中文件名重复时（如不同服务的/v3/api-docs、不同目录下的openapi.json）按输入顺序追加-2、-3等后缀，
+     * 不覆盖本次已输出的文件。名称在生成前占用，失败的输入不影响后续输入的文件名
+     */
+    static String uniqueName(String name, Set<String> usedNames) {
+        int extIndex = name.lastIndexOf('.');
+        String base = name.substring(0, extIndex);
+        String extension = name.substring(extIndex);
+        String candidate = name;
+        for (int i = 2; !usedNames.add(candidate.toLowerCase()); i++) {
+            candidate = base + "-" + i + extension;
+        }
+        return candidate;
+    }
+
+    private void report(String input, Path target, long startNanos) {
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        out.println("[OK] " + input + " -> " + target + " (" + elapsedMillis + " ms)");
+    }
+
+    /**
+     * 拼接异常链信息，poi-tl的渲染异常本身不包含出错原因
+     */
+    private String describe(Throwable e) {
+        StringBuilder message = new StringBuilder(String.valueOf(e.getMessage()));
+        for (Throwable cause = e.getCause(); cause != null && cause != cause.getCause(); cause = cause.getCause()) {
+            message.append(" <- ").append(cause.getMessage());
+        }
+        return message.toString();
+    }
+
+    private void printUsage() {
+        err.println("用法:");
+        err.println("  cli openapi  [--template file.docx] [--out dir] [--object-model] <spec.json|url|dir>...");
+        err.println("  cli database [--template file.docx] [--out dir] [--shard-size n [--zip]] <db-config.json|metadata.json|dir>...");
+        err.println("  cli generate [--out dir] [--seed n] openapi [--paths n] [--schemas n] [--ref-depth n] [--fan-out n] [--cyclic]");
+        err.println("  cli generate [--out dir] [--seed n] database [--tables n] [--columns n]");
+    }
+
+    /**
+     * 命令行参数
+     */
+    static class CliOptions {
+        String command;
+        String template;
+        String outputDir = "./output";
+        boolean objectModel;
+        int shardSize;
+        boolean zip;
+        SyntheticOpenApiGenerator.Options openApiOptions = new SyntheticOpenApiGenerator.Options();
+        SyntheticDatabaseGenerator.Options databaseOptions = new SyntheticDatabaseGenerator.Options();
+        List<String> inputs = new ArrayList<>();
+
+        static CliOptions parse(String[] args) {
+            CliOptions options = new CliOptions();
+            options.command = args[0];
+            for (int i = 1; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--template":
+                        options.template = requireValue(args, ++i, arg);
+                        break;
+                    case "--out":
+                        options.outputDir = requireValue(args, ++i, arg);
+                        break;
+                    case "--object-model":
+                        options.objectModel = true;
+                        break;
+                    case "--shard-size":
+                        options.shardSize = parsePositive(requireValue(args, ++i, arg), arg);
+                        break;
+                    case "--zip":
+                        options.zip = true;
+                        break;
+                    case "--seed":
+                        long seed = parseLong(requireValue(args, ++i, arg), arg);
+                        options.openApiOptions.setSeed(seed);
+                        options.databaseOptions.setSeed(seed);
+                        break;
+                    case "--paths":
+                        options.openApiOptions.setPaths(parsePositive(requireValue(args, ++i, arg), arg));
+                        break;
+                    case "--schemas":
+                        options.openApiOptions.setSchemas(parsePositive(requireValue(args, ++i, arg), arg));
+                        break;
+                    case "--ref-depth":
+                        options.openApiOptions.setRefDepth(parseNonNegative(requireValue(args, ++i, arg), arg));
+                        break;
+                    case "--fan-out":
+                        options.openApiOptions.setFanOut(parseNonNegative(requireValue(args, ++i, arg), arg));
+                        break;
+                    case "--cyclic":
+                        options.openApiOptions.setCyclicRefs(true);
+                        break;
+                    case "--tables":
+                        options.databaseOptions.setTables(parsePositive(requireValue(args, ++i, arg), arg));
+                        break;
+                    case "--columns":
+                        options.databaseOptions.setColumnsPerTable(parsePositive(requireValue(args, ++i, arg), arg));
+                        break;
+                    default:
+                        if (arg.startsWith("--")) {
+                            throw new IllegalArgumentException("未知参数: " + arg);
+                        }
+                        options.inputs.add(arg);
+                }
+            }
+            if (options.inputs.isEmpty()) {
+                throw new IllegalArgumentException("至少需要一个输入");
+            }
+            if ("generate".equals(options.command) && options.inputs.size() != 1) {
+                throw new IllegalArgumentException("generate命令需要且只需要一个生成类型: openapi或database");
+            }
+            if (options.zip && options.shardSize == 0) {
+                throw new IllegalArgumentException("--zip需要同时指定--shard-size");
+            }
+            return options;
+        }
+
+        private static String requireValue(String[] args, int index, String name) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException("参数缺少取值: " + name);
+            }
+            return args[index];
+        }
+
+        private static int parsePositive(String value, String name) {
+            try {
+                int number = Integer.parseInt(value);
+                if (number > 0) {
+                    return number;
+                }
+            } catch (NumberFormatException ignored) {
+                // 统一在下方抛出参数错误
+            }
+            throw new IllegalArgumentException("参数取值必须为正整数: " + name + " " + value);
+        }
+
+        private static int parseNonNegative(String value, String name) {
+            try {
+                int number = Integer.parseInt(value);
+                if (number >= 0) {
+                    return number;
+                }
+            } catch (NumberFormatException ignored) {
+                // 统一在下方抛出参数错误
+            }
+            throw new IllegalArgumentException("参数取值必须为非负整数: " + name + " " + value);
+        }
+
+        private static long parseLong(String value, String name) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("参数取值必须为整数: " + name + " " + value);
+            }
+        }
+    }
+}
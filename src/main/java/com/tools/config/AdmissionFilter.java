@@ -0,0 +1,87 @@
+package com.tools.config;
+
+import com.tools.admission.AdmissionRejectedException;
+import com.tools.admission.GenerationAdmission;
+import com.tools.metrics.PipelineTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 文档生成接口的内存准入
+ * OpenAPI文档生成和数据库文档生成请求先按请求体大小向GenerationAdmission申请内存额度，
+ * 未准入时直接返回413/503（503附带Retry-After），准入等待计入请求跟踪的admission阶段
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    private final GenerationAdmission admission;
+
+    @Value("${admission.retry-after-seconds:10}")
+    private int retryAfterSeconds = 10;
+
+    public AdmissionFilter(GenerationAdmission admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admission.isEnabled() || kind(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        GenerationAdmission.Permit permit;
+        PipelineTrace.Span span = PipelineTrace.span("admission");
+        try {
+            permit = admission.admit(kind(request), request.getContentLengthLong());
+        } catch (AdmissionRejectedException e) {
+            logger.warn("生成请求未准入: {} {} - {}", request.getMethod(), request.getRequestURI(), e.getReason());
+            if (e.isRetryable()) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            }
+            response.sendError(e.getStatus().value(), e.getReason());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("等待生成内存预算时被中断", e);
+        } finally {
+            span.stop();
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * 需要准入的请求类型，其余请求为null
+     */
+    private String kind(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/openapi-doc/")) {
+            return GenerationAdmission.OPENAPI;
+        }
+        if (path.startsWith("/api/database/document/")) {
+            return GenerationAdmission.DATABASE;
+        }
+        return null;
+    }
+}
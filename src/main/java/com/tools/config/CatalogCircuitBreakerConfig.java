@@ -0,0 +1,39 @@
+package com.tools.config;
+
+import com.tools.services.database.CatalogCircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 目标数据库熔断器的配置
+ * 提取器不是Spring管理的对象，启动时把配置写入CatalogCircuitBreaker的静态设置；
+ * 不参与懒加载，否则fast配置下没有任何Bean依赖它，配置不会生效
+ */
+@Component
+@Lazy(false)
+public class CatalogCircuitBreakerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCircuitBreakerConfig.class);
+
+    @Value("${database.circuit-breaker.enabled:true}")
+    private boolean enabled = true;
+
+    /** 打开熔断器的连续失败次数 */
+    @Value("${database.circuit-breaker.failure-threshold:3}")
+    private int failureThreshold = 3;
+
+    /** 打开后进入半开状态前的秒数 */
+    @Value("${database.circuit-breaker.open-seconds:60}")
+    private long openSeconds = 60;
+
+    @PostConstruct
+    public void init() {
+        CatalogCircuitBreaker.configure(enabled, failureThreshold, openSeconds);
+        logger.info("数据库熔断器: {}", enabled ? "连续失败" + failureThreshold + "次后打开" + openSeconds + "秒" : "未启用");
+    }
+}
@@ -0,0 +1,35 @@
+package com.tools.config;
+
+import com.tools.services.database.ExtractionCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 元数据提取检查点的配置
+ * 提取器不是Spring管理的对象，启动时把配置写入ExtractionCheckpoint的静态设置；
+ * 不参与懒加载，否则fast配置下没有任何Bean依赖它，配置不会生效
+ */
+@Component
+@Lazy(false)
+public class ExtractionCheckpointConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionCheckpointConfig.class);
+
+    @Value("${database.checkpoint.enabled:false}")
+    private boolean enabled = false;
+
+    /** 检查点目录，为空时使用用户主目录下的.tips/checkpoints */
+    @Value("${database.checkpoint.directory:}")
+    private String directory = "";
+
+    @PostConstruct
+    public void init() {
+        ExtractionCheckpoint.configure(enabled, directory);
+        logger.info("元数据提取检查点: {}", enabled ? "启用" : "未启用");
+    }
+}
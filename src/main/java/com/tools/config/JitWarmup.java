@@ -0,0 +1,172 @@
+package com.tools.config;
+
+import com.tools.metrics.PipelineMetrics;
+import com.tools.model.database.DatabaseConnectionConfig;
+import com.tools.model.database.DatabaseMetadata;
+import com.tools.services.OpenApiDocService;
+import com.tools.services.TemplateResources;
+import com.tools.services.database.DatabaseMetadataExtractorFactory;
+import com.tools.services.document.DatabaseDocumentService;
+import com.tools.synthetic.SyntheticDatabaseGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 启动预热
+ * 应用就绪后在后台线程中把内置的OpenAPI规范完整生成若干次（解析、示例生成、代码高亮、渲染），
+ * 并从内存H2数据库提取一个小型库的元数据并渲染，让POI/poi-tl、swagger-parser、Spring EL和代码高亮的类加载
+ * 以及JIT编译在接收流量之前完成。预热结束前健康检查（/actuator/health）报告OUT_OF_SERVICE，
+ * 就绪探针据此暂缓导入流量；结束后记录预热耗时和之后首个/api/请求的耗时。
+ * 预热推迟就绪，与快速启动的目标相反，默认关闭，通过warmup配置（application-warmup.yml）开启
+ */
+@Component
+@ConditionalOnProperty(prefix = "startup.warmup", name = "enabled", havingValue = "true")
+public class JitWarmup implements ApplicationListener<ApplicationEvent>, HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(JitWarmup.class);
+
+    private final OpenApiDocService openApiDocService;
+    private final DatabaseDocumentService databaseDocumentService;
+
+    @Value("${startup.warmup.iterations:5}")
+    private int iterations = 5;
+
+    @Value("${startup.warmup.spec:swagger/openapi.json}")
+    private String spec = "swagger/openapi.json";
+
+    /** 预热用H2库的表数量，0表示不预热数据库提取 */
+    @Value("${startup.warmup.database-tables:20}")
+    private int databaseTables = 20;
+
+    @Value("${startup.warmup.database-template:sql/database_template.docx}")
+    private String databaseTemplate = "sql/database_template.docx";
+
+    private final AtomicBoolean firstRequestRecorded = new AtomicBoolean();
+    private final List<Long> iterationMillis = new ArrayList<>();
+    private volatile boolean finished;
+    private volatile long warmupMillis = -1;
+
+    public JitWarmup(OpenApiDocService openApiDocService, DatabaseDocumentService databaseDocumentService) {
+        this.openApiDocService = openApiDocService;
+        this.databaseDocumentService = databaseDocumentService;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ApplicationReadyEvent) {
+            Thread worker = new Thread(this::warmUp, "jit-warmup");
+            worker.setDaemon(true);
+            worker.start();
+        } else if (event instanceof ServletRequestHandledEvent && finished) {
+            ServletRequestHandledEvent request = (ServletRequestHandledEvent) event;
+            if (request.getRequestUrl().startsWith("/api/") && firstRequestRecorded.compareAndSet(false, true)) {
+                PipelineMetrics.timer(PipelineMetrics.WARMUP_FIRST_REQUEST)
+                        .record(request.getProcessingTimeMillis(), TimeUnit.MILLISECONDS);
+                logger.info("预热后首个请求 {} {} 耗时 {} ms", request.getMethod(), request.getRequestUrl(),
+                        request.getProcessingTimeMillis());
+            }
+        }
+    }
+
+    @Override
+    public Health health() {
+        if (!finished) {
+            return Health.outOfService().withDetail("warmup", "running").build();
+        }
+        return Health.up().withDetail("warmupMillis", warmupMillis).withDetail("iterationMillis", iterationMillis).build();
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        try {
+            String openApiJson;
+            try (InputStream in = TemplateResources.open(spec)) {
+                openApiJson = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+            }
+            DatabaseConnectionConfig database = databaseTables > 0 ? createDatabase() : null;
+            for (int i = 0; i < iterations; i++) {
+                long iterationStart = System.nanoTime();
+                openApiDocService.generateDocFromJson(openApiJson, (String) null);
+                if (database != null) {
+                    renderDatabase(database);
+                }
+                iterationMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - iterationStart));
+            }
+            if (database != null) {
+                dropDatabase(database);
+            }
+        } catch (Exception e) {
+            // 预热失败不影响服务，只是首批请求仍然较慢
+            logger.warn("启动预热失败: {}", e.getMessage(), e);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            warmupMillis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            PipelineMetrics.timer(PipelineMetrics.WARMUP_DURATION).record(nanos, TimeUnit.NANOSECONDS);
+            finished = true;
+            logger.info("启动预热完成，耗时 {} ms，各轮耗时 {} ms", warmupMillis, iterationMillis);
+        }
+    }
+
+    /**
+     * 在内存H2数据库中创建合成的表结构（库在最后一个连接关闭前保留）
+     */
+    private DatabaseConnectionConfig createDatabase() throws Exception {
+        SyntheticDatabaseGenerator generator = new SyntheticDatabaseGenerator();
+        SyntheticDatabaseGenerator.Options options = new SyntheticDatabaseGenerator.Options();
+        options.setTables(databaseTables);
+        options.setColumnsPerTable(10);
+
+        DatabaseConnectionConfig config = new DatabaseConnectionConfig();
+        config.setDatabaseType("h2");
+        config.setJdbcUrl("jdbc:h2:mem:jit_warmup;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setSchema("PUBLIC");
+        try (Connection connection = DriverManager.getConnection(config.getJdbcUrl(), "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String ddl : generator.toDdl(generator.generate(options))) {
+                statement.execute(ddl);
+            }
+        }
+        return config;
+    }
+
+    private void renderDatabase(DatabaseConnectionConfig config) throws Exception {
+        DatabaseMetadata metadata = DatabaseMetadataExtractorFactory.getExtractor("h2").extractMetadata(config);
+        Path output = Files.createTempFile("warmup-db", ".docx");
+        try {
+            databaseDocumentService.generateDocument(metadata, databaseTemplate, output.toString());
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private void dropDatabase(DatabaseConnectionConfig config) throws Exception {
+        try (Connection connection = DriverManager.getConnection(config.getJdbcUrl(), "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.tools.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tools.metrics.PipelineTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 文档生成请求的流水线跟踪
+ * 每个/api/请求绑定一个PipelineTrace，记录获取、解析、示例生成、高亮、编译、渲染和写出等阶段：
+ * <ul>
+ *     <li>请求参数trace=server-timing（或请求头X-Pipeline-Trace: server-timing）时以Server-Timing响应头返回各阶段耗时</li>
+ *     <li>trace=json时不返回文档，改为返回跟踪报告JSON（阶段汇总和片段明细）</li>
+ *     <li>耗时超过pipeline.trace.slow-request-threshold-ms的请求记录警告日志</li>
+ * </ul>
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class PipelineTraceFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineTraceFilter.class);
+
+    /** 请求跟踪输出方式的请求参数 */
+    public static final String TRACE_PARAMETER = "trace";
+    /** 请求跟踪输出方式的请求头 */
+    public static final String TRACE_HEADER = "X-Pipeline-Trace";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${pipeline.trace.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${pipeline.trace.slow-request-threshold-ms:10000}")
+    private long slowRequestThresholdMs = 10000;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String mode = traceMode(request);
+        boolean serverTiming = "server-timing".equalsIgnoreCase(mode);
+        boolean json = "json".equalsIgnoreCase(mode);
+        // 响应头需要在提交前写入，要求返回跟踪时先缓存响应
+        ContentCachingResponseWrapper cached = json ? new TraceReportResponse(response)
+                : serverTiming ? new ContentCachingResponseWrapper(response) : null;
+
+        PipelineTrace trace = PipelineTrace.begin();
+        try {
+            filterChain.doFilter(request, cached != null ? cached : response);
+        } finally {
+            PipelineTrace.restore(null);
+            if (trace.elapsedMillis() >= slowRequestThresholdMs) {
+                logger.warn("慢请求: {} {} 耗时{}ms，各阶段: {}", request.getMethod(), request.getRequestURI(),
+                        Math.round(trace.elapsedMillis()), trace.serverTiming());
+            }
+        }
+
+        if (json) {
+            PipelineTrace.Report report = trace.report();
+            report.setMethod(request.getMethod());
+            report.setUri(request.getRequestURI());
+            report.setStatus(cached.getStatus());
+            // 丢弃文档内容，改为返回跟踪报告
+            cached.resetBuffer();
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            byte[] body = objectMapper.writeValueAsBytes(report);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        } else if (serverTiming) {
+            cached.setHeader("Server-Timing", trace.serverTiming());
+            cached.copyBodyToResponse();
+        }
+    }
+
+    private String traceMode(HttpServletRequest request) {
+        String mode = request.getParameter(TRACE_PARAMETER);
+        return mode != null ? mode : request.getHeader(TRACE_HEADER);
+    }
+
+    /**
+     * 返回跟踪报告时的响应：缓存并丢弃文档内容，忽略下载相关的响应头
+     */
+    private static final class TraceReportResponse extends ContentCachingResponseWrapper {
+
+        TraceReportResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_DISPOSITION.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_DISPOSITION.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.tools.config;
+
+import com.tools.admission.FairScheduler;
+import com.tools.admission.RateLimitedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 生成请求的客户端识别和限流
+ * 客户端依次取API Key（X-API-Key，只使用其摘要）和来源IP；请求头X-Client-Id由调用方任意设置，
+ * 只有配置scheduling.trust-client-header（如网关已校验或覆盖该请求头）时才优先使用，否则轮换请求头即可绕过限流。
+ * 超出令牌桶限制时返回429（附带Retry-After），否则将客户端绑定到请求线程，供FairScheduler公平排队。
+ * 在内存准入之前执行，超限的请求不占用排队位置
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 5)
+public class SchedulingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingFilter.class);
+
+    private final FairScheduler scheduler;
+
+    @Value("${scheduling.client-header:X-Client-Id}")
+    private String clientHeader = "X-Client-Id";
+
+    /** 是否信任客户端ID请求头 */
+    @Value("${scheduling.trust-client-header:false}")
+    private boolean trustClientHeader;
+
+    @Value("${scheduling.api-key-header:X-API-Key}")
+    private String apiKeyHeader = "X-API-Key";
+
+    public SchedulingFilter(FairScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !scheduler.isEnabled()
+                || !(path.startsWith("/api/openapi-doc/") || path.startsWith("/api/database/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientId(request);
+        try {
+            scheduler.checkRateLimit(client);
+        } catch (RateLimitedException e) {
+            logger.warn("客户端 {} 超出请求频率限制: {} {}", client, request.getMethod(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.sendError(e.getStatus().value(), e.getReason());
+            return;
+        }
+
+        FairScheduler.bindClient(client);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            FairScheduler.bindClient(null);
+        }
+    }
+
+    /**
+     * 客户端标识：受信任的客户端ID、API Key摘要或来源IP
+     */
+    private String clientId(HttpServletRequest request) {
+        if (trustClientHeader) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.trim().isEmpty()) {
+                return client.trim();
+            }
+        }
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (apiKey != null && !apiKey.isEmpty()) {
+            return "key-" + DigestUtils.md5DigestAsHex(apiKey.getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+        }
+        return "ip-" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,58 @@
+package com.tools.config;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.tools.highight.converter.StylesheetParser;
+import com.tools.services.TemplateResources;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 启动后预加载内置模板和代码高亮样式表
+ * 在后台线程中执行，不阻塞应用就绪；模板会预先编译一次以加载POI/poi-tl相关类，
+ * 避免首个请求承担读取classpath资源、类加载和解析CSS的开销
+ */
+@Component
+@ConditionalOnProperty(prefix = "startup.precompute", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StartupPrecomputer implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupPrecomputer.class);
+
+    @Value("${startup.precompute.templates:swagger/default-swagger-template.docx,sql/database_template.docx}")
+    private List<String> templates;
+
+    @Value("${startup.precompute.highlight-themes:zenburn,poitl}")
+    private List<String> highlightThemes;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Thread worker = new Thread(this::precompute, "startup-precompute");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void precompute() {
+        long start = System.currentTimeMillis();
+        for (String template : templates) {
+            try (XWPFTemplate compiled = XWPFTemplate.compile(TemplateResources.open(template))) {
+                logger.debug("预编译模板: {} ({} 个标签)", template, compiled.getElementTemplates().size());
+            } catch (Exception e) {
+                logger.warn("预加载模板失败: {} ({})", template, e.getMessage());
+            }
+        }
+        for (String theme : highlightThemes) {
+            try {
+                StylesheetParser.parse("highlightcss/" + theme + ".css");
+            } catch (Exception e) {
+                logger.warn("预解析高亮样式失败: {} ({})", theme, e.getMessage());
+            }
+        }
+        logger.info("模板和高亮样式预加载完成，耗时 {} ms", System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,80 @@
+package com.tools.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationContextInitializedEvent;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 启动阶段耗时统计
+ * 通过META-INF/spring.factories注册，从JVM启动开始记录各启动阶段的时间点，在应用就绪时输出
+ */
+public class StartupTimingListener implements ApplicationListener<ApplicationEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimingListener.class);
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) {
+            mark("starting");
+        } else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            mark("environmentPrepared");
+        } else if (event instanceof ApplicationContextInitializedEvent) {
+            mark("contextInitialized");
+        } else if (event instanceof ApplicationPreparedEvent) {
+            mark("contextPrepared");
+        } else if (event instanceof WebServerInitializedEvent) {
+            mark("webServerStarted");
+        } else if (event instanceof ContextRefreshedEvent) {
+            mark("contextRefreshed");
+        } else if (event instanceof ApplicationStartedEvent) {
+            mark("started");
+        } else if (event instanceof ApplicationReadyEvent) {
+            mark("ready");
+            report();
+        }
+    }
+
+    private synchronized void mark(String phase) {
+        phases.putIfAbsent(phase, System.currentTimeMillis());
+    }
+
+    /**
+     * 输出每个阶段相对上一阶段的耗时，以及从JVM启动到就绪的总耗时
+     */
+    private synchronized void report() {
+        StringBuilder summary = new StringBuilder();
+        long previous = jvmStartMillis;
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            summary.append(String.format("%n  %-20s +%6d ms", phase.getKey(), phase.getValue() - previous));
+            previous = phase.getValue();
+        }
+        logger.info("启动阶段耗时 (JVM启动至就绪共 {} ms):{}", previous - jvmStartMillis, summary);
+    }
+
+    /**
+     * 获取各阶段距JVM启动的耗时
+     *
+     * @return 阶段名称到耗时（毫秒）的映射
+     */
+    public synchronized Map<String, Long> getPhaseOffsets() {
+        Map<String, Long> offsets = new LinkedHashMap<>();
+        phases.forEach((phase, timestamp) -> offsets.put(phase, timestamp - jvmStartMillis));
+        return offsets;
+    }
+}
@@ -1,21 +1,29 @@
 package com.tools.controller;
 
+import com.tools.admission.FairScheduler;
+import com.tools.admission.GenerationAdmission;
 import com.tools.model.database.DatabaseConnectionConfig;
 import com.tools.model.database.DatabaseMetadata;
+import com.tools.model.database.ExtractionProfile;
+import com.tools.services.TemplateResources;
+import com.tools.services.database.CircuitOpenException;
 import com.tools.services.database.CustomMetadataParser;
 import com.tools.services.database.DatabaseMetadataExtractor;
 import com.tools.services.database.DatabaseMetadataExtractorFactory;
+import com.tools.services.database.ExtractionTimeoutException;
 import com.tools.services.document.DatabaseDocumentService;
 import com.tools.services.document.DatabaseMetadataParser;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletResponse;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -37,6 +45,9 @@ public class DatabaseDocumentController {
     @Autowired
     private DatabaseDocumentService databaseDocumentService;
     
+    @Autowired
+    private FairScheduler scheduler;
+    
 
     // Create a new instance of our JSON metadata parser
     private final DatabaseMetadataParser databaseMetadataParser = new DatabaseMetadataParser();
@@ -47,69 +58,57 @@ public class DatabaseDocumentController {
     @Value("${output.path:./output}")
     private String outputPath;
     
+    @Value("${document.shard-size:0}")
+    private int defaultShardSize;
+    
     /**
      * Generate document from database connection
      * 
      * @param config Database connection configuration
+     * @param shardSize Tables per shard; rendered in parallel when set (optional)
+     * @param format Sharded output format: docx (merged) or zip (optional)
      * @return Response with document file
      */
     @PostMapping("/document/generate")
-    public ResponseEntity<byte[]> generateDocument(@RequestBody DatabaseConnectionConfig config) throws IOException {
-        // Create output directory if it doesn't exist
-        createOutputDirectory();
-        
-        // Generate unique filename for output
-        String outputFileName = "db_" + UUID.randomUUID().toString() + ".docx";
-        String outputFilePath = outputPath + File.separator + outputFileName;
+    public ResponseEntity<byte[]> generateDocument(@RequestBody DatabaseConnectionConfig config,
+            @RequestParam(value = "shardSize", required = false) Integer shardSize,
+            @RequestParam(value = "format", defaultValue = "docx") String format) throws IOException {
+        // Only extract what the template shows unless a profile or categories are given
+        if (config.getExtractionCategories() == null || config.getExtractionCategories().isEmpty()) {
+            ExtractionProfile profile = ExtractionProfile.fromName(config.getExtractionProfile());
+            if (profile == null || profile == ExtractionProfile.AUTO) {
+                config.setExtractionCategories(databaseDocumentService.requiredCategories(getTemplatePath()));
+            }
+        }
         
-        // Extract metadata from database
+        // Extract metadata from database (I/O lane), then render (CPU lane)
         DatabaseMetadataExtractor extractor = DatabaseMetadataExtractorFactory.getExtractor(config.getDatabaseType());
-        DatabaseMetadata metadata = extractor.extractMetadata(config);
-        
-        // Generate document using our new service
-        databaseDocumentService.generateDocument(metadata,
-                templatesPath + File.separator + "database_template.docx",
-                outputFilePath);
+        DatabaseMetadata metadata = scheduler.io(() -> extractor.extractMetadata(config));
         
-        // Return document as response
-        Path path = Paths.get(outputFilePath);
-        byte[] document = Files.readAllBytes(path);
-        
-        return createDocumentResponse(document, outputFileName);
+        return scheduler.cpu(() -> renderDocument(metadata, shardSize, format));
     }
     
     /**
      * Generate document from uploaded metadata file
      * 
      * @param file Uploaded metadata file (JSON format)
+     * @param shardSize Tables per shard; rendered in parallel when set (optional)
+     * @param format Sharded output format: docx (merged) or zip (optional)
      * @return Response with document file
      */
     @PostMapping("/document/upload")
-    public ResponseEntity<byte[]> generateDocumentFromUpload(@RequestParam("file") MultipartFile file) 
-            throws IOException {
-        // Create output directory if it doesn't exist
-        createOutputDirectory();
-        
-        // Generate unique filename for output
-        String outputFileName = "db_" + UUID.randomUUID().toString() + ".docx";
-        String outputFilePath = outputPath + File.separator + outputFileName;
-        
-        // 直接读取上传文件的内容
-        String jsonContent = new String(file.getBytes(), StandardCharsets.UTF_8);
-        
-        // 解析JSON内容为数据库元数据对象
-        DatabaseMetadata metadata = databaseMetadataParser.parseFromString(jsonContent);
-        
-        // 生成文档
-        databaseDocumentService.generateDocument(metadata,
-                templatesPath + File.separator + "database_template.docx",
-                outputFilePath);
-        
-        // 返回生成的文档
-        Path path = Paths.get(outputFilePath);
-        byte[] document = Files.readAllBytes(path);
-        
-        return createDocumentResponse(document, outputFileName);
+    public ResponseEntity<byte[]> generateDocumentFromUpload(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "shardSize", required = false) Integer shardSize,
+            @RequestParam(value = "format", defaultValue = "docx") String format) throws IOException {
+        return scheduler.cpu(() -> {
+            // 直接读取上传文件的内容
+            String jsonContent = new String(file.getBytes(), StandardCharsets.UTF_8);
+            
+            // 解析JSON内容为数据库元数据对象
+            DatabaseMetadata metadata = databaseMetadataParser.parseFromString(jsonContent);
+            
+            return renderDocument(metadata, shardSize, format);
+        });
     }
     
     /**
@@ -121,7 +120,7 @@ public class DatabaseDocumentController {
     @PostMapping("/metadata/extract")
     public ResponseEntity<DatabaseMetadata> extractMetadata(@RequestBody DatabaseConnectionConfig config) {
         DatabaseMetadataExtractor extractor = DatabaseMetadataExtractorFactory.getExtractor(config.getDatabaseType());
-        DatabaseMetadata metadata = extractor.extractMetadata(config);
+        DatabaseMetadata metadata = scheduler.io(() -> extractor.extractMetadata(config));
         
         return ResponseEntity.ok(metadata);
     }
@@ -141,11 +140,75 @@ public class DatabaseDocumentController {
             @RequestParam(value = "schema", required = false) String schema) {
         
         DatabaseMetadataExtractor extractor = DatabaseMetadataExtractorFactory.getExtractor(config.getDatabaseType());
-        DatabaseMetadata metadata = extractor.extractTableMetadata(config, tableName, schema);
+        DatabaseMetadata metadata = scheduler.io(() -> extractor.extractTableMetadata(config, tableName, schema));
         
         return ResponseEntity.ok(metadata);
     }
     
+    /**
+     * The target database's circuit is open: 503 with Retry-After
+     */
+    @ExceptionHandler(CircuitOpenException.class)
+    public void handleCircuitOpen(CircuitOpenException e, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+    }
+    
+    /**
+     * The whole-extraction deadline expired: 504
+     */
+    @ExceptionHandler(ExtractionTimeoutException.class)
+    public void handleExtractionTimeout(ExtractionTimeoutException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), e.getMessage());
+    }
+    
+    /**
+     * Render the document into the output directory and return it.
+     * Schemas with more tables than the shard size are rendered in shards (see document.shard-size)
+     */
+    private ResponseEntity<byte[]> renderDocument(DatabaseMetadata metadata, Integer shardSize, String format)
+            throws IOException {
+        // Create output directory if it doesn't exist
+        createOutputDirectory();
+        
+        int effectiveShardSize = shardSize != null ? shardSize : defaultShardSize;
+        boolean zip = "zip".equalsIgnoreCase(format);
+        boolean sharded = effectiveShardSize > 0 && (zip || metadata.getTables().size() > effectiveShardSize);
+        GenerationAdmission.refineDatabase(metadata.getTables(), sharded
+                ? effectiveShardSize * Runtime.getRuntime().availableProcessors() : metadata.getTables().size());
+        
+        // Generate unique filename for output
+        String outputFileName = "db_" + UUID.randomUUID().toString() + (zip && sharded ? ".zip" : ".docx");
+        String outputFilePath = outputPath + File.separator + outputFileName;
+        
+        if (sharded) {
+            databaseDocumentService.generateShardedDocument(metadata,
+                    TemplateResources.load(getTemplatePath()),
+                    effectiveShardSize,
+                    zip ? DatabaseDocumentService.ShardFormat.ZIP : DatabaseDocumentService.ShardFormat.MERGED,
+                    outputFilePath);
+        } else {
+            databaseDocumentService.generateDocument(metadata,
+                    getTemplatePath(),
+                    outputFilePath);
+        }
+        
+        // 返回生成的文档
+        Path path = Paths.get(outputFilePath);
+        byte[] document = Files.readAllBytes(path);
+        
+        return createDocumentResponse(document, outputFileName);
+    }
+    
+    /**
+     * Classpath location of the database template
+     * (classpath resources always use '/', File.separator would break lookups inside the jar)
+     */
+    private String getTemplatePath() {
+        return templatesPath.endsWith("/") ? templatesPath + "database_template.docx"
+                : templatesPath + "/database_template.docx";
+    }
+    
     /**
      * Create output directory if it doesn't exist
      */
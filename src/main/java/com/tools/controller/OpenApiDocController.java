@@ -1,19 +1,28 @@
 package com.tools.controller;
 
 
+import com.tools.admission.FairScheduler;
+import com.tools.admission.GenerationAdmission;
+import com.tools.admission.SingleFlight;
+import com.tools.metrics.PipelineMetrics;
+import com.tools.model.ApiFilter;
 import com.tools.services.OpenApiDocService;
+import com.tools.services.OpenApiParserService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 @RestController
@@ -24,6 +33,26 @@ public class OpenApiDocController {
     @Autowired
     private OpenApiDocService openApiDocService;
 
+    @Autowired
+    private FairScheduler scheduler;
+
+    @Autowired
+    private OpenApiParserService parserService;
+
+    /**
+     * 相同URL、模板、解析方式和过滤条件的并发请求只生成一次
+     */
+    private final SingleFlight<String, byte[]> urlRequests = new SingleFlight<>();
+
+    @Value("${openapi.coalesce.enabled:true}")
+    private boolean coalesceEnabled = true;
+
+    /**
+     * 加入合并的请求等待结果的上限，超时返回503
+     */
+    @Value("${openapi.coalesce.wait-timeout-ms:60000}")
+    private long coalesceWaitTimeoutMs = 60000;
+
     /**
      * 通过URL生成文档
      */
@@ -35,13 +64,30 @@ public class OpenApiDocController {
             @ApiParam(value = "Name of the template to use (optional)")
             @RequestParam(value = "templateName", required = false) String templateName,
             @ApiParam(value = "Custom template file (optional)")
-            @RequestParam(value = "template", required = false) MultipartFile templateFile) throws IOException {
+            @RequestParam(value = "template", required = false) MultipartFile templateFile,
+            ApiFilter filter) throws IOException {
+
+        byte[] template = templateFile != null && !templateFile.isEmpty() ? templateFile.getBytes() : null;
+        SingleFlight.Computation<byte[]> generate = () -> {
+            // 获取规范在I/O通道，解析和渲染在CPU通道
+            String openApiJson = scheduler.io(() -> openApiDocService.fetch(openApiUrl));
+            return scheduler.cpu(() -> template != null
+                    ? openApiDocService.generateDocFromJson(openApiJson, new ByteArrayInputStream(template), filter)
+                    : openApiDocService.generateDocFromJson(openApiJson, templateName, filter));
+        };
 
         byte[] docBytes;
-        if (templateFile != null && !templateFile.isEmpty()) {
-            docBytes = openApiDocService.generateDocFromUrl(openApiUrl, templateFile.getInputStream());
+        if (coalesceEnabled) {
+            String templateKey = template != null ? "custom:" + DigestUtils.md5DigestAsHex(template)
+                    : PipelineMetrics.templateTag(templateName);
+            String key = openApiUrl + '\n' + templateKey + '\n' + parserService.getParserMode() + '\n' + filter;
+            docBytes = urlRequests.execute(key, coalesceWaitTimeoutMs, generate, () -> {
+                PipelineMetrics.counter(PipelineMetrics.OPENAPI_COALESCED).increment();
+                // 共享结果不再单独占用内存预算；leader被拒绝后自己重新生成时，按解析结果重新估算额度
+                GenerationAdmission.releaseShared();
+            });
         } else {
-            docBytes = openApiDocService.generateDocFromUrl(openApiUrl, templateName);
+            docBytes = generate.compute();
         }
 
         return createDownloadResponse(docBytes, "openapi-doc.docx");
@@ -58,14 +104,12 @@ public class OpenApiDocController {
             @ApiParam(value = "Name of the template to use (optional)")
             @RequestParam(value = "templateName", required = false) String templateName,
             @ApiParam(value = "Custom template file (optional)")
-            @RequestParam(value = "template", required = false) MultipartFile templateFile) throws IOException {
+            @RequestParam(value = "template", required = false) MultipartFile templateFile,
+            ApiFilter filter) throws IOException {
 
-        byte[] docBytes;
-        if (templateFile != null && !templateFile.isEmpty()) {
-            docBytes = openApiDocService.generateDocFromJson(openApiJson, templateFile.getInputStream());
-        } else {
-            docBytes = openApiDocService.generateDocFromJson(openApiJson, templateName);
-        }
+        byte[] docBytes = scheduler.cpu(() -> templateFile != null && !templateFile.isEmpty()
+                ? openApiDocService.generateDocFromJson(openApiJson, templateFile.getInputStream(), filter)
+                : openApiDocService.generateDocFromJson(openApiJson, templateName, filter));
 
         return createDownloadResponse(docBytes, "openapi-doc.docx");
     }
@@ -81,14 +125,12 @@ public class OpenApiDocController {
             @ApiParam(value = "Name of the template to use (optional)")
             @RequestParam(value = "templateName", required = false) String templateName,
             @ApiParam(value = "Custom template file (optional)")
-            @RequestParam(value = "template", required = false) MultipartFile templateFile) throws IOException {
+            @RequestParam(value = "template", required = false) MultipartFile templateFile,
+            ApiFilter filter) throws IOException {
 
-        byte[] docBytes;
-        if (templateFile != null && !templateFile.isEmpty()) {
-            docBytes = openApiDocService.generateDocFromFile(jsonFile.getInputStream(), templateFile.getInputStream());
-        } else {
-            docBytes = openApiDocService.generateDocFromFile(jsonFile.getInputStream(), templateName);
-        }
+        byte[] docBytes = scheduler.cpu(() -> templateFile != null && !templateFile.isEmpty()
+                ? openApiDocService.generateDocFromFile(jsonFile.getInputStream(), templateFile.getInputStream(), filter)
+                : openApiDocService.generateDocFromFile(jsonFile.getInputStream(), templateName, filter));
 
         return createDownloadResponse(docBytes, "openapi-doc.docx");
     }
@@ -18,7 +18,10 @@ package com.tools.highight;
 import com.deepoove.poi.converter.ToRenderDataConverter;
 import com.deepoove.poi.data.DocumentRenderData;
 import com.deepoove.poi.policy.AbstractDocumentConverterRenderPolicy;
+import com.deepoove.poi.render.RenderContext;
 import com.tools.highight.converter.HighlightToDocumentRenderDataConverter;
+import com.tools.metrics.PipelineMetrics;
+import com.tools.metrics.PipelineTrace;
 
 /**
  * highlight render policy
@@ -33,4 +36,20 @@ public class HighlightRenderPolicy extends AbstractDocumentConverterRenderPolicy
         return new HighlightToDocumentRenderDataConverter();
     }
 
+    @Override
+    public void doRender(RenderContext<HighlightRenderData> context) throws Exception {
+        String language = languageTag(context.getData());
+        PipelineTrace.Span span = PipelineTrace.span("highlight", language);
+        super.doRender(context);
+        span.stop(PipelineMetrics.timer(PipelineMetrics.HIGHLIGHT, "language", language));
+        String code = context.getData().getCode();
+        if (code != null) {
+            PipelineMetrics.counter(PipelineMetrics.HIGHLIGHT_CHARACTERS).increment(code.length());
+        }
+    }
+
+    private static String languageTag(HighlightRenderData data) {
+        return data.getLanguage() != null ? data.getLanguage() : "none";
+    }
+
 }
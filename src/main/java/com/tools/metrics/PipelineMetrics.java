@@ -0,0 +1,170 @@
+package com.tools.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 文档生成流水线指标
+ * 各阶段的计时器、计数器和分布统计统一注册到Micrometer全局注册表：Spring Boot中由Actuator接入，
+ * 通过/actuator/metrics和/actuator/prometheus暴露；命令行等没有注册表的环境下记录为空操作。
+ * 直方图和分位数由management.metrics.distribution.*配置开启
+ */
+public final class PipelineMetrics {
+
+    /** 从URL获取OpenAPI规范 */
+    public static final String OPENAPI_FETCH = "docgen.openapi.fetch";
+    /** OpenAPI解析，phase=read（读取JSON）/build（构建数据模型），按parser区分 */
+    public static final String OPENAPI_PARSE = "docgen.openapi.parse";
+    /** 单个数据模型的示例JSON生成 */
+    public static final String OPENAPI_EXAMPLES = "docgen.openapi.examples";
+    /** OpenAPI文档渲染，stage=compile/render/write/merge，mode=whole/fragments */
+    public static final String OPENAPI_RENDER = "docgen.openapi.render";
+    /** 生成的OpenAPI文档字节数 */
+    public static final String OPENAPI_DOCUMENT_SIZE = "docgen.openapi.document.size";
+    /** 每个规范的接口数量 */
+    public static final String OPENAPI_ENDPOINTS = "docgen.openapi.endpoints";
+    /** 每个规范的数据模型数量 */
+    public static final String OPENAPI_DEFINITIONS = "docgen.openapi.definitions";
+    /** 合并到相同的进行中请求（generate-from-url）的请求数 */
+    public static final String OPENAPI_COALESCED = "docgen.openapi.coalesced";
+    /** 代码高亮（转换并插入文档） */
+    public static final String HIGHLIGHT = "docgen.highlight";
+    /** 高亮代码的字符数 */
+    public static final String HIGHLIGHT_CHARACTERS = "docgen.highlight.characters";
+    /** 单次JDBC元数据调用（含读取结果集），按database和call区分 */
+    public static final String DATABASE_METADATA_CALL = "docgen.database.metadata.call";
+    /** JDBC元数据调用读取的行数 */
+    public static final String DATABASE_METADATA_ROWS = "docgen.database.metadata.rows";
+    /** 单次JDBC往返（含读取结果集），按database和operation（JDBC方法名）区分 */
+    public static final String DATABASE_JDBC_CALL = "docgen.database.jdbc.call";
+    /** JDBC往返读取的行数 */
+    public static final String DATABASE_JDBC_ROWS = "docgen.database.jdbc.rows";
+    /** 超过慢查询阈值的JDBC往返次数 */
+    public static final String DATABASE_JDBC_SLOW = "docgen.database.jdbc.slow";
+    /** 整库元数据提取 */
+    public static final String DATABASE_EXTRACT = "docgen.database.extract";
+    /** 多模式提取中单个模式的提取 */
+    public static final String DATABASE_SCHEMA_EXTRACT = "docgen.database.schema.extract";
+    /** 熔断器打开时直接拒绝的提取次数 */
+    public static final String DATABASE_CIRCUIT_REJECTED = "docgen.database.circuit.rejected";
+    /** 超过整体时限的提取次数 */
+    public static final String DATABASE_EXTRACT_TIMEOUT = "docgen.database.extract.timeout";
+    /** 每个数据库文档的表数量 */
+    public static final String DATABASE_TABLES = "docgen.database.tables";
+    /** 数据库文档渲染，stage=compile/render/write/merge，mode=whole/sharded */
+    public static final String DATABASE_RENDER = "docgen.database.render";
+    /** 生成的数据库文档字节数 */
+    public static final String DATABASE_DOCUMENT_SIZE = "docgen.database.document.size";
+    /** 准入排队等待，按kind（openapi/database）区分 */
+    public static final String ADMISSION_WAIT = "docgen.admission.wait";
+    /** 未准入的请求，按kind和reason（too_large/queue_full/timeout）区分 */
+    public static final String ADMISSION_REJECTED = "docgen.admission.rejected";
+    /** 等待准入的请求数 */
+    public static final String ADMISSION_QUEUE_DEPTH = "docgen.admission.queue.depth";
+    /** 已准入请求占用的预估内存（字节） */
+    public static final String ADMISSION_RESERVED = "docgen.admission.reserved.bytes";
+    /** 生成请求的内存预算（字节） */
+    public static final String ADMISSION_BUDGET = "docgen.admission.budget.bytes";
+    /** 调度通道排队等待，按pool（io/cpu）区分 */
+    public static final String SCHEDULER_WAIT = "docgen.scheduler.wait";
+    /** 调度通道内的执行时间，按pool区分 */
+    public static final String SCHEDULER_EXECUTION = "docgen.scheduler.execution";
+    /** 调度通道排队的请求数 */
+    public static final String SCHEDULER_QUEUE_DEPTH = "docgen.scheduler.queue.depth";
+    /** 调度通道正在执行的请求数 */
+    public static final String SCHEDULER_ACTIVE = "docgen.scheduler.active";
+    /** 调度通道等待超时的请求数 */
+    public static final String SCHEDULER_TIMEOUT = "docgen.scheduler.timeout";
+    /** 超出客户端限流被拒绝的请求数 */
+    public static final String SCHEDULER_THROTTLED = "docgen.scheduler.throttled";
+    /** 启动预热总耗时 */
+    public static final String WARMUP_DURATION = "docgen.warmup.duration";
+    /** 预热完成后首个/api/请求的耗时 */
+    public static final String WARMUP_FIRST_REQUEST = "docgen.warmup.first.request";
+
+    /** 使用内置模板时的template标签值 */
+    public static final String DEFAULT_TEMPLATE = "default";
+    /** 使用上传模板（输入流）时的template标签值 */
+    public static final String CUSTOM_TEMPLATE = "custom";
+
+    private PipelineMetrics() {
+    }
+
+    public static Timer timer(String name, String... tags) {
+        return Timer.builder(name).tags(tags).register(Metrics.globalRegistry);
+    }
+
+    public static Counter counter(String name, String... tags) {
+        return Counter.builder(name).tags(tags).register(Metrics.globalRegistry);
+    }
+
+    public static DistributionSummary summary(String name, String baseUnit, String... tags) {
+        return DistributionSummary.builder(name).baseUnit(baseUnit).tags(tags).register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 开始计时，结束时调用sample.stop(timer)
+     */
+    public static Timer.Sample start() {
+        return Timer.start(Metrics.globalRegistry);
+    }
+
+    /**
+     * template标签值：未指定模板名称时为default
+     */
+    public static String templateTag(String templateName) {
+        return templateName == null || templateName.isEmpty() ? DEFAULT_TEMPLATE : templateName;
+    }
+
+    /**
+     * database标签值：小写的数据库类型，未知时为unknown
+     */
+    public static String databaseTag(String databaseType) {
+        return databaseType == null || databaseType.trim().isEmpty() ? "unknown" : databaseType.trim().toLowerCase();
+    }
+
+    /**
+     * 渲染各阶段的计时器
+     *
+     * @param name 指标名称
+     * @param tags 除stage外的标签
+     */
+    public static RenderStages renderStages(String name, String... tags) {
+        return new RenderStages(name, tags);
+    }
+
+    /**
+     * 同一次渲染的编译、渲染、写出和合并阶段计时器，标签相同，只有stage不同
+     */
+    public static final class RenderStages {
+        private final String name;
+        private final String[] tags;
+
+        private RenderStages(String name, String[] tags) {
+            this.name = name;
+            this.tags = tags;
+        }
+
+        public Timer compile() {
+            return stage("compile");
+        }
+
+        public Timer render() {
+            return stage("render");
+        }
+
+        public Timer write() {
+            return stage("write");
+        }
+
+        public Timer merge() {
+            return stage("merge");
+        }
+
+        private Timer stage(String stage) {
+            return Timer.builder(name).tags(tags).tag("stage", stage).register(Metrics.globalRegistry);
+        }
+    }
+}
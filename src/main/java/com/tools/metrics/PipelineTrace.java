@@ -0,0 +1,245 @@
+package com.tools.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单次请求的流水线跟踪
+ * 请求开始时通过{@link #begin()}绑定到当前线程，各阶段用{@link #span(String)}计时：
+ * 同名阶段累计次数和耗时，单个片段最多保留{@link #MAX_SPANS}条明细。
+ * 没有绑定跟踪的线程（命令行、基准测试）只计时不记录；并行渲染的工作线程通过{@link #attach(PipelineTrace)}共用请求的跟踪
+ */
+public final class PipelineTrace {
+
+    /** 保留明细的片段数上限，超出后只累计到阶段汇总 */
+    public static final int MAX_SPANS = 1000;
+
+    private static final ThreadLocal<PipelineTrace> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    private final List<SpanRecord> spans = new ArrayList<>();
+    private int droppedSpans;
+
+    private PipelineTrace() {
+    }
+
+    /**
+     * 创建跟踪并绑定到当前线程
+     */
+    public static PipelineTrace begin() {
+        PipelineTrace trace = new PipelineTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * 当前线程绑定的跟踪，没有时为null
+     */
+    public static PipelineTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 将跟踪绑定到当前线程（用于工作线程）
+     *
+     * @return 之前绑定的跟踪，结束时交给{@link #restore(PipelineTrace)}
+     */
+    public static PipelineTrace attach(PipelineTrace trace) {
+        PipelineTrace previous = CURRENT.get();
+        restore(trace);
+        return previous;
+    }
+
+    /**
+     * 恢复之前绑定的跟踪，null表示解除绑定
+     */
+    public static void restore(PipelineTrace previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 开始一个阶段计时
+     *
+     * @param name 阶段名称（用作Server-Timing的指标名，只能包含字母、数字和-_.）
+     */
+    public static Span span(String name) {
+        return new Span(name, null);
+    }
+
+    /**
+     * 开始一个阶段计时
+     *
+     * @param name   阶段名称
+     * @param detail 明细说明，如路径或模型名称
+     */
+    public static Span span(String name, String detail) {
+        return new Span(name, detail);
+    }
+
+    /**
+     * 请求开始以来的毫秒数
+     */
+    public double elapsedMillis() {
+        return toMillis(System.nanoTime() - startNanos);
+    }
+
+    private synchronized void record(Span span, long endNanos) {
+        long nanos = endNanos - span.startNanos;
+        stages.computeIfAbsent(span.name, Stage::new).add(toMillis(nanos));
+        if (spans.size() < MAX_SPANS) {
+            SpanRecord record = new SpanRecord();
+            record.setName(span.name);
+            record.setDetail(span.detail);
+            record.setThread(Thread.currentThread().getName());
+            record.setStartMs(round(toMillis(span.startNanos - startNanos)));
+            record.setDurationMs(round(toMillis(nanos)));
+            spans.add(record);
+        } else {
+            droppedSpans++;
+        }
+    }
+
+    /**
+     * Server-Timing响应头的值：各阶段的累计耗时，多次出现的阶段附带次数，最后是总耗时
+     * 并行渲染的阶段按各片段累加，可能超过总耗时
+     */
+    public synchronized String serverTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Stage stage : stages.values()) {
+            header.append(stage.getName());
+            if (stage.getCount() > 1) {
+                header.append(";desc=\"").append(stage.getCount()).append("x\"");
+            }
+            header.append(";dur=").append(format(stage.getTotalMs())).append(", ");
+        }
+        return header.append("total;dur=").append(format(elapsedMillis())).toString();
+    }
+
+    /**
+     * 跟踪报告（调试JSON）
+     */
+    public synchronized Report report() {
+        Report report = new Report();
+        report.setTotalMs(round(elapsedMillis()));
+        for (Stage stage : stages.values()) {
+            Stage copy = new Stage(stage.getName());
+            copy.setCount(stage.getCount());
+            copy.setTotalMs(round(stage.getTotalMs()));
+            copy.setMaxMs(round(stage.getMaxMs()));
+            report.getStages().add(copy);
+        }
+        report.getSpans().addAll(spans);
+        report.setDroppedSpans(droppedSpans);
+        return report;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 1000) / 1000.0;
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+
+    /**
+     * 一次阶段计时，结束时记录到开始时线程绑定的跟踪
+     */
+    public static final class Span {
+        private final String name;
+        private final String detail;
+        private final PipelineTrace trace = CURRENT.get();
+        private final long startNanos = System.nanoTime();
+
+        private Span(String name, String detail) {
+            this.name = name;
+            this.detail = detail;
+        }
+
+        /**
+         * 结束计时
+         *
+         * @return 耗时（纳秒）
+         */
+        public long stop() {
+            long endNanos = System.nanoTime();
+            if (trace != null) {
+                trace.record(this, endNanos);
+            }
+            return endNanos - startNanos;
+        }
+
+        /**
+         * 结束计时，同时记录到指标计时器
+         */
+        public void stop(Timer timer) {
+            timer.record(stop(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 阶段汇总
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Stage {
+        private String name;
+        private int count;
+        private double totalMs;
+        private double maxMs;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        void add(double millis) {
+            count++;
+            totalMs += millis;
+            maxMs = Math.max(maxMs, millis);
+        }
+    }
+
+    /**
+     * 单个片段明细，startMs为相对请求开始的偏移
+     */
+    @Data
+    @NoArgsConstructor
+    public static class SpanRecord {
+        private String name;
+        private String detail;
+        private String thread;
+        private double startMs;
+        private double durationMs;
+    }
+
+    /**
+     * 跟踪报告
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Report {
+        private String method;
+        private String uri;
+        private int status;
+        private double totalMs;
+        private List<Stage> stages = new ArrayList<>();
+        private List<SpanRecord> spans = new ArrayList<>();
+        private int droppedSpans;
+    }
+}
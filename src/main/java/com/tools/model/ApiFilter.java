@@ -0,0 +1,75 @@
+package com.tools.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 表示接口子集过滤条件的实体类
+ * 标签和HTTP方法按名称匹配（不区分大小写），路径按Ant风格的通配符匹配（如 /pets/**）；
+ * 包含条件为空表示不限制，排除条件优先于包含条件
+ */
+public class ApiFilter {
+    private List<String> includeTags = new ArrayList<>();
+    private List<String> excludeTags = new ArrayList<>();
+    private List<String> includePaths = new ArrayList<>();
+    private List<String> excludePaths = new ArrayList<>();
+    private List<String> methods = new ArrayList<>();
+
+    public List<String> getIncludeTags() {
+        return includeTags;
+    }
+
+    public void setIncludeTags(List<String> includeTags) {
+        this.includeTags = includeTags;
+    }
+
+    public List<String> getExcludeTags() {
+        return excludeTags;
+    }
+
+    public void setExcludeTags(List<String> excludeTags) {
+        this.excludeTags = excludeTags;
+    }
+
+    public List<String> getIncludePaths() {
+        return includePaths;
+    }
+
+    public void setIncludePaths(List<String> includePaths) {
+        this.includePaths = includePaths;
+    }
+
+    public List<String> getExcludePaths() {
+        return excludePaths;
+    }
+
+    public void setExcludePaths(List<String> excludePaths) {
+        this.excludePaths = excludePaths;
+    }
+
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(List<String> methods) {
+        this.methods = methods;
+    }
+
+    /**
+     * 是否没有任何过滤条件
+     */
+    public boolean isUnrestricted() {
+        return isEmpty(includeTags) && isEmpty(excludeTags) && isEmpty(includePaths)
+                && isEmpty(excludePaths) && isEmpty(methods);
+    }
+
+    private static boolean isEmpty(List<String> values) {
+        return values == null || values.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ApiFilter{includeTags=" + includeTags + ", excludeTags=" + excludeTags
+                + ", includePaths=" + includePaths + ", excludePaths=" + excludePaths + ", methods=" + methods + "}";
+    }
+}
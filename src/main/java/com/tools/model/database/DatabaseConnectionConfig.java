@@ -3,6 +3,10 @@ package com.tools.model.database;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * 数据库连接配置
  * 封装创建数据库连接所需的所有配置信息
@@ -46,11 +50,86 @@ public class DatabaseConnectionConfig {
      */
     private String schema;
     
+    /**
+     * 要提取的多个模式（模式名或SQL LIKE模式，如 APP_%，不区分大小写），非空时代替schema，
+     * 各模式在连接池上并行提取，结果合并为一份元数据
+     */
+    private List<String> schemas;
+    
+    /**
+     * 多模式提取的并行度（同时提取的模式数，也是连接池的最大连接数）
+     */
+    private int schemaParallelism = 4;
+    
     /**
      * 自定义JDBC URL（可选，可由其他属性构建）
      */
     private String jdbcUrl;
     
+    /**
+     * 慢查询阈值（毫秒），单次JDBC往返（含读取结果集）超过该值时记录警告日志，不大于0时不记录
+     */
+    private long slowQueryThresholdMs = 1000;
+    
+    /**
+     * 单次查询超时（秒），设置到每个语句上；目录元数据调用由连接的网络超时（多10秒宽限）兜底，不大于0表示不限制
+     */
+    private int queryTimeoutSeconds = 60;
+    
+    /**
+     * 登录（建立连接）超时（秒），不大于0表示使用驱动的默认值
+     */
+    private int loginTimeoutSeconds = 15;
+    
+    /**
+     * 整体提取时限（秒），到期时取消进行中的语句并中止连接，不大于0表示不限制
+     */
+    private long extractionTimeoutSeconds;
+    
+    /**
+     * 包含的表名模式（SQL LIKE语法，如 ORD_%，不区分大小写），为空表示全部表
+     */
+    private List<String> includeTables;
+    
+    /**
+     * 排除的表名模式（SQL LIKE语法，如 TMP_%、BIN$%），优先于包含条件
+     */
+    private List<String> excludeTables;
+    
+    /**
+     * 包含的表名正则（Java正则，完整匹配，不区分大小写）
+     */
+    private String includeTableRegex;
+    
+    /**
+     * 排除的表名正则（Java正则，完整匹配，不区分大小写），如 .*_AUDIT_P\d+
+     */
+    private String excludeTableRegex;
+    
+    /**
+     * 提取配置（columns-only、columns-and-keys、full、auto），为空时直接提取使用full、生成文档使用auto
+     */
+    private String extractionProfile;
+    
+    /**
+     * 显式指定的提取类别，非空时优先于提取配置
+     */
+    private Set<MetadataCategory> extractionCategories;
+    
+    /**
+     * 实际提取的类别：显式类别优先，其次为提取配置，都未指定时提取全部类别
+     * 
+     * @return 提取类别
+     * @throws IllegalArgumentException 如果提取配置名称无效
+     */
+    public Set<MetadataCategory> resolveExtractionCategories() {
+        if (extractionCategories != null && !extractionCategories.isEmpty()) {
+            return EnumSet.copyOf(extractionCategories);
+        }
+        ExtractionProfile profile = ExtractionProfile.fromName(extractionProfile);
+        return EnumSet.copyOf((profile != null ? profile : ExtractionProfile.FULL).getCategories());
+    }
+    
     /**
      * 根据数据库类型和其他属性构建JDBC URL
      * 
@@ -5,6 +5,7 @@ import lombok.NoArgsConstructor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Collections;
+import java.util.Set;
 
 /**
  * 数据库元数据信息
@@ -44,6 +45,36 @@ public class DatabaseMetadata {
      */
     private List<TableMetadata> tables = new ArrayList<>();
     
+    /**
+     * 提取过程的JDBC往返统计（从数据库提取时填充，上传的元数据为空）
+     */
+    private JdbcStatistics jdbcStatistics;
+    
+    /**
+     * 按表名过滤的统计（配置了表名过滤条件时填充）
+     */
+    private TableFilterStatistics tableFilter;
+    
+    /**
+     * 提取的元数据类别（从数据库提取时填充，未包含的类别没有提取）
+     */
+    private Set<MetadataCategory> extractionCategories;
+    
+    /**
+     * 折叠到分区表中、没有单独提取的分区数量
+     */
+    private int collapsedPartitions;
+    
+    /**
+     * 从检查点恢复、没有重新提取的表数
+     */
+    private int resumedTables;
+    
+    /**
+     * 多模式提取时各模式的表数和耗时（按模式名排序，表也按模式分组排列）
+     */
+    private List<SchemaExtraction> schemas;
+    
     /**
      * 添加表元数据到数据库元数据中
      * 
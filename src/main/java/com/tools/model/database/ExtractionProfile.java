@@ -0,0 +1,54 @@
+package com.tools.model.database;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 元数据提取配置
+ * 按文档需要的内容选择提取的类别，跳过的类别不发出任何目录查询
+ */
+public enum ExtractionProfile {
+
+    /** 只提取列 */
+    COLUMNS_ONLY(EnumSet.of(MetadataCategory.COLUMNS)),
+
+    /** 列、主键和外键 */
+    COLUMNS_AND_KEYS(EnumSet.of(MetadataCategory.COLUMNS, MetadataCategory.PRIMARY_KEYS, MetadataCategory.FOREIGN_KEYS)),
+
+    /** 全部类别 */
+    FULL(EnumSet.allOf(MetadataCategory.class)),
+
+    /** 按文档模板引用的标签推断，只能在生成文档时使用，直接提取元数据时等同于FULL */
+    AUTO(EnumSet.allOf(MetadataCategory.class));
+
+    private final Set<MetadataCategory> categories;
+
+    ExtractionProfile(Set<MetadataCategory> categories) {
+        this.categories = Collections.unmodifiableSet(categories);
+    }
+
+    public Set<MetadataCategory> getCategories() {
+        return categories;
+    }
+
+    /**
+     * 按名称查找，不区分大小写，-和_等价（如 columns-only、columns_and_keys）
+     *
+     * @param name 配置名称，为空时返回null
+     * @throws IllegalArgumentException 名称无效
+     */
+    public static ExtractionProfile fromName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return null;
+        }
+        String normalized = name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        for (ExtractionProfile profile : values()) {
+            if (profile.name().equals(normalized)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("不支持的提取配置: " + name + "（可选 columns-only、columns-and-keys、full、auto）");
+    }
+}
@@ -0,0 +1,48 @@
+package com.tools.model.database;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个JDBC方法或查询语句的往返统计
+ * 元数据调用按方法名（如getColumns）汇总，语句按SQL文本汇总
+ */
+@Data
+@NoArgsConstructor
+public class JdbcCallStatistics {
+
+    /**
+     * 调用的JDBC方法，如getColumns、executeQuery
+     */
+    private String operation;
+
+    /**
+     * 查询语句文本（仅Statement/PreparedStatement执行，元数据调用为空）
+     */
+    private String query;
+
+    /**
+     * 调用次数
+     */
+    private long calls;
+
+    /**
+     * 读取的结果行数
+     */
+    private long rows;
+
+    /**
+     * 总耗时（毫秒，含读取结果集）
+     */
+    private double totalTimeMs;
+
+    /**
+     * 单次最长耗时（毫秒）
+     */
+    private double maxTimeMs;
+
+    /**
+     * 超过慢查询阈值的次数
+     */
+    private long slowCalls;
+}
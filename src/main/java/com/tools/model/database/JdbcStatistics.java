@@ -0,0 +1,46 @@
+package com.tools.model.database;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一次元数据提取的JDBC往返汇总
+ * 记录提取过程中所有数据库往返的次数、行数和耗时，按耗时从高到低列出各方法/查询
+ */
+@Data
+@NoArgsConstructor
+public class JdbcStatistics {
+
+    /**
+     * JDBC往返总次数（元数据调用和语句执行）
+     */
+    private long totalCalls;
+
+    /**
+     * 读取的结果行总数
+     */
+    private long totalRows;
+
+    /**
+     * 往返总耗时（毫秒，含读取结果集）
+     */
+    private double totalTimeMs;
+
+    /**
+     * 慢查询阈值（毫秒），不大于0表示不记录慢查询
+     */
+    private long slowQueryThresholdMs;
+
+    /**
+     * 超过阈值的往返次数
+     */
+    private long slowCalls;
+
+    /**
+     * 各方法/查询的统计，按总耗时降序
+     */
+    private List<JdbcCallStatistics> calls = new ArrayList<>();
+}
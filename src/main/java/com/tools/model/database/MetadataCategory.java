@@ -0,0 +1,29 @@
+package com.tools.model.database;
+
+/**
+ * 表元数据的提取类别
+ * 每个类别对应每张表的一类目录查询，提取时可以整体跳过
+ */
+public enum MetadataCategory {
+
+    /** 表注释 */
+    TABLE_COMMENT,
+
+    /** 表空间 */
+    TABLESPACE,
+
+    /** 主键（同时决定列的主键标记） */
+    PRIMARY_KEYS,
+
+    /** 索引 */
+    INDEXES,
+
+    /** 列（JDBC标准列信息，含列注释） */
+    COLUMNS,
+
+    /** 数据库特有的列补充信息（逐列查询注释、默认值、可空性） */
+    COLUMN_EXTRAS,
+
+    /** 外键 */
+    FOREIGN_KEYS
+}
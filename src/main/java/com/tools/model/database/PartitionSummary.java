@@ -0,0 +1,70 @@
+package com.tools.model.database;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分区表的分区汇总
+ * 分区只提取父表一次，各分区以数量和首尾分区概括，不逐个提取列、索引和外键
+ */
+@Data
+@NoArgsConstructor
+public class PartitionSummary {
+
+    /**
+     * 分区数量
+     */
+    private int partitionCount;
+
+    /**
+     * 分区方式（RANGE、LIST、HASH等，未取得分区键时为空）
+     */
+    private String partitionStrategy;
+
+    /**
+     * 分区键
+     */
+    private String partitionKey;
+
+    /**
+     * 第一个分区名
+     */
+    private String firstPartition;
+
+    /**
+     * 第一个分区的边界
+     */
+    private String firstBound;
+
+    /**
+     * 最后一个分区名
+     */
+    private String lastPartition;
+
+    /**
+     * 最后一个分区的边界
+     */
+    private String lastBound;
+
+    /**
+     * 分区概括，如 RANGE (created_at)，365个分区：p20240101 ~ p20241231
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        if (partitionStrategy != null && !partitionStrategy.isEmpty()) {
+            description.append(partitionStrategy);
+            if (partitionKey != null && !partitionKey.isEmpty()) {
+                description.append(" (").append(partitionKey).append(')');
+            }
+            description.append('，');
+        }
+        description.append(partitionCount).append("个分区");
+        if (firstPartition != null) {
+            description.append('：').append(firstPartition);
+            if (lastPartition != null && !lastPartition.equals(firstPartition)) {
+                description.append(" ~ ").append(lastPartition);
+            }
+        }
+        return description.toString();
+    }
+}
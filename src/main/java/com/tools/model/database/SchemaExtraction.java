@@ -0,0 +1,33 @@
+package com.tools.model.database;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 多模式提取中单个模式的结果
+ * 记录模式的表数和提取耗时，提取失败时记录错误信息（其他模式照常提取）
+ */
+@Data
+@NoArgsConstructor
+public class SchemaExtraction {
+
+    /**
+     * 模式名称
+     */
+    private String schema;
+
+    /**
+     * 提取的表数
+     */
+    private int tableCount;
+
+    /**
+     * 提取耗时（毫秒，含从连接池获取连接）
+     */
+    private long elapsedMs;
+
+    /**
+     * 提取失败时的错误信息
+     */
+    private String error;
+}
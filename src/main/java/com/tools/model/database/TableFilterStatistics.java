@@ -0,0 +1,60 @@
+package com.tools.model.database;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 按表名过滤的结果统计
+ * 过滤条件下推到目录查询时，被数据库过滤掉的表数由同一模式下的表总数推算
+ */
+@Data
+@NoArgsConstructor
+public class TableFilterStatistics {
+
+    /**
+     * 模式下的表总数（未知时为空）
+     */
+    private Integer totalTables;
+
+    /**
+     * 通过过滤、提取了元数据的表数
+     */
+    private int matchedTables;
+
+    /**
+     * 由目录查询过滤掉的表数（未下推或总数未知时为0）
+     */
+    private int skippedByCatalog;
+
+    /**
+     * 读取表列表后在客户端过滤掉的表数
+     */
+    private int skippedByClient;
+
+    /**
+     * 是否已下推到目录查询
+     */
+    private boolean pushedDown;
+
+    /**
+     * 跳过的表总数
+     */
+    public int getSkippedTables() {
+        return skippedByCatalog + skippedByClient;
+    }
+
+    /**
+     * 累加另一个模式的统计（多模式提取时合并各模式的结果）
+     */
+    public void merge(TableFilterStatistics other) {
+        if (totalTables != null && other.totalTables != null) {
+            totalTables += other.totalTables;
+        } else {
+            totalTables = null;
+        }
+        matchedTables += other.matchedTables;
+        skippedByCatalog += other.skippedByCatalog;
+        skippedByClient += other.skippedByClient;
+        pushedDown = pushedDown && other.pushedDown;
+    }
+}
@@ -1,16 +1,28 @@
 package com.tools.model.database;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 数据库表元数据类
- * 描述数据库表的结构信息，包括列、主键、索引等
+ * 描述数据库表的结构信息，包括列、主键、索引等。
+ * 列、主键和索引在有序列表之外按名称建立哈希索引，按名称查找为常数时间；
+ * 通过add方法和setter维护的索引与列表同步，直接修改getter返回的列表后在下一次查找时重建
  */
 @Data
 @NoArgsConstructor
@@ -56,13 +68,46 @@ public class TableMetadata {
      */
     private List<ColumnMetadata> columns = new ArrayList<>();
     
+    /**
+     * 分区汇总（分区表才有，各分区不作为单独的表提取）
+     */
+    private PartitionSummary partitions;
+    
+    /**
+     * 按名称的索引（不参与序列化和比较）
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient NameIndex nameIndex;
+    
+    public void setPrimaryKeys(List<String> primaryKeys) {
+        this.primaryKeys = primaryKeys;
+        this.nameIndex = null;
+    }
+    
+    public void setIndexes(List<IndexMetadata> indexes) {
+        this.indexes = indexes;
+        this.nameIndex = null;
+    }
+    
+    public void setColumns(List<ColumnMetadata> columns) {
+        this.columns = columns;
+        this.nameIndex = null;
+    }
+    
     /**
      * 添加主键
      *
      * @param primaryKey 主键字段名
      */
     public void addPrimaryKey(String primaryKey) {
+        boolean indexed = nameIndex != null && nameIndex.isCurrent(this);
         this.primaryKeys.add(primaryKey);
+        if (indexed) {
+            nameIndex.indexPrimaryKey(primaryKey);
+        }
     }
     
     /**
@@ -80,7 +125,11 @@ public class TableMetadata {
      * @param index 索引元数据
      */
     public void addIndex(IndexMetadata index) {
+        boolean indexed = nameIndex != null && nameIndex.isCurrent(this);
         this.indexes.add(index);
+        if (indexed) {
+            nameIndex.indexIndex(index);
+        }
     }
     
     /**
@@ -89,19 +138,64 @@ public class TableMetadata {
      * @param column 字段元数据
      */
     public void addColumn(ColumnMetadata column) {
+        boolean indexed = nameIndex != null && nameIndex.isCurrent(this);
         this.columns.add(column);
+        if (indexed) {
+            nameIndex.indexColumn(column);
+        }
     }
     
     /**
-     * 根据列名查找字段元数据
+     * 根据列名查找字段元数据（不区分大小写）
      *
      * @param columnName 列名
      * @return 可能包含字段元数据的Optional对象
      */
     public Optional<ColumnMetadata> findColumnByName(String columnName) {
-        return columns.stream()
-            .filter(col -> col.getColumnName().equalsIgnoreCase(columnName))
-            .findFirst();
+        if (columnName == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(index().columnsIgnoreCase.get(columnName.toLowerCase(Locale.ROOT)));
+    }
+    
+    /**
+     * 根据列名查找字段元数据（区分大小写，与数据库目录返回的名称精确匹配）
+     *
+     * @param columnName 列名
+     * @return 字段元数据，不存在时返回null
+     */
+    public ColumnMetadata getColumn(String columnName) {
+        return index().columns.get(columnName);
+    }
+    
+    /**
+     * 列是否属于主键（区分大小写）
+     *
+     * @param columnName 列名
+     * @return 如果是主键列则返回true
+     */
+    public boolean isPrimaryKey(String columnName) {
+        return index().primaryKeys.contains(columnName);
+    }
+    
+    /**
+     * 根据索引名查找索引元数据
+     *
+     * @param indexName 索引名
+     * @return 可能包含索引元数据的Optional对象
+     */
+    public Optional<IndexMetadata> findIndexByName(String indexName) {
+        return Optional.ofNullable(index().indexes.get(indexName));
+    }
+    
+    /**
+     * 当前的名称索引，列表被替换或绕过add方法修改后重建
+     */
+    private NameIndex index() {
+        if (nameIndex == null || !nameIndex.isCurrent(this)) {
+            nameIndex = new NameIndex(this);
+        }
+        return nameIndex;
     }
     
     /**
@@ -130,4 +224,69 @@ public class TableMetadata {
     public List<ColumnMetadata> getColumnsUnmodifiable() {
         return Collections.unmodifiableList(columns);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 列、主键和索引的名称索引，同名时保留列表中的第一个
+     * 记录建立索引时各列表的对象和长度，用于发现列表被替换或被直接修改
+     */
+    private static final class NameIndex {
+        private final Map<String, ColumnMetadata> columns = new HashMap<>();
+        private final Map<String, ColumnMetadata> columnsIgnoreCase = new HashMap<>();
+        private final Set<String> primaryKeys = new HashSet<>();
+        private final Map<String, IndexMetadata> indexes = new HashMap<>();
+        private final List<ColumnMetadata> columnList;
+        private final List<String> primaryKeyList;
+        private final List<IndexMetadata> indexList;
+        private int columnCount;
+        private int primaryKeyCount;
+        private int indexCount;
+        
+        NameIndex(TableMetadata table) {
+            columnList = table.columns;
+            primaryKeyList = table.primaryKeys;
+            indexList = table.indexes;
+            if (columnList != null) {
+                columnList.forEach(this::indexColumn);
+            }
+            if (primaryKeyList != null) {
+                primaryKeyList.forEach(this::indexPrimaryKey);
+            }
+            if (indexList != null) {
+                indexList.forEach(this::indexIndex);
+            }
+        }
+        
+        boolean isCurrent(TableMetadata table) {
+            return table.columns == columnList && table.primaryKeys == primaryKeyList && table.indexes == indexList
+                    && size(columnList) == columnCount && size(primaryKeyList) == primaryKeyCount
+                    && size(indexList) == indexCount;
+        }
+        
+        /**
+         * 由add方法在元素加入列表之后调用
+         */
+        void indexColumn(ColumnMetadata column) {
+            columnCount++;
+            if (column != null && column.getColumnName() != null) {
+                columns.putIfAbsent(column.getColumnName(), column);
+                columnsIgnoreCase.putIfAbsent(column.getColumnName().toLowerCase(Locale.ROOT), column);
+            }
+        }
+        
+        void indexPrimaryKey(String primaryKey) {
+            primaryKeyCount++;
+            primaryKeys.add(primaryKey);
+        }
+        
+        void indexIndex(IndexMetadata index) {
+            indexCount++;
+            if (index != null && index.getIndexName() != null) {
+                indexes.putIfAbsent(index.getIndexName(), index);
+            }
+        }
+        
+        private static int size(List<?> list) {
+            return list != null ? list.size() : 0;
+        }
+    }
+}
@@ -8,6 +8,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tools.highight.HighlightRenderData;
 import com.tools.highight.HighlightStyle;
+import com.tools.metrics.PipelineMetrics;
+import com.tools.metrics.PipelineTrace;
 import com.tools.model.*;
 import org.springframework.stereotype.Service;
 
@@ -103,7 +105,9 @@ public class JsonOpenApiParser implements OpenApiParser {
                 JsonNode pathItemNode = pathEntry.getValue();
 
                 // 处理每个HTTP方法
+                PipelineTrace.Span span = PipelineTrace.span("parsePath", path);
                 parseOperations(resourceMap, path, pathItemNode);
+                span.stop();
             }
         }
 
@@ -361,7 +365,9 @@ public class JsonOpenApiParser implements OpenApiParser {
                 }
 
                 // 生成示例代码
+                PipelineTrace.Span span = PipelineTrace.span("examples", schemaName);
                 definition.setDefinitionCode(generateExampleJson(schemaNode, schemasNode));
+                span.stop(PipelineMetrics.timer(PipelineMetrics.OPENAPI_EXAMPLES, "parser", "json"));
                 definitions.add(definition);
             }
         }
@@ -404,7 +410,7 @@ public class JsonOpenApiParser implements OpenApiParser {
     /**
      * 生成示例JSON
      */
-    private HighlightRenderData generateExampleJson(JsonNode schemaNode, JsonNode schemasNode) throws JsonProcessingException {
+    HighlightRenderData generateExampleJson(JsonNode schemaNode, JsonNode schemasNode) throws JsonProcessingException {
         Map<String, Object> exampleJson = generateExampleObject(schemaNode, schemasNode, new HashSet<>());
         String exampleJsonStr = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(exampleJson);
 
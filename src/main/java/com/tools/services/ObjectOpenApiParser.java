@@ -7,6 +7,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tools.highight.HighlightRenderData;
 import com.tools.highight.HighlightStyle;
+import com.tools.metrics.PipelineMetrics;
+import com.tools.metrics.PipelineTrace;
 import com.tools.model.*;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
@@ -114,7 +116,9 @@ public class ObjectOpenApiParser implements OpenApiParser {
                 PathItem pathItem = pathEntry.getValue();
 
                 // 处理每个HTTP方法
+                PipelineTrace.Span span = PipelineTrace.span("parsePath", path);
                 parseOperations(resourceMap, path, pathItem);
+                span.stop();
             }
         }
 
@@ -379,7 +383,9 @@ public class ObjectOpenApiParser implements OpenApiParser {
                 }
 
                 // 生成示例代码
+                PipelineTrace.Span span = PipelineTrace.span("examples", schemaName);
                 definition.setDefinitionCode(generateExampleJson(schema, schemas));
+                span.stop(PipelineMetrics.timer(PipelineMetrics.OPENAPI_EXAMPLES, "parser", "object"));
                 
                 definitions.add(definition);
             }
@@ -431,7 +437,7 @@ public class ObjectOpenApiParser implements OpenApiParser {
     /**
      * 生成示例JSON
      */
-    private HighlightRenderData generateExampleJson(Schema schema, Map<String, Schema> schemas) throws JsonProcessingException {
+    HighlightRenderData generateExampleJson(Schema schema, Map<String, Schema> schemas) throws JsonProcessingException {
         Map<String, Object> exampleJson = generateExampleObject(schema, schemas, new HashSet<>());
         String exampleJsonStr = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(exampleJson);
 
@@ -3,23 +3,43 @@ package com.tools.services;
 
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.config.ConfigureBuilder;
 import com.deepoove.poi.plugin.table.LoopRowTableRenderPolicy;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tools.admission.GenerationAdmission;
 import com.tools.highight.HighlightRenderPolicy;
+import com.tools.metrics.PipelineMetrics;
+import com.tools.metrics.PipelineTrace;
 import com.tools.model.ApiDataModel;
+import com.tools.model.ApiFilter;
+import com.tools.model.ApiResource;
+import com.tools.services.document.CompiledSpELRenderDataComputeFactory;
+import com.tools.services.document.ParallelFragmentRenderer;
+import com.tools.services.document.TemplateFragments;
+import com.tools.services.document.TypedRenderDataComputeFactory;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class OpenApiDocService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OpenApiDocService.class);
+
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final OpenApiParserService parserService;
@@ -27,6 +47,21 @@ public class OpenApiDocService {
     @Value("${openapi.default-template:swagger/default-swagger-template.docx}")
     private String defaultTemplatePath;
 
+    @Value("${openapi.typed-binding.enabled:true}")
+    private boolean typedBindingEnabled = true;
+
+    @Value("${openapi.parallel-render.enabled:true}")
+    private boolean parallelRenderEnabled = true;
+
+    @Value("${openapi.parallel-render.min-endpoints:200}")
+    private int parallelRenderMinEndpoints = 200;
+
+    @Value("${openapi.parallel-render.endpoints-per-fragment:50}")
+    private int parallelRenderEndpointsPerFragment = 50;
+
+    @Value("${openapi.parallel-render.definitions-per-fragment:50}")
+    private int parallelRenderDefinitionsPerFragment = 50;
+
     public OpenApiDocService(OpenApiParserService parserService) {
         this.parserService = parserService;
     }
@@ -35,55 +70,131 @@ public class OpenApiDocService {
      * 从URL生成文档
      */
     public byte[] generateDocFromUrl(String openApiUrl, String templateName) throws IOException {
-        String openApiJson = restTemplate.getForObject(openApiUrl, String.class);
-        return generateDocFromJson(openApiJson, templateName);
+        return generateDocFromJson(fetch(openApiUrl), templateName);
     }
 
     /**
      * 从URL生成文档（使用自定义模板）
      */
     public byte[] generateDocFromUrl(String openApiUrl, InputStream templateStream) throws IOException {
-        String openApiJson = restTemplate.getForObject(openApiUrl, String.class);
-        return generateDocFromJson(openApiJson, templateStream);
+        return generateDocFromJson(fetch(openApiUrl), templateStream);
     }
 
     /**
      * 从JSON字符串生成文档
      */
     public byte[] generateDocFromJson(String openApiJson, String templateName) throws IOException {
+        return generateDocFromJson(openApiJson, templateName, null);
+    }
+
+    /**
+     * 从JSON字符串生成文档，只包含过滤条件选中的接口和它们引用的数据模型
+     */
+    public byte[] generateDocFromJson(String openApiJson, String templateName, ApiFilter filter) throws IOException {
         InputStream templateStream = getTemplateStream(templateName);
-        return generateDocFromJson(openApiJson, templateStream);
+        ApiDataModel apiDataModel = buildDataModel(readTree(openApiJson), filter);
+        return renderDocument(apiDataModel, templateStream, PipelineMetrics.templateTag(templateName));
     }
 
     /**
      * 从JSON字符串生成文档（使用自定义模板）
      */
     public byte[] generateDocFromJson(String openApiJson, InputStream templateStream) throws IOException {
-        JsonNode rootNode = objectMapper.readTree(openApiJson);
-        final ApiDataModel apiDataModel = parserService.buildDataModel(rootNode);
+        return generateDocFromJson(openApiJson, templateStream, null);
+    }
+
+    /**
+     * 从JSON字符串生成文档（使用自定义模板），只包含过滤条件选中的接口和它们引用的数据模型
+     */
+    public byte[] generateDocFromJson(String openApiJson, InputStream templateStream, ApiFilter filter) throws IOException {
+        JsonNode rootNode = readTree(openApiJson);
+        final ApiDataModel apiDataModel = buildDataModel(rootNode, filter);
 
-        return renderDocument(apiDataModel, templateStream);
+        return renderDocument(apiDataModel, templateStream, PipelineMetrics.CUSTOM_TEMPLATE);
     }
 
     /**
      * 从文件生成文档
      */
     public byte[] generateDocFromFile(InputStream jsonFileStream, String templateName) throws IOException {
-        JsonNode rootNode = objectMapper.readTree(jsonFileStream);
+        return generateDocFromFile(jsonFileStream, templateName, null);
+    }
+
+    /**
+     * 从文件生成文档，只包含过滤条件选中的接口和它们引用的数据模型
+     */
+    public byte[] generateDocFromFile(InputStream jsonFileStream, String templateName, ApiFilter filter) throws IOException {
+        JsonNode rootNode = readTree(jsonFileStream);
         InputStream templateStream = getTemplateStream(templateName);
-        ApiDataModel dataModel = parserService.buildDataModel(rootNode);
+        ApiDataModel dataModel = buildDataModel(rootNode, filter);
 
-        return renderDocument(dataModel, templateStream);
+        return renderDocument(dataModel, templateStream, PipelineMetrics.templateTag(templateName));
     }
 
     /**
      * 从文件生成文档（使用自定义模板）
      */
     public byte[] generateDocFromFile(InputStream jsonFileStream, InputStream templateStream) throws IOException {
-        JsonNode rootNode = objectMapper.readTree(jsonFileStream);
-        ApiDataModel dataModel = parserService.buildDataModel(rootNode);
+        return generateDocFromFile(jsonFileStream, templateStream, null);
+    }
+
+    /**
+     * 从文件生成文档（使用自定义模板），只包含过滤条件选中的接口和它们引用的数据模型
+     */
+    public byte[] generateDocFromFile(InputStream jsonFileStream, InputStream templateStream, ApiFilter filter) throws IOException {
+        JsonNode rootNode = readTree(jsonFileStream);
+        ApiDataModel dataModel = buildDataModel(rootNode, filter);
+
+        return renderDocument(dataModel, templateStream, PipelineMetrics.CUSTOM_TEMPLATE);
+    }
 
-        return renderDocument(dataModel, templateStream);
+    /**
+     * 按过滤条件裁剪规范后构建数据模型，裁剪计入请求跟踪的subset阶段
+     */
+    private ApiDataModel buildDataModel(JsonNode rootNode, ApiFilter filter) throws IOException {
+        if (filter != null && !filter.isUnrestricted()) {
+            PipelineTrace.Span span = PipelineTrace.span("subset");
+            rootNode = OpenApiSubset.apply(rootNode, filter);
+            span.stop();
+        }
+        return parserService.buildDataModel(rootNode);
+    }
+
+    /**
+     * 从URL获取OpenAPI规范
+     *
+     * @param openApiUrl 规范地址
+     * @return 规范JSON内容
+     */
+    public String fetch(String openApiUrl) {
+        PipelineTrace.Span span = PipelineTrace.span("fetch");
+        String openApiJson = restTemplate.getForObject(openApiUrl, String.class);
+        span.stop(PipelineMetrics.timer(PipelineMetrics.OPENAPI_FETCH));
+        if (openApiJson != null) {
+            GenerationAdmission.recordInputSize(openApiJson.length());
+        }
+        return openApiJson;
+    }
+
+    /**
+     * 读取JSON，计入解析阶段（phase=read）
+     */
+    private JsonNode readTree(String openApiJson) throws IOException {
+        PipelineTrace.Span span = PipelineTrace.span("readTree");
+        JsonNode rootNode = objectMapper.readTree(openApiJson);
+        span.stop(readTimer());
+        return rootNode;
+    }
+
+    private JsonNode readTree(InputStream jsonStream) throws IOException {
+        PipelineTrace.Span span = PipelineTrace.span("readTree");
+        JsonNode rootNode = objectMapper.readTree(jsonStream);
+        span.stop(readTimer());
+        return rootNode;
+    }
+
+    private Timer readTimer() {
+        return PipelineMetrics.timer(PipelineMetrics.OPENAPI_PARSE, "parser", parserService.getParserMode(), "phase", "read");
     }
 
     /**
@@ -91,30 +202,162 @@ public class OpenApiDocService {
      */
     private InputStream getTemplateStream(String templateName) throws IOException {
         if (templateName != null && !templateName.isEmpty()) {
-            return new ClassPathResource("templates/" + templateName).getInputStream();
+            return TemplateResources.open("templates/" + templateName);
         } else {
-            return new ClassPathResource(defaultTemplatePath).getInputStream();
+            return TemplateResources.open(defaultTemplatePath);
         }
     }
 
+    byte[] renderDocument(ApiDataModel dataModel, InputStream templateStream) throws IOException {
+        return renderDocument(dataModel, templateStream, PipelineMetrics.CUSTOM_TEMPLATE);
+    }
+
     /**
      * 渲染文档
+     * 接口数量达到阈值时按资源和数据模型分块并行渲染为片段再拼接；
+     * 模板不支持切分或片段无法在包级合并时回退为整体渲染
+     *
+     * @param templateTag 指标中的template标签
      */
-    private byte[] renderDocument(ApiDataModel dataModel, InputStream templateStream) throws IOException {
-        Configure config = Configure.builder()
-                .bind("parameters", new LoopRowTableRenderPolicy())
-                .bind("responses", new LoopRowTableRenderPolicy())
-                .bind("properties", new LoopRowTableRenderPolicy())
-                .bind("definitionCode", new HighlightRenderPolicy())
-                .useSpringEL()
-                .build();
+    private byte[] renderDocument(ApiDataModel dataModel, InputStream templateStream, String templateTag) throws IOException {
+        int endpointCount = countEndpoints(dataModel);
+        GenerationAdmission.refineOpenApi(endpointCount, dataModel.getDefinitions().size());
+        String parserMode = parserService.getParserMode();
+        PipelineMetrics.summary(PipelineMetrics.OPENAPI_ENDPOINTS, "endpoints", "parser", parserMode).record(endpointCount);
+        PipelineMetrics.summary(PipelineMetrics.OPENAPI_DEFINITIONS, "definitions", "parser", parserMode)
+                .record(dataModel.getDefinitions().size());
+
+        byte[] document;
+        if (!parallelRenderEnabled || endpointCount < parallelRenderMinEndpoints) {
+            document = renderWhole(dataModel, templateStream, templateTag);
+        } else {
+            byte[] template = StreamUtils.copyToByteArray(templateStream);
+            try {
+                document = renderFragments(dataModel, template, templateTag);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                logger.warn("文档片段并行渲染不可用，改为整体渲染: {}", e.getMessage());
+                document = renderWhole(dataModel, new ByteArrayInputStream(template), templateTag);
+            }
+        }
+
+        PipelineMetrics.summary(PipelineMetrics.OPENAPI_DOCUMENT_SIZE, "bytes", "template", templateTag).record(document.length);
+        return document;
+    }
 
+    /**
+     * 整体渲染
+     */
+    private byte[] renderWhole(ApiDataModel dataModel, InputStream templateStream, String templateTag) throws IOException {
+        PipelineMetrics.RenderStages stages = PipelineMetrics.renderStages(PipelineMetrics.OPENAPI_RENDER,
+                "template", templateTag, "mode", "whole");
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        XWPFTemplate template = XWPFTemplate.compile(templateStream, config).render(dataModel.toMap());
+        PipelineTrace.Span span = PipelineTrace.span("compile");
+        XWPFTemplate template = XWPFTemplate.compile(templateStream, createConfigure());
+        span.stop(stages.compile());
+
+        span = PipelineTrace.span("render");
+        template.render(renderModel(dataModel));
+        span.stop(stages.render());
+
+        span = PipelineTrace.span("write");
         template.write(outputStream);
         template.close();
+        span.stop(stages.write());
+
+        return outputStream.toByteArray();
+    }
 
+    /**
+     * 分片并行渲染
+     * 资源按顺序分组（每组至少parallelRenderEndpointsPerFragment个接口，资源本身不拆分），
+     * 数据模型按parallelRenderDefinitionsPerFragment个一组，各组分别渲染后在docx包级拼接。
+     * 书签由合并时统一重新编号，anchor:超链接只引用书签名，跨片段仍然有效
+     */
+    private byte[] renderFragments(ApiDataModel dataModel, byte[] template, String templateTag) throws IOException {
+        Object model = renderModel(dataModel);
+        List<ParallelFragmentRenderer.Fragment> fragments = new ArrayList<>();
+        for (TemplateFragments.Segment segment : TemplateFragments.split(template, "resources", "definitions").getSegments()) {
+            if (!segment.isLoop()) {
+                fragments.add(newFragment(fragments.size(), segment, model));
+                continue;
+            }
+
+            boolean resourceLoop = "resources".equals(segment.getLoopName());
+            int batchLimit = resourceLoop ? parallelRenderEndpointsPerFragment : parallelRenderDefinitionsPerFragment;
+            int itemCount = resourceLoop ? dataModel.getResources().size() : dataModel.getDefinitions().size();
+            int batchStart = 0;
+            int batchWeight = 0;
+            for (int i = 0; i < itemCount; i++) {
+                batchWeight += resourceLoop ? dataModel.getResources().get(i).getEndpoints().size() : 1;
+                if (batchWeight >= batchLimit || i == itemCount - 1) {
+                    Object fragmentModel = fragmentModel(dataModel, model, segment.getLoopName(), batchStart, i + 1);
+                    fragments.add(newFragment(fragments.size(), segment, fragmentModel));
+                    batchStart = i + 1;
+                    batchWeight = 0;
+                }
+            }
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ParallelFragmentRenderer.renderMerged(fragments, this::createConfigure,
+                PipelineMetrics.renderStages(PipelineMetrics.OPENAPI_RENDER, "template", templateTag, "mode", "fragments"),
+                outputStream);
         return outputStream.toByteArray();
     }
+
+    /**
+     * 渲染数据：类型化绑定时直接使用数据模型，否则转换为Map
+     */
+    private Object renderModel(ApiDataModel dataModel) {
+        return typedBindingEnabled ? dataModel : dataModel.toMap();
+    }
+
+    /**
+     * 循环片段的数据：只把对应区块循环的数据替换为[from, to)范围内的部分
+     */
+    @SuppressWarnings("unchecked")
+    private Object fragmentModel(ApiDataModel dataModel, Object model, String loopName, int from, int to) {
+        if (model instanceof ApiDataModel) {
+            ApiDataModel fragmentModel = new ApiDataModel();
+            fragmentModel.setInfo(dataModel.getInfo());
+            fragmentModel.setResources("resources".equals(loopName)
+                    ? dataModel.getResources().subList(from, to) : dataModel.getResources());
+            fragmentModel.setDefinitions("definitions".equals(loopName)
+                    ? dataModel.getDefinitions().subList(from, to) : dataModel.getDefinitions());
+            return fragmentModel;
+        }
+        Map<String, Object> fragmentModel = new HashMap<>((Map<String, Object>) model);
+        fragmentModel.put(loopName, ((List<Object>) fragmentModel.get(loopName)).subList(from, to));
+        return fragmentModel;
+    }
+
+    private ParallelFragmentRenderer.Fragment newFragment(int index, TemplateFragments.Segment segment, Object model) {
+        return new ParallelFragmentRenderer.Fragment(String.format("fragment_%04d.docx", index),
+                segment.getTemplate(), model);
+    }
+
+    private int countEndpoints(ApiDataModel dataModel) {
+        int count = 0;
+        for (ApiResource resource : dataModel.getResources()) {
+            count += resource.getEndpoints().size();
+        }
+        return count;
+    }
+
+    /**
+     * 模板渲染配置
+     * 类型化绑定时属性路径标签由TypedRenderDataComputeFactory直接读取，其余标签按缓存编译结果的Spring EL计算
+     */
+    private Configure createConfigure() {
+        ConfigureBuilder builder = Configure.builder()
+                .bind("parameters", new LoopRowTableRenderPolicy())
+                .bind("responses", new LoopRowTableRenderPolicy())
+                .bind("properties", new LoopRowTableRenderPolicy())
+                .bind("definitionCode", new HighlightRenderPolicy())
+                .useSpringEL();
+        builder.setRenderDataComputeFactory(typedBindingEnabled
+                ? new TypedRenderDataComputeFactory() : new CompiledSpELRenderDataComputeFactory());
+        return builder.build();
+    }
 }
\ No newline at end of file
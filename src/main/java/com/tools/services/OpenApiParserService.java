@@ -3,7 +3,10 @@ package com.tools.services;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tools.metrics.PipelineMetrics;
+import com.tools.metrics.PipelineTrace;
 import com.tools.model.ApiDataModel;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -36,9 +39,12 @@ public class OpenApiParserService {
      * @throws JsonProcessingException 如果处理JSON出错
      */
     public ApiDataModel buildDataModel(String openApiContent) throws JsonProcessingException {
-        return useObjectModel 
+        PipelineTrace.Span span = PipelineTrace.span("buildDataModel");
+        ApiDataModel dataModel = useObjectModel
             ? objectOpenApiParser.buildStructuredDataModel(openApiContent) 
             : jsonOpenApiParser.buildStructuredDataModel(openApiContent);
+        span.stop(buildTimer());
+        return dataModel;
     }
 
     /**
@@ -49,15 +55,32 @@ public class OpenApiParserService {
      * @throws JsonProcessingException 如果处理JSON出错
      */
     public ApiDataModel buildDataModel(JsonNode rootNode) throws JsonProcessingException {
+        PipelineTrace.Span span = PipelineTrace.span("buildDataModel");
+        ApiDataModel dataModel;
         if (useObjectModel) {
             // 将JsonNode转为字符串，然后通过对象模型解析器解析
             String jsonContent = mapper.writeValueAsString(rootNode);
-            return objectOpenApiParser.buildStructuredDataModel(jsonContent);
+            dataModel = objectOpenApiParser.buildStructuredDataModel(jsonContent);
         } else {
-            return jsonOpenApiParser.buildStructuredDataModel(rootNode);
+            dataModel = jsonOpenApiParser.buildStructuredDataModel(rootNode);
         }
+        span.stop(buildTimer());
+        return dataModel;
     }
     
+    /**
+     * 当前解析方式，用作指标的parser标签
+     *
+     * @return object或json
+     */
+    public String getParserMode() {
+        return useObjectModel ? "object" : "json";
+    }
+
+    private Timer buildTimer() {
+        return PipelineMetrics.timer(PipelineMetrics.OPENAPI_PARSE, "parser", getParserMode(), "phase", "build");
+    }
+
     /**
      * 设置解析模式
      * 
@@ -0,0 +1,236 @@
+package com.tools.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tools.model.ApiFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OpenAPI规范的接口子集
+ * 按标签、路径和HTTP方法选出操作，再从选中的操作出发沿$ref（包括components下的参数、请求体、响应等
+ * 以及discriminator映射）计算传递闭包，只保留可达的components/schemas。
+ * 在解析之前裁剪JSON树，两种解析方式都只为保留的数据模型生成示例和高亮代码
+ */
+public final class OpenApiSubset {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenApiSubset.class);
+
+    private static final Set<String> HTTP_METHODS = new HashSet<>(
+            Arrays.asList("get", "put", "post", "delete", "options", "head", "patch", "trace"));
+
+    private static final String COMPONENTS_PREFIX = "#/components/";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private OpenApiSubset() {
+    }
+
+    /**
+     * 按过滤条件裁剪规范
+     *
+     * @param rootNode 规范根节点，不会被修改
+     * @param filter   过滤条件
+     * @return 只包含选中操作和可达数据模型的新根节点；没有过滤条件时返回原节点
+     */
+    public static JsonNode apply(JsonNode rootNode, ApiFilter filter) {
+        if (filter == null || filter.isUnrestricted() || !rootNode.isObject()) {
+            return rootNode;
+        }
+        // 浅拷贝，未裁剪的部分与原树共享节点
+        ObjectNode subset = JsonNodeFactory.instance.objectNode();
+        subset.setAll((ObjectNode) rootNode);
+        ObjectNode paths = JsonNodeFactory.instance.objectNode();
+        int totalOperations = 0;
+        int selectedOperations = 0;
+
+        JsonNode pathsNode = rootNode.path("paths");
+        Iterator<Map.Entry<String, JsonNode>> pathFields = pathsNode.fields();
+        while (pathFields.hasNext()) {
+            Map.Entry<String, JsonNode> pathEntry = pathFields.next();
+            String path = pathEntry.getKey();
+            boolean pathSelected = matchesPath(path, filter);
+            ObjectNode pathItem = JsonNodeFactory.instance.objectNode();
+            boolean hasOperation = false;
+            Iterator<Map.Entry<String, JsonNode>> fields = pathEntry.getValue().fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String name = field.getKey();
+                if (!HTTP_METHODS.contains(name.toLowerCase(Locale.ROOT))) {
+                    // 路径级的参数、描述等随路径保留
+                    pathItem.set(name, field.getValue());
+                    continue;
+                }
+                totalOperations++;
+                if (pathSelected && matchesOperation(name, field.getValue(), filter)) {
+                    pathItem.set(name, field.getValue());
+                    hasOperation = true;
+                    selectedOperations++;
+                }
+            }
+            if (hasOperation) {
+                paths.set(path, pathItem);
+            }
+        }
+        subset.set("paths", paths);
+
+        JsonNode schemasNode = rootNode.path("components").path("schemas");
+        if (schemasNode.isObject()) {
+            Set<String> reachable = reachableSchemas(paths, rootNode.path("components"));
+            ObjectNode schemas = JsonNodeFactory.instance.objectNode();
+            Iterator<Map.Entry<String, JsonNode>> schemaFields = schemasNode.fields();
+            while (schemaFields.hasNext()) {
+                Map.Entry<String, JsonNode> schemaEntry = schemaFields.next();
+                if (reachable.contains(schemaEntry.getKey())) {
+                    schemas.set(schemaEntry.getKey(), schemaEntry.getValue());
+                }
+            }
+            ObjectNode components = JsonNodeFactory.instance.objectNode();
+            components.setAll((ObjectNode) rootNode.get("components"));
+            components.set("schemas", schemas);
+            subset.set("components", components);
+            logger.info("接口子集: 保留{}个操作中的{}个，{}个数据模型中的{}个",
+                    totalOperations, selectedOperations, schemasNode.size(), schemas.size());
+        } else {
+            logger.info("接口子集: 保留{}个操作中的{}个", totalOperations, selectedOperations);
+        }
+        return subset;
+    }
+
+    private static boolean matchesPath(String path, ApiFilter filter) {
+        if (anyPathMatches(filter.getExcludePaths(), path)) {
+            return false;
+        }
+        return isEmpty(filter.getIncludePaths()) || anyPathMatches(filter.getIncludePaths(), path);
+    }
+
+    private static boolean anyPathMatches(List<String> patterns, String path) {
+        if (patterns != null) {
+            for (String pattern : patterns) {
+                if (PATH_MATCHER.match(pattern.trim(), path)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesOperation(String method, JsonNode operationNode, ApiFilter filter) {
+        if (!isEmpty(filter.getMethods()) && !containsIgnoreCase(filter.getMethods(), method)) {
+            return false;
+        }
+        // 与解析器一致，没有标签的操作归入Default
+        Set<String> tags = new HashSet<>();
+        JsonNode tagsNode = operationNode.path("tags");
+        if (tagsNode.isArray() && tagsNode.size() > 0) {
+            for (JsonNode tag : tagsNode) {
+                tags.add(tag.asText());
+            }
+        } else {
+            tags.add("Default");
+        }
+        for (String tag : tags) {
+            if (containsIgnoreCase(filter.getExcludeTags(), tag)) {
+                return false;
+            }
+        }
+        if (isEmpty(filter.getIncludeTags())) {
+            return true;
+        }
+        for (String tag : tags) {
+            if (containsIgnoreCase(filter.getIncludeTags(), tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 从选中的路径出发，沿$ref和discriminator映射计算可达的数据模型名称
+     */
+    static Set<String> reachableSchemas(JsonNode paths, JsonNode components) {
+        Set<String> visitedRefs = new HashSet<>();
+        Set<String> schemas = new HashSet<>();
+        Deque<JsonNode> pending = new ArrayDeque<>();
+        pending.push(paths);
+        while (!pending.isEmpty()) {
+            JsonNode node = pending.pop();
+            if (node.isArray()) {
+                for (JsonNode element : node) {
+                    pending.push(element);
+                }
+                continue;
+            }
+            if (!node.isObject()) {
+                continue;
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                if ("$ref".equals(field.getKey()) && value.isTextual()) {
+                    follow(value.asText(), components, visitedRefs, schemas, pending);
+                } else if ("mapping".equals(field.getKey()) && value.isObject()) {
+                    for (JsonNode target : value) {
+                        if (target.isTextual()) {
+                            follow(target.asText(), components, visitedRefs, schemas, pending);
+                        }
+                    }
+                } else if (value.isContainerNode()) {
+                    pending.push(value);
+                }
+            }
+        }
+        return schemas;
+    }
+
+    /**
+     * 跟随components内的引用，每个引用只展开一次（循环引用在此终止）
+     */
+    private static void follow(String ref, JsonNode components, Set<String> visitedRefs, Set<String> schemas,
+                               Deque<JsonNode> pending) {
+        if (!ref.startsWith(COMPONENTS_PREFIX) || !visitedRefs.add(ref)) {
+            return;
+        }
+        String[] parts = ref.substring(COMPONENTS_PREFIX.length()).split("/", 2);
+        if (parts.length != 2) {
+            return;
+        }
+        String name = parts[1].replace("~1", "/").replace("~0", "~");
+        JsonNode target = components.path(parts[0]).get(name);
+        if (target == null) {
+            return;
+        }
+        if ("schemas".equals(parts[0])) {
+            schemas.add(name);
+        }
+        pending.push(target);
+    }
+
+    private static boolean containsIgnoreCase(List<String> values, String value) {
+        if (values != null) {
+            for (String candidate : values) {
+                if (candidate.trim().equalsIgnoreCase(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isEmpty(List<String> values) {
+        return values == null || values.isEmpty();
+    }
+}
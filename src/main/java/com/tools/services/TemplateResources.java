@@ -0,0 +1,52 @@
+package com.tools.services;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * classpath模板缓存
+ * 内置模板只读取一次，之后每次渲染都从内存中的字节数组创建输入流
+ */
+public final class TemplateResources {
+
+    private static final Map<String, byte[]> templateCache = new ConcurrentHashMap<>();
+
+    private TemplateResources() {
+    }
+
+    /**
+     * 读取classpath模板内容（带缓存）
+     *
+     * @param path classpath下的模板路径
+     * @return 模板内容
+     * @throws IOException 模板不存在或读取失败
+     */
+    public static byte[] load(String path) throws IOException {
+        byte[] content = templateCache.get(path);
+        if (content != null) {
+            return content;
+        }
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            content = StreamUtils.copyToByteArray(in);
+        }
+        templateCache.put(path, content);
+        return content;
+    }
+
+    /**
+     * 打开classpath模板输入流（带缓存）
+     *
+     * @param path classpath下的模板路径
+     * @return 基于缓存内容的输入流
+     * @throws IOException 模板不存在或读取失败
+     */
+    public static InputStream open(String path) throws IOException {
+        return new ByteArrayInputStream(load(path));
+    }
+}
@@ -1,11 +1,27 @@
 package com.tools.services.database;
 
+import com.tools.metrics.PipelineMetrics;
+import com.tools.metrics.PipelineTrace;
 import com.tools.model.database.*;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.dbcp2.PoolableConnectionFactory;
+import org.apache.commons.dbcp2.PoolingDataSource;
+import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 数据库元数据提取器抽象基类
@@ -15,6 +31,17 @@ public abstract class AbstractDatabaseMetadataExtractor implements DatabaseMetad
     
     private static final Logger logger = LoggerFactory.getLogger(AbstractDatabaseMetadataExtractor.class);
     
+    private static final AtomicInteger SCHEMA_THREAD_COUNTER = new AtomicInteger();
+    
+    /**
+     * 多模式提取的工作线程（守护线程，每次提取的线程数由schemaParallelism限制）
+     */
+    private static final ExecutorService SCHEMA_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "schema-extract-" + SCHEMA_THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    
     /**
      * 从数据库中提取所有元数据
      * 
@@ -32,55 +59,350 @@ public abstract class AbstractDatabaseMetadataExtractor implements DatabaseMetad
             throw new IllegalArgumentException("数据库连接配置无效，缺少必要参数");
         }
         
+        TableNameFilter filter = TableNameFilter.of(config);
+        Set<MetadataCategory> categories = config.resolveExtractionCategories();
+        
         DatabaseMetadata metadata = new DatabaseMetadata();
         metadata.setDatabaseName(config.getDatabaseName());
         metadata.setDatabaseType(config.getDatabaseType());
         metadata.setUsername(config.getUsername());
         metadata.setUrl(config.buildJdbcUrl());
+        metadata.setExtractionCategories(categories);
         
-        try (Connection connection = getConnection(config)) {
-            DatabaseMetaData dbMetaData = connection.getMetaData();
-            metadata.setDatabaseVersion(dbMetaData.getDatabaseProductVersion());
-            
-            String schema = config.getSchema();
-            
-            // 获取所有表
-            try (ResultSet tables = getTables(dbMetaData, schema)) {
-                while (tables.next()) {
-                    try {
-                        String tableName = tables.getString("TABLE_NAME");
-                        String tableSchema = tables.getString("TABLE_SCHEM");
-                        
+        // 目标数据库已知不可用时直接失败，不占用连接和线程
+        String target = circuitTarget(config);
+        boolean trial = CatalogCircuitBreaker.acquire(target);
+        
+        String databaseTag = PipelineMetrics.databaseTag(config.getDatabaseType());
+        ExtractionDeadline deadline = new ExtractionDeadline(config.getQueryTimeoutSeconds(),
+                config.getExtractionTimeoutSeconds());
+        JdbcInstrumentation instrumentation = new JdbcInstrumentation(databaseTag, config.getSlowQueryThresholdMs(),
+                deadline);
+        PipelineTrace.Span extractSpan = PipelineTrace.span("extract");
+        try {
+            boolean targetFailed = false;
+            if (config.getSchemas() != null && !config.getSchemas().isEmpty()) {
+                targetFailed = extractSchemas(config, databaseTag, instrumentation, filter, categories, metadata,
+                        checkpointKey(config, categories));
+            } else {
+                try (Connection connection = connect(config, databaseTag, instrumentation)) {
+                    DatabaseMetaData dbMetaData = connection.getMetaData();
+                    metadata.setDatabaseVersion(dbMetaData.getDatabaseProductVersion());
+                    extractSchema(dbMetaData, databaseTag, config.getSchema(), filter, categories, metadata,
+                            checkpointKey(config, categories));
+                }
+            }
+            if (targetFailed) {
+                CatalogCircuitBreaker.recordFailure(target);
+            } else {
+                CatalogCircuitBreaker.recordSuccess(target);
+            }
+        } catch (SQLException e) {
+            if (deadline.isExpired() || isTargetFailure(e)) {
+                CatalogCircuitBreaker.recordFailure(target);
+            }
+            if (deadline.isExpired()) {
+                // 中止连接后进行中的调用以连接错误结束
+                throw timedOut(databaseTag, config);
+            }
+            logger.error("连接数据库时发生错误: {}", e.getMessage());
+            if (logger.isDebugEnabled()) {
+                logger.debug("详细错误信息", e);
+            }
+            throw new RuntimeException("提取数据库元数据失败", e);
+        } catch (ExtractionTimeoutException e) {
+            CatalogCircuitBreaker.recordFailure(target);
+            throw timedOut(databaseTag, config);
+        } finally {
+            deadline.close();
+            CatalogCircuitBreaker.release(target, trial);
+            extractSpan.stop(PipelineMetrics.timer(PipelineMetrics.DATABASE_EXTRACT, "database", databaseTag));
+        }
+        
+        attachJdbcStatistics(metadata, instrumentation);
+        return metadata;
+    }
+    
+    /**
+     * 熔断器的目标：JDBC URL（已屏蔽密码）和用户
+     */
+    private static String circuitTarget(DatabaseConnectionConfig config) {
+        return CatalogCircuitBreaker.target(config.buildJdbcUrl(), config.getUsername());
+    }
+    
+    private static ExtractionTimeoutException timedOut(String databaseTag, DatabaseConnectionConfig config) {
+        PipelineMetrics.counter(PipelineMetrics.DATABASE_EXTRACT_TIMEOUT, "database", databaseTag).increment();
+        logger.error("元数据提取超过{}秒的时限，已完成的表保留在检查点中", config.getExtractionTimeoutSeconds());
+        return new ExtractionTimeoutException(config.getExtractionTimeoutSeconds());
+    }
+    
+    /**
+     * 提取一个模式下的所有表，结果加入metadata
+     * 已完成的表写入检查点，重试时从检查点恢复；连接中断时中止提取（抛出异常），检查点保留
+     *
+     * @throws SQLException 连接中断
+     */
+    private void extractSchema(DatabaseMetaData dbMetaData, String databaseTag, String schema, TableNameFilter filter,
+                               Set<MetadataCategory> categories, DatabaseMetadata metadata, String checkpointKey)
+            throws SQLException {
+        // 分区在模式级别一次识别，分区作为独立的表出现时不逐个提取
+        PartitionLayout partitionLayout = partitionLayout(dbMetaData, schema);
+        int collapsedPartitions = 0;
+        ExtractionCheckpoint checkpoint = openCheckpoint(dbMetaData, schema, checkpointKey);
+        boolean succeeded = false;
+        
+        // 获取所有表（表列表的读取耗时计入getTables调用）
+        // 表名LIKE模式能下推时由目录查询过滤，其余条件在逐表提取之前于客户端过滤
+        boolean pushDown = filter.hasLikePatterns() && getTablesQuery() != null;
+        Timer.Sample tablesSample = PipelineMetrics.start();
+        int tableRows = 0;
+        int skippedByClient = 0;
+        try (ResultSet tables = pushDown ? getTables(dbMetaData, schema, filter) : getTables(dbMetaData, schema)) {
+            while (tables.next()) {
+                tableRows++;
+                try {
+                    String tableName = tables.getString("TABLE_NAME");
+                    String tableSchema = tables.getString("TABLE_SCHEM");
+                    if (partitionLayout.isPartition(tableName)) {
+                        collapsedPartitions++;
+                        continue;
+                    }
+                    if (!filter.isEmpty() && !filter.matches(tableName)) {
+                        skippedByClient++;
+                        continue;
+                    }
+                    
+                    TableMetadata tableMetadata = checkpoint != null ? checkpoint.completed(tableName) : null;
+                    if (tableMetadata == null) {
                         logger.debug("正在提取表元数据: {}.{}", tableSchema, tableName);
-                        TableMetadata tableMetadata = extractTableMetadata(dbMetaData, tableName, tableSchema);
-                        if (tableMetadata != null) {
-                            metadata.addTable(tableMetadata);
+                        tableMetadata = extractTableMetadata(dbMetaData, databaseTag, tableName, tableSchema,
+                                categories);
+                        if (tableMetadata != null && checkpoint != null) {
+                            checkpoint.save(tableMetadata);
                         }
-                    } catch (SQLException e) {
-                        // 记录错误但继续处理下一个表
-                        logger.warn("提取表元数据时发生错误: {}", e.getMessage());
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("详细错误信息", e);
+                    }
+                    if (tableMetadata != null) {
+                        tableMetadata.setPartitions(partitionLayout.getSummary(tableName));
+                        metadata.addTable(tableMetadata);
+                    }
+                } catch (SQLException e) {
+                    // 连接中断时中止，其他错误记录后继续处理下一个表
+                    rethrowConnectionFailure(e);
+                    logger.warn("提取表元数据时发生错误: {}", e.getMessage());
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("详细错误信息", e);
+                    }
+                }
+            }
+            succeeded = true;
+        } catch (SQLException e) {
+            if (isConnectionFailure(e)) {
+                logger.error("连接中断，已提取{}张表，重试时从检查点继续: {}", metadata.getTables().size(), e.getMessage());
+                throw e;
+            }
+            // 记录错误但返回已提取的元数据
+            logger.error("获取表列表时发生错误: {}", e.getMessage());
+            if (logger.isDebugEnabled()) {
+                logger.debug("详细错误信息", e);
+            }
+        } finally {
+            recordCall(tablesSample, databaseTag, "getTables", tableRows);
+            if (checkpoint != null) {
+                if (succeeded) {
+                    checkpoint.complete();
+                } else {
+                    checkpoint.close();
+                }
+                metadata.setResumedTables(metadata.getResumedTables() + checkpoint.getResumedTables());
+            }
+        }
+        
+        if (collapsedPartitions > 0) {
+            metadata.setCollapsedPartitions(collapsedPartitions);
+            logger.info("分区折叠: {}个分区归入所属的分区表，未单独提取", collapsedPartitions);
+        }
+        
+        if (!filter.isEmpty()) {
+            metadata.setTableFilter(tableFilterStatistics(dbMetaData, schema, pushDown, tableRows, skippedByClient,
+                    metadata.getTables().size()));
+        }
+    }
+    
+    /**
+     * 并行提取多个模式
+     * 按名称或LIKE模式从目录中选出模式，由schemaParallelism个工作线程从队列中逐个领取模式，
+     * 每个模式从连接池借一个连接提取，各模式的结果按模式名合并，表按模式分组排列。
+     * 单个模式失败只记录在该模式的结果中，不影响其他模式
+     *
+     * @return 是否所有模式都因连接失败而失败（此时计为目标数据库的一次失败）
+     */
+    private boolean extractSchemas(DatabaseConnectionConfig config, String databaseTag, JdbcInstrumentation instrumentation,
+                                TableNameFilter filter, Set<MetadataCategory> categories, DatabaseMetadata metadata,
+                                String checkpointKey) throws SQLException {
+        int parallelism = Math.max(1, config.getSchemaParallelism());
+        PoolingDataSource<PoolableConnection> pool = createPool(config, parallelism);
+        try {
+            List<String> schemas;
+            try (Connection connection = borrow(pool, databaseTag, instrumentation)) {
+                DatabaseMetaData dbMetaData = connection.getMetaData();
+                metadata.setDatabaseVersion(dbMetaData.getDatabaseProductVersion());
+                schemas = resolveSchemas(dbMetaData, config.getSchemas());
+            }
+            logger.info("多模式提取: {}个模式，并行度{}", schemas.size(), parallelism);
+            
+            Map<String, DatabaseMetadata> results = new ConcurrentHashMap<>();
+            Map<String, SchemaExtraction> extractions = new ConcurrentHashMap<>();
+            Set<String> connectionFailures = ConcurrentHashMap.newKeySet();
+            Queue<String> pending = new ConcurrentLinkedQueue<>(schemas);
+            PipelineTrace trace = PipelineTrace.current();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < Math.min(parallelism, schemas.size()); i++) {
+                workers.add(SCHEMA_EXECUTOR.submit(() -> {
+                    PipelineTrace previous = PipelineTrace.attach(trace);
+                    try {
+                        String schema;
+                        while ((schema = pending.poll()) != null) {
+                            DatabaseMetadata result = new DatabaseMetadata();
+                            extractions.put(schema, extractPooledSchema(pool, databaseTag, instrumentation, schema,
+                                    filter, categories, result, checkpointKey, connectionFailures));
+                            results.put(schema, result);
                         }
+                    } finally {
+                        PipelineTrace.restore(previous);
                     }
+                }));
+            }
+            try {
+                for (Future<?> worker : workers) {
+                    worker.get();
                 }
-            } catch (SQLException e) {
-                // 记录错误但返回已提取的元数据
-                logger.error("获取表列表时发生错误: {}", e.getMessage());
-                if (logger.isDebugEnabled()) {
-                    logger.debug("详细错误信息", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("多模式提取被中断", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    // 如提取超时
+                    throw (RuntimeException) e.getCause();
                 }
+                throw new SQLException("多模式提取失败: " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                pending.clear();
+                workers.forEach(worker -> worker.cancel(true));
             }
             
+            List<SchemaExtraction> schemaExtractions = new ArrayList<>();
+            for (String schema : schemas) {
+                DatabaseMetadata result = results.get(schema);
+                schemaExtractions.add(extractions.get(schema));
+                result.getTables().forEach(metadata::addTable);
+                metadata.setCollapsedPartitions(metadata.getCollapsedPartitions() + result.getCollapsedPartitions());
+                metadata.setResumedTables(metadata.getResumedTables() + result.getResumedTables());
+                if (result.getTableFilter() != null) {
+                    if (metadata.getTableFilter() == null) {
+                        metadata.setTableFilter(result.getTableFilter());
+                    } else {
+                        metadata.getTableFilter().merge(result.getTableFilter());
+                    }
+                }
+            }
+            metadata.setSchemas(schemaExtractions);
+            return !schemas.isEmpty() && connectionFailures.size() == schemas.size();
+        } finally {
+            try {
+                pool.close();
+            } catch (Exception e) {
+                logger.warn("关闭连接池时发生错误: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 从连接池借一个连接提取单个模式，记录表数和耗时；因连接失败而失败的模式加入connectionFailures
+     */
+    private SchemaExtraction extractPooledSchema(DataSource pool, String databaseTag, JdbcInstrumentation instrumentation,
+                                                 String schema, TableNameFilter filter, Set<MetadataCategory> categories,
+                                                 DatabaseMetadata result, String checkpointKey,
+                                                 Set<String> connectionFailures) {
+        SchemaExtraction extraction = new SchemaExtraction();
+        extraction.setSchema(schema);
+        PipelineTrace.Span span = PipelineTrace.span("extract-schema", schema);
+        long start = System.nanoTime();
+        try (Connection connection = borrow(pool, databaseTag, instrumentation)) {
+            extractSchema(connection.getMetaData(), databaseTag, schema, filter, categories, result, checkpointKey);
         } catch (SQLException e) {
-            logger.error("连接数据库时发生错误: {}", e.getMessage());
+            logger.error("提取模式{}时发生错误: {}", schema, e.getMessage());
             if (logger.isDebugEnabled()) {
                 logger.debug("详细错误信息", e);
             }
-            throw new RuntimeException("提取数据库元数据失败", e);
+            extraction.setError(e.getMessage());
+            if (isTargetFailure(e)) {
+                connectionFailures.add(schema);
+            }
+        } finally {
+            span.stop(PipelineMetrics.timer(PipelineMetrics.DATABASE_SCHEMA_EXTRACT, "database", databaseTag));
+        }
+        extraction.setTableCount(result.getTables().size());
+        extraction.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("模式{}提取完成: {}张表，耗时{}ms", schema, extraction.getTableCount(), extraction.getElapsedMs());
+        return extraction;
+    }
+    
+    /**
+     * 按名称或LIKE模式（不区分大小写）从目录中选出要提取的模式，按模式名排序；
+     * 没有模式概念的数据库（如MySQL）按目录（库名）匹配
+     */
+    private List<String> resolveSchemas(DatabaseMetaData dbMetaData, List<String> patterns) throws SQLException {
+        TableNameFilter matcher = TableNameFilter.including(patterns);
+        Set<String> schemas = new TreeSet<>();
+        boolean listed = false;
+        try (ResultSet rs = dbMetaData.getSchemas()) {
+            while (rs.next()) {
+                listed = true;
+                String schema = rs.getString("TABLE_SCHEM");
+                if (matcher.matches(schema)) {
+                    schemas.add(schema);
+                }
+            }
+        }
+        if (!listed) {
+            try (ResultSet rs = dbMetaData.getCatalogs()) {
+                while (rs.next()) {
+                    String catalog = rs.getString("TABLE_CAT");
+                    if (matcher.matches(catalog)) {
+                        schemas.add(catalog);
+                    }
+                }
+            }
+        }
+        if (schemas.isEmpty()) {
+            logger.warn("没有与{}匹配的模式", patterns);
+        }
+        return new ArrayList<>(schemas);
+    }
+    
+    /**
+     * 多模式提取使用的连接池，连接由getConnection创建，提取结束后关闭
+     */
+    private PoolingDataSource<PoolableConnection> createPool(DatabaseConnectionConfig config, int maxTotal) {
+        PoolableConnectionFactory factory = new PoolableConnectionFactory(() -> getConnection(config), null);
+        GenericObjectPool<PoolableConnection> pool = new GenericObjectPool<>(factory);
+        pool.setMaxTotal(maxTotal);
+        pool.setMaxIdle(maxTotal);
+        factory.setPool(pool);
+        return new PoolingDataSource<>(pool);
+    }
+    
+    /**
+     * 从连接池借连接（借用耗时计入connect调用）
+     */
+    private Connection borrow(DataSource pool, String databaseTag, JdbcInstrumentation instrumentation)
+            throws SQLException {
+        Timer.Sample sample = PipelineMetrics.start();
+        try {
+            return instrumentation.wrap(pool.getConnection());
+        } finally {
+            sample.stop(callTimer(databaseTag, "connect"));
         }
-        
-        return metadata;
     }
     
     /**
@@ -93,28 +415,51 @@ public abstract class AbstractDatabaseMetadataExtractor implements DatabaseMetad
         metadata.setDatabaseType(config.getDatabaseType());
         metadata.setUsername(config.getUsername());
         metadata.setUrl(config.buildJdbcUrl());
+        Set<MetadataCategory> categories = config.resolveExtractionCategories();
+        metadata.setExtractionCategories(categories);
+        
+        String target = circuitTarget(config);
+        boolean trial = CatalogCircuitBreaker.acquire(target);
         
+        String databaseTag = PipelineMetrics.databaseTag(config.getDatabaseType());
+        ExtractionDeadline deadline = new ExtractionDeadline(config.getQueryTimeoutSeconds(),
+                config.getExtractionTimeoutSeconds());
+        JdbcInstrumentation instrumentation = new JdbcInstrumentation(databaseTag, config.getSlowQueryThresholdMs(),
+                deadline);
         Connection connection = null;
         try {
-            connection = getConnection(config);
+            connection = connect(config, databaseTag, instrumentation);
             DatabaseMetaData dbMetaData = connection.getMetaData();
             metadata.setDatabaseVersion(dbMetaData.getDatabaseProductVersion());
             
             // Get the specific table
             try {
-                TableMetadata tableMetadata = extractTableMetadata(dbMetaData, tableName, schema);
+                TableMetadata tableMetadata = extractTableMetadata(dbMetaData, databaseTag, tableName, schema, categories);
                 if (tableMetadata != null) {
                     metadata.addTable(tableMetadata);
                 }
             } catch (SQLException e) {
+                rethrowConnectionFailure(e);
                 logger.error("Error extracting metadata for table {}: {}", tableName, e.getMessage());
                 // Return metadata with empty tables list
             }
+            CatalogCircuitBreaker.recordSuccess(target);
             
         } catch (SQLException e) {
+            if (deadline.isExpired() || isTargetFailure(e)) {
+                CatalogCircuitBreaker.recordFailure(target);
+            }
+            if (deadline.isExpired()) {
+                throw timedOut(databaseTag, config);
+            }
             logger.error("Error connecting to database: {}", e.getMessage());
             throw new RuntimeException("Error extracting table metadata", e);
+        } catch (ExtractionTimeoutException e) {
+            CatalogCircuitBreaker.recordFailure(target);
+            throw timedOut(databaseTag, config);
         } finally {
+            deadline.close();
+            CatalogCircuitBreaker.release(target, trial);
             if (connection != null) {
                 try {
                     connection.close();
@@ -124,35 +469,77 @@ public abstract class AbstractDatabaseMetadataExtractor implements DatabaseMetad
             }
         }
         
+        attachJdbcStatistics(metadata, instrumentation);
         return metadata;
     }
     
     /**
      * Extract metadata for a table
+     * Every JDBC metadata call (including reading its result set) is timed under
+     * docgen.database.metadata.call, tagged by database type and call.
+     * Categories not in the extraction profile are skipped without any catalog call
      */
-    protected TableMetadata extractTableMetadata(DatabaseMetaData dbMetaData, String tableName, String schema) 
-            throws SQLException {
+    protected TableMetadata extractTableMetadata(DatabaseMetaData dbMetaData, String databaseTag, String tableName,
+                                                 String schema, Set<MetadataCategory> categories) throws SQLException {
         TableMetadata tableMetadata = new TableMetadata();
         tableMetadata.setTableName(tableName);
         tableMetadata.setSchema(schema);
         
         // Get table comment
-        try {
-            tableMetadata.setTableComment(getTableComment(dbMetaData, tableName, schema));
-        } catch (SQLException e) {
-            logger.warn("Error getting table comment for table {}: {}", tableName, e.getMessage());
+        Timer.Sample sample;
+        if (categories.contains(MetadataCategory.TABLE_COMMENT)) {
+            sample = PipelineMetrics.start();
+            try {
+                tableMetadata.setTableComment(getTableComment(dbMetaData, tableName, schema));
+            } catch (SQLException e) {
+                rethrowConnectionFailure(e);
+                logger.warn("Error getting table comment for table {}: {}", tableName, e.getMessage());
+            } finally {
+                recordCall(sample, databaseTag, "getTableComment", 1);
+            }
         }
         
         // Get table tablespace
-        try {
-            tableMetadata.setTableSpace(getTableSpace(dbMetaData, tableName, schema));
-        } catch (SQLException e) {
-            logger.warn("Error getting tablespace for table {}: {}", tableName, e.getMessage());
+        if (categories.contains(MetadataCategory.TABLESPACE)) {
+            sample = PipelineMetrics.start();
+            try {
+                tableMetadata.setTableSpace(getTableSpace(dbMetaData, tableName, schema));
+            } catch (SQLException e) {
+                rethrowConnectionFailure(e);
+                logger.warn("Error getting tablespace for table {}: {}", tableName, e.getMessage());
+            } finally {
+                recordCall(sample, databaseTag, "getTableSpace", 1);
+            }
+        }
+        
+        if (categories.contains(MetadataCategory.PRIMARY_KEYS)) {
+            extractPrimaryKeys(dbMetaData, databaseTag, tableMetadata);
+        }
+        if (categories.contains(MetadataCategory.INDEXES)) {
+            extractIndexes(dbMetaData, databaseTag, tableMetadata);
+        }
+        if (categories.contains(MetadataCategory.COLUMNS)) {
+            extractColumns(dbMetaData, databaseTag, tableMetadata, categories.contains(MetadataCategory.COLUMN_EXTRAS));
+        }
+        if (categories.contains(MetadataCategory.FOREIGN_KEYS)) {
+            extractForeignKeys(dbMetaData, databaseTag, tableMetadata);
         }
         
-        // Get primary keys
+        return tableMetadata;
+    }
+    
+    /**
+     * Get primary keys
+     */
+    private void extractPrimaryKeys(DatabaseMetaData dbMetaData, String databaseTag, TableMetadata tableMetadata)
+            throws SQLException {
+        String tableName = tableMetadata.getTableName();
+        String schema = tableMetadata.getSchema();
+        Timer.Sample sample = PipelineMetrics.start();
+        int rows = 0;
         try (ResultSet primaryKeys = dbMetaData.getPrimaryKeys(null, schema, tableName)) {
             while (primaryKeys.next()) {
+                rows++;
                 try {
                     String columnName = primaryKeys.getString("COLUMN_NAME");
                     tableMetadata.addPrimaryKey(columnName);
@@ -162,14 +549,27 @@ public abstract class AbstractDatabaseMetadataExtractor implements DatabaseMetad
                 }
             }
         } catch (SQLException e) {
+            rethrowConnectionFailure(e);
             // Log error but continue with other metadata
             logger.warn("Error getting primary keys for table {}: {}", tableName, e.getMessage());
+        } finally {
+            recordCall(sample, databaseTag, "getPrimaryKeys", rows);
         }
-        
-        // Get indexes
-        Map<String, IndexMetadata> indexMap = new HashMap<>();
+    }
+    
+    /**
+     * Get indexes
+     */
+    private void extractIndexes(DatabaseMetaData dbMetaData, String databaseTag, TableMetadata tableMetadata)
+            throws SQLException {
+        String tableName = tableMetadata.getTableName();
+        String schema = tableMetadata.getSchema();
+        Map<String, IndexMetadata> indexMap = new LinkedHashMap<>();
+        Timer.Sample sample = PipelineMetrics.start();
+        int rows = 0;
         try (ResultSet indexes = dbMetaData.getIndexInfo(null, schema, tableName, false, false)) {
             while (indexes.next()) {
+                rows++;
                 try {
                     String indexName = indexes.getString("INDEX_NAME");
                     if (indexName == null) {
@@ -196,18 +596,31 @@ public abstract class AbstractDatabaseMetadataExtractor implements DatabaseMetad
                 }
             }
         } catch (SQLException e) {
+            rethrowConnectionFailure(e);
             // Log error but continue with other metadata
             logger.warn("Error getting indexes for table {}: {}", tableName, e.getMessage());
+        } finally {
+            recordCall(sample, databaseTag, "getIndexInfo", rows);
         }
         
         // Add all indexes to table metadata
         for (IndexMetadata index : indexMap.values()) {
             tableMetadata.addIndex(index);
         }
-        
-        // Get columns
+    }
+    
+    /**
+     * Get columns (the getColumns time includes the database specific extraColumnMetadata calls)
+     */
+    private void extractColumns(DatabaseMetaData dbMetaData, String databaseTag, TableMetadata tableMetadata,
+                                boolean extras) throws SQLException {
+        String tableName = tableMetadata.getTableName();
+        String schema = tableMetadata.getSchema();
+        Timer.Sample sample = PipelineMetrics.start();
+        int rows = 0;
         try (ResultSet columns = dbMetaData.getColumns(null, schema, tableName, null)) {
             while (columns.next()) {
+                rows++;
                 try {
                     ColumnMetadata columnMetadata = new ColumnMetadata();
                     
@@ -221,43 +634,61 @@ public abstract class AbstractDatabaseMetadataExtractor implements DatabaseMetad
                     columnMetadata.setColumnComment(columns.getString("REMARKS"));
                     
                     // Check if this column is a primary key
-                    columnMetadata.setPrimaryKey(tableMetadata.getPrimaryKeys().contains(columnMetadata.getColumnName()));
+                    columnMetadata.setPrimaryKey(tableMetadata.isPrimaryKey(columnMetadata.getColumnName()));
                     
                     // Get extra column attributes specific to database type
-                    try {
-                        extractExtraColumnMetadata(dbMetaData, columnMetadata, tableName, schema);
-                    } catch (SQLException e) {
-                        // Log error but continue with standard metadata
-                        logger.warn("Error extracting extra column metadata for column {}: {}", columnMetadata.getColumnName(), e.getMessage());
+                    if (extras) {
+                        Timer.Sample extraSample = PipelineMetrics.start();
+                        try {
+                            extractExtraColumnMetadata(dbMetaData, columnMetadata, tableName, schema);
+                        } catch (SQLException e) {
+                            rethrowConnectionFailure(e);
+                            // Log error but continue with standard metadata
+                            logger.warn("Error extracting extra column metadata for column {}: {}", columnMetadata.getColumnName(), e.getMessage());
+                        } finally {
+                            extraSample.stop(callTimer(databaseTag, "extraColumnMetadata"));
+                        }
                     }
                     
                     tableMetadata.addColumn(columnMetadata);
                 } catch (SQLException e) {
+                    rethrowConnectionFailure(e);
                     // Log error but continue with next column
                     logger.warn("Error processing column information: {}", e.getMessage());
                 }
             }
         } catch (SQLException e) {
+            rethrowConnectionFailure(e);
             // Log error but continue with other metadata
             logger.warn("Error getting columns for table {}: {}", tableName, e.getMessage());
+        } finally {
+            recordCall(sample, databaseTag, "getColumns", rows);
         }
-        
-        // Get foreign keys
+    }
+    
+    /**
+     * Get foreign keys
+     */
+    private void extractForeignKeys(DatabaseMetaData dbMetaData, String databaseTag, TableMetadata tableMetadata)
+            throws SQLException {
+        String tableName = tableMetadata.getTableName();
+        String schema = tableMetadata.getSchema();
+        Timer.Sample sample = PipelineMetrics.start();
+        int rows = 0;
         try (ResultSet foreignKeys = dbMetaData.getImportedKeys(null, schema, tableName)) {
             while (foreignKeys.next()) {
+                rows++;
                 try {
                     String columnName = foreignKeys.getString("FKCOLUMN_NAME");
                     String refTableName = foreignKeys.getString("PKTABLE_NAME");
                     String refColumnName = foreignKeys.getString("PKCOLUMN_NAME");
                     
                     // Update column metadata for this foreign key
-                    for (ColumnMetadata column : tableMetadata.getColumns()) {
-                        if (column.getColumnName().equals(columnName)) {
-                            column.setForeignKey(true);
-                            column.setForeignKeyTable(refTableName);
-                            column.setForeignKeyColumn(refColumnName);
-                            break;
-                        }
+                    ColumnMetadata column = tableMetadata.getColumn(columnName);
+                    if (column != null) {
+                        column.setForeignKey(true);
+                        column.setForeignKeyTable(refTableName);
+                        column.setForeignKeyColumn(refColumnName);
                     }
                 } catch (SQLException e) {
                     // Log error but continue with next foreign key
@@ -265,11 +696,45 @@ public abstract class AbstractDatabaseMetadataExtractor implements DatabaseMetad
                 }
             }
         } catch (SQLException e) {
+            rethrowConnectionFailure(e);
             // Log error but continue with other metadata
             logger.warn("Error getting foreign keys for table {}: {}", tableName, e.getMessage());
+        } finally {
+            recordCall(sample, databaseTag, "getImportedKeys", rows);
         }
-        
-        return tableMetadata;
+    }
+    
+    /**
+     * Open a connection, timed as the connect call and wrapped so that every JDBC round trip is counted
+     */
+    private Connection connect(DatabaseConnectionConfig config, String databaseTag,
+                               JdbcInstrumentation instrumentation) throws SQLException {
+        Timer.Sample sample = PipelineMetrics.start();
+        try {
+            return instrumentation.wrap(getConnection(config));
+        } finally {
+            sample.stop(callTimer(databaseTag, "connect"));
+        }
+    }
+    
+    /**
+     * 将JDBC往返统计附加到提取结果，并记录汇总日志
+     */
+    private void attachJdbcStatistics(DatabaseMetadata metadata, JdbcInstrumentation instrumentation) {
+        JdbcStatistics statistics = instrumentation.summary();
+        metadata.setJdbcStatistics(statistics);
+        logger.info("元数据提取完成: {}张表，JDBC往返{}次，读取{}行，耗时{}ms，慢查询{}次",
+                metadata.getTables().size(), statistics.getTotalCalls(), statistics.getTotalRows(),
+                String.format("%.1f", statistics.getTotalTimeMs()), statistics.getSlowCalls());
+    }
+    
+    private void recordCall(Timer.Sample sample, String databaseTag, String call, int rows) {
+        sample.stop(callTimer(databaseTag, call));
+        PipelineMetrics.counter(PipelineMetrics.DATABASE_METADATA_ROWS, "database", databaseTag, "call", call).increment(rows);
+    }
+    
+    private Timer callTimer(String databaseTag, String call) {
+        return PipelineMetrics.timer(PipelineMetrics.DATABASE_METADATA_CALL, "database", databaseTag, "call", call);
     }
     
     /**
@@ -277,7 +742,23 @@ public abstract class AbstractDatabaseMetadataExtractor implements DatabaseMetad
      */
     protected Connection getConnection(DatabaseConnectionConfig config) throws SQLException {
         String url = config.buildJdbcUrl();
-        return DriverManager.getConnection(url, config.getUsername(), config.getPassword());
+        Properties properties = new Properties();
+        if (config.getUsername() != null) {
+            properties.setProperty("user", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            properties.setProperty("password", config.getPassword());
+        }
+        if (config.getLoginTimeoutSeconds() > 0) {
+            setLoginTimeout(properties, config.getLoginTimeoutSeconds());
+        }
+        return DriverManager.getConnection(url, properties);
+    }
+    
+    /**
+     * 设置登录（建立连接）超时的驱动参数；默认不设置，DriverManager.setLoginTimeout是全局的，不在这里修改
+     */
+    protected void setLoginTimeout(Properties properties, int seconds) {
     }
     
     /**
@@ -287,6 +768,201 @@ public abstract class AbstractDatabaseMetadataExtractor implements DatabaseMetad
         return dbMetaData.getTables(null, schema, null, new String[]{"TABLE"});
     }
     
+    /**
+     * 按表名过滤条件下推的表列表
+     * 在getTablesQuery外层加上LIKE条件并按表名排序，语句随结果集关闭
+     */
+    protected ResultSet getTables(DatabaseMetaData dbMetaData, String schema, TableNameFilter filter) throws SQLException {
+        List<String> params = new ArrayList<>();
+        params.add(getCatalogSchema(dbMetaData, schema));
+        String sql = "SELECT TABLE_NAME, TABLE_SCHEM FROM (" + getTablesQuery() + ") t WHERE 1 = 1"
+                + filter.sqlCondition("TABLE_NAME", params) + " ORDER BY TABLE_NAME";
+        PreparedStatement stmt = dbMetaData.getConnection().prepareStatement(sql);
+        try {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setString(i + 1, params.get(i));
+            }
+            stmt.closeOnCompletion();
+            return stmt.executeQuery();
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * 列出模式下所有表的目录查询，结果包含TABLE_NAME和TABLE_SCHEM列，唯一的参数为模式名；
+     * 返回null表示不支持将表名过滤下推到目录查询（只在客户端过滤）
+     */
+    protected String getTablesQuery() {
+        return null;
+    }
+    
+    /**
+     * 模式指纹，表结构变更后应当改变，用于判断检查点是否仍然有效；只在启用检查点时计算。
+     * 默认为表列表（表名）的摘要，只能发现表的增删：列的增删改不会改变指纹，恢复时可能得到过时的列信息。
+     * 具体数据库可以用DDL时间等更灵敏的目录信息覆盖
+     */
+    protected String getSchemaFingerprint(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        List<String> tableNames = new ArrayList<>();
+        try (ResultSet tables = getTables(dbMetaData, schema)) {
+            while (tables.next()) {
+                tableNames.add(tables.getString("TABLE_NAME"));
+            }
+        }
+        Collections.sort(tableNames);
+        return ExtractionCheckpoint.sha256(String.join(",", tableNames));
+    }
+    
+    /**
+     * 执行返回一行的指纹查询，各列拼接为指纹；查询中的参数（?）都是模式名，查询文本中不能有其他问号
+     */
+    protected String querySchemaFingerprint(DatabaseMetaData dbMetaData, String sql, String schema)
+            throws SQLException {
+        String catalogSchema = getCatalogSchema(dbMetaData, schema);
+        try (PreparedStatement stmt = dbMetaData.getConnection().prepareStatement(sql)) {
+            // 按占位符计数（部分驱动的getParameterMetaData需要额外的连接参数）
+            int parameters = sql.length() - sql.replace("?", "").length();
+            for (int i = 1; i <= parameters; i++) {
+                stmt.setString(i, catalogSchema);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                StringBuilder fingerprint = new StringBuilder();
+                if (rs.next()) {
+                    for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                        fingerprint.append(i > 1 ? ":" : "").append(rs.getString(i));
+                    }
+                }
+                return fingerprint.toString();
+            }
+        }
+    }
+    
+    /**
+     * 打开模式的检查点，指纹无法获取时不做检查点
+     */
+    private ExtractionCheckpoint openCheckpoint(DatabaseMetaData dbMetaData, String schema, String checkpointKey) {
+        if (!ExtractionCheckpoint.isEnabled()) {
+            return null;
+        }
+        String fingerprint;
+        try {
+            fingerprint = getClass().getName() + ":" + getSchemaFingerprint(dbMetaData, schema);
+        } catch (SQLException e) {
+            logger.warn("计算模式指纹时发生错误，本次不做检查点: {}", e.getMessage());
+            return null;
+        }
+        return ExtractionCheckpoint.open(checkpointKey + "|" + schema, fingerprint);
+    }
+    
+    /**
+     * 检查点的标识：连接、用户、提取类别和表名过滤条件（模式在打开检查点时加入）
+     */
+    private static String checkpointKey(DatabaseConnectionConfig config, Set<MetadataCategory> categories) {
+        return config.buildJdbcUrl() + "|" + config.getUsername() + "|" + new TreeSet<>(categories)
+                + "|" + config.getIncludeTables() + "|" + config.getExcludeTables()
+                + "|" + config.getIncludeTableRegex() + "|" + config.getExcludeTableRegex();
+    }
+    
+    /**
+     * 是否为连接级的错误（连接断开、会话被终止等），此时继续提取只会得到空结果
+     */
+    private static boolean isConnectionFailure(SQLException e) {
+        if (e instanceof SQLRecoverableException || e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLTransientConnectionException) {
+            return true;
+        }
+        // SQLSTATE 08xxx: connection exception
+        return e.getSQLState() != null && e.getSQLState().startsWith("08");
+    }
+    
+    /**
+     * 是否计为熔断器的一次失败：错误链中有连接级的错误（连接失败、连接中断）。
+     * 认证失败（SQLSTATE 28xxx）以及语法、权限等查询错误与目标是否可用无关，不计入；
+     * 连接池会把驱动的连接错误包装为没有SQLSTATE的SQLException，因此沿错误链查找
+     */
+    static boolean isTargetFailure(SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (!(cause instanceof SQLException)) {
+                continue;
+            }
+            SQLException sqlException = (SQLException) cause;
+            String sqlState = sqlException.getSQLState();
+            if (sqlException instanceof SQLInvalidAuthorizationSpecException
+                    || (sqlState != null && sqlState.startsWith("28"))) {
+                return false;
+            }
+            if (isConnectionFailure(sqlException)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static void rethrowConnectionFailure(SQLException e) throws SQLException {
+        if (isConnectionFailure(e)) {
+            throw e;
+        }
+    }
+    
+    /**
+     * 识别模式下的分区，返回分区到分区表的布局；默认不识别分区
+     * 只在模式级别查询一次，不为每张表单独查询
+     */
+    protected PartitionLayout getPartitionLayout(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        return PartitionLayout.NONE;
+    }
+    
+    /**
+     * 识别分区失败（权限不足、版本不支持等）时退回到逐表提取
+     */
+    private PartitionLayout partitionLayout(DatabaseMetaData dbMetaData, String schema) {
+        try {
+            return getPartitionLayout(dbMetaData, schema);
+        } catch (SQLException e) {
+            logger.warn("识别分区时发生错误，分区将作为普通表提取: {}", e.getMessage());
+            return PartitionLayout.NONE;
+        }
+    }
+    
+    /**
+     * 目录查询使用的模式名（未指定模式时的默认模式由具体数据库决定）
+     */
+    protected String getCatalogSchema(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        return schema;
+    }
+    
+    /**
+     * 汇总表名过滤结果；下推时用一次计数查询得到模式下的表总数，推算目录查询过滤掉的表数
+     */
+    private TableFilterStatistics tableFilterStatistics(DatabaseMetaData dbMetaData, String schema, boolean pushDown,
+                                                        int tableRows, int skippedByClient, int matchedTables) {
+        TableFilterStatistics statistics = new TableFilterStatistics();
+        statistics.setPushedDown(pushDown);
+        statistics.setMatchedTables(matchedTables);
+        statistics.setSkippedByClient(skippedByClient);
+        if (!pushDown) {
+            statistics.setTotalTables(tableRows);
+        } else {
+            try (PreparedStatement stmt = dbMetaData.getConnection().prepareStatement(
+                    "SELECT COUNT(*) FROM (" + getTablesQuery() + ") t")) {
+                stmt.setString(1, getCatalogSchema(dbMetaData, schema));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        statistics.setTotalTables(rs.getInt(1));
+                        statistics.setSkippedByCatalog(Math.max(0, rs.getInt(1) - tableRows));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.warn("统计表总数时发生错误: {}", e.getMessage());
+            }
+        }
+        logger.info("表名过滤: 共{}张表，提取{}张，目录查询跳过{}张，客户端跳过{}张",
+                statistics.getTotalTables() != null ? statistics.getTotalTables() : "?", matchedTables,
+                statistics.getSkippedByCatalog(), skippedByClient);
+        return statistics;
+    }
+    
     /**
      * Get table comment (to be implemented by database-specific extractors)
      */
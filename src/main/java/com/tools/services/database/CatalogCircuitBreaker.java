@@ -0,0 +1,167 @@
+package com.tools.services.database;
+
+import com.tools.metrics.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 按目标数据库（JDBC URL和用户）的熔断器
+ * 连续失败（连接失败、连接中断、提取超时）达到阈值后打开，打开期间的提取直接失败；
+ * 打开时间过后进入半开状态，只放行一次试探提取，成功则关闭，失败则重新打开。
+ * 认证失败、表结构查询出错等与目标是否可用无关的错误不计入失败。
+ * 只为发生过失败的目标保存状态，关闭后即移除；目标中的密码已屏蔽，保存和日志中都不含凭据
+ */
+public final class CatalogCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCircuitBreaker.class);
+
+    private static final Map<String, Circuit> CIRCUITS = new ConcurrentHashMap<>();
+
+    /** URL参数中的密码，如 ;password=xxx、?pwd=xxx */
+    private static final Pattern PASSWORD_PARAMETER = Pattern.compile("(?i)((?:password|passwd|pwd)\\s*=)[^;&]*");
+
+    /** URL中的用户信息，如 //user:secret@host、Oracle的 :thin:user/secret@host */
+    private static final Pattern USER_INFO = Pattern.compile("(//[^/@:;?]*:|:thin:[^/@:]*/)[^@/]*@");
+
+    private static volatile boolean enabled = true;
+    private static volatile int failureThreshold = 3;
+    private static volatile long openNanos = TimeUnit.SECONDS.toNanos(60);
+
+    private CatalogCircuitBreaker() {
+    }
+
+    /**
+     * 设置是否启用、打开熔断器的连续失败次数和打开时间
+     */
+    public static void configure(boolean enabled, int failureThreshold, long openSeconds) {
+        CatalogCircuitBreaker.enabled = enabled;
+        CatalogCircuitBreaker.failureThreshold = Math.max(1, failureThreshold);
+        CatalogCircuitBreaker.openNanos = TimeUnit.SECONDS.toNanos(Math.max(1, openSeconds));
+    }
+
+    /**
+     * 熔断器的目标：屏蔽密码后的JDBC URL和用户，同一数据库上不同用户的失败互不影响
+     */
+    public static String target(String jdbcUrl, String username) {
+        return maskCredentials(jdbcUrl) + "|" + username;
+    }
+
+    /**
+     * 屏蔽JDBC URL中的密码（URL参数和用户信息两种写法）
+     */
+    static String maskCredentials(String jdbcUrl) {
+        if (jdbcUrl == null) {
+            return null;
+        }
+        String masked = PASSWORD_PARAMETER.matcher(jdbcUrl).replaceAll("$1***");
+        return USER_INFO.matcher(masked).replaceAll("$1***@");
+    }
+
+    /**
+     * 提取前检查目标是否可用；没有失败记录的目标没有状态，直接放行
+     *
+     * @return 本次提取是否为半开状态下的试探提取，结束时传给{@link #release}
+     * @throws CircuitOpenException 熔断器打开，或半开状态下已有试探提取在进行
+     */
+    public static boolean acquire(String target) {
+        if (!enabled) {
+            return false;
+        }
+        Circuit circuit = CIRCUITS.get(target);
+        return circuit != null && circuit.acquire(target);
+    }
+
+    /**
+     * 提取成功，关闭并移除熔断器
+     */
+    public static void recordSuccess(String target) {
+        CIRCUITS.computeIfPresent(target, (key, circuit) -> {
+            circuit.success(target);
+            return null;
+        });
+    }
+
+    /**
+     * 提取因连接或超时失败
+     */
+    public static void recordFailure(String target) {
+        if (enabled) {
+            CIRCUITS.compute(target, (key, circuit) -> {
+                Circuit failed = circuit != null ? circuit : new Circuit();
+                failed.failure(target);
+                return failed;
+            });
+        }
+    }
+
+    /**
+     * 保存状态的目标数
+     */
+    static int size() {
+        return CIRCUITS.size();
+    }
+
+    /**
+     * 提取结束（成功、失败或其他错误）时释放半开状态的试探名额，避免试探因其他错误结束后熔断器一直拒绝
+     *
+     * @param trial acquire的返回值
+     */
+    public static void release(String target, boolean trial) {
+        Circuit circuit = CIRCUITS.get(target);
+        if (trial && circuit != null) {
+            circuit.release();
+        }
+    }
+
+    private static final class Circuit {
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean open;
+        private boolean trialInProgress;
+
+        synchronized boolean acquire(String target) {
+            if (!open) {
+                return false;
+            }
+            long remaining = openedAt + openNanos - System.nanoTime();
+            if (remaining > 0 || trialInProgress) {
+                PipelineMetrics.counter(PipelineMetrics.DATABASE_CIRCUIT_REJECTED).increment();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(Math.max(0, remaining)) + 1);
+                throw new CircuitOpenException(retryAfter);
+            }
+            // 半开：放行这一次提取作为试探
+            trialInProgress = true;
+            logger.info("熔断器半开，试探提取: {}", target);
+            return true;
+        }
+
+        synchronized void release() {
+            trialInProgress = false;
+        }
+
+        synchronized void success(String target) {
+            if (open) {
+                logger.info("试探提取成功，熔断器关闭: {}", target);
+            }
+            open = false;
+            trialInProgress = false;
+            consecutiveFailures = 0;
+        }
+
+        synchronized void failure(String target) {
+            consecutiveFailures++;
+            if (trialInProgress || (!open && consecutiveFailures >= failureThreshold)) {
+                open = true;
+                trialInProgress = false;
+                openedAt = System.nanoTime();
+                logger.warn("连续{}次提取失败，熔断器打开{}秒: {}", consecutiveFailures,
+                        TimeUnit.NANOSECONDS.toSeconds(openNanos), target);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.tools.services.database;
+
+/**
+ * 目标数据库的熔断器处于打开状态，提取直接失败，不占用连接和线程（接口层映射为503和Retry-After）。
+ * 消息可能返回给客户端，JDBC URL中可能带有凭据，因此不包含目标
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CircuitOpenException(long retryAfterSeconds) {
+        super("目标数据库连续提取失败，已暂停访问，请" + retryAfterSeconds + "秒后重试");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * 熔断器进入半开状态前的秒数，用作Retry-After
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
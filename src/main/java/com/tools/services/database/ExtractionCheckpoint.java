@@ -0,0 +1,251 @@
+package com.tools.services.database;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tools.model.database.TableMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 元数据提取的检查点
+ * 每个提取（连接、用户、模式、提取类别和表名过滤条件相同视为同一提取）对应检查点目录下的一个JSON Lines文件：
+ * 第一行为模式指纹，之后每行一张已完成的表，每张表提取完成后追加并刷新。
+ * 提取中途失败时文件保留，重试时指纹一致则已完成的表直接从文件读取，只提取剩余的表；
+ * 指纹变化（表结构有变更）时丢弃旧检查点重新提取。提取成功后删除文件。
+ * 同一检查点同时只允许一个提取使用，其他并发的相同提取不做检查点。
+ * 默认不启用：检查点以明文保存表结构，且每次提取多一次指纹查询；
+ * 目录和文件在支持POSIX权限的系统上只对当前用户可读写
+ */
+public final class ExtractionCheckpoint implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionCheckpoint.class);
+
+    /** 只读视图（如getColumnNamesUnmodifiable）只写出不读回 */
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(MapperFeature.USE_GETTERS_AS_SETTERS, false)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /** 正在使用的检查点文件 */
+    private static final Set<Path> OPEN = ConcurrentHashMap.newKeySet();
+
+    private static final String OWNER_ONLY_DIRECTORY = "rwx------";
+    private static final String OWNER_ONLY_FILE = "rw-------";
+
+    private static volatile boolean enabled = false;
+    private static volatile Path directory = Paths.get(System.getProperty("user.home"), ".tips", "checkpoints");
+
+    private final Path file;
+    private final Map<String, TableMetadata> completed;
+    private final BufferedWriter writer;
+    private int resumedTables;
+
+    private ExtractionCheckpoint(Path file, Map<String, TableMetadata> completed, BufferedWriter writer) {
+        this.file = file;
+        this.completed = completed;
+        this.writer = writer;
+    }
+
+    /**
+     * 设置是否启用检查点以及检查点目录
+     */
+    public static void configure(boolean enabled, String directory) {
+        ExtractionCheckpoint.enabled = enabled;
+        if (directory != null && !directory.trim().isEmpty()) {
+            ExtractionCheckpoint.directory = Paths.get(directory.trim());
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 打开检查点：指纹一致时载入已完成的表，否则重新开始
+     *
+     * @param key         提取的标识
+     * @param fingerprint 模式指纹
+     * @return 检查点；未启用、同一检查点正被其他提取使用或无法写入时返回null（不做检查点）
+     */
+    public static ExtractionCheckpoint open(String key, String fingerprint) {
+        if (!enabled) {
+            return null;
+        }
+        Path file = directory.resolve(sha256(key) + ".jsonl");
+        if (!OPEN.add(file)) {
+            logger.info("相同的提取正在进行，本次不做检查点");
+            return null;
+        }
+        try {
+            createPrivateDirectory(directory);
+            Map<String, TableMetadata> completed = load(file, fingerprint);
+            BufferedWriter writer;
+            if (completed == null) {
+                completed = new HashMap<>();
+                Files.deleteIfExists(file);
+                Files.createFile(file, ownerOnly(file, OWNER_ONLY_FILE));
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+                writer.write(MAPPER.writeValueAsString(fingerprint));
+                writer.newLine();
+                writer.flush();
+            } else {
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+                logger.info("从检查点恢复提取: 已完成{}张表", completed.size());
+            }
+            return new ExtractionCheckpoint(file, completed, writer);
+        } catch (IOException e) {
+            OPEN.remove(file);
+            logger.warn("无法打开检查点，本次不做检查点: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 创建检查点目录；由本进程新建的各级目录只对当前用户开放
+     */
+    private static void createPrivateDirectory(Path dir) throws IOException {
+        if (Files.isDirectory(dir)) {
+            return;
+        }
+        Path parent = dir.toAbsolutePath().getParent();
+        if (parent != null) {
+            createPrivateDirectory(parent);
+        }
+        try {
+            Files.createDirectory(dir, ownerOnly(dir, OWNER_ONLY_DIRECTORY));
+        } catch (FileAlreadyExistsException e) {
+            // 并发的提取已经创建
+        }
+    }
+
+    /**
+     * 只对当前用户开放的POSIX权限，文件系统不支持POSIX权限时按默认权限创建
+     */
+    private static FileAttribute<?>[] ownerOnly(Path path, String permissions) {
+        if (!path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions))};
+    }
+
+    /**
+     * 读取检查点文件，文件不存在或指纹不一致时返回null；最后一行不完整（写入时中断）时忽略该行
+     */
+    private static Map<String, TableMetadata> load(Path file, String fingerprint) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Map<String, TableMetadata> completed = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !fingerprint.equals(MAPPER.readValue(header, String.class))) {
+                logger.info("模式指纹已变化，丢弃检查点");
+                return null;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    TableMetadata table = MAPPER.readValue(line, TableMetadata.class);
+                    completed.put(table.getTableName(), table);
+                } catch (IOException e) {
+                    logger.warn("忽略检查点中不完整的记录: {}", e.getMessage());
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("检查点无法读取，重新提取: {}", e.getMessage());
+            return null;
+        }
+        return completed;
+    }
+
+    /**
+     * 检查点中已完成的表，没有时返回null
+     */
+    public TableMetadata completed(String tableName) {
+        TableMetadata table = completed.get(tableName);
+        if (table != null) {
+            resumedTables++;
+        }
+        return table;
+    }
+
+    /**
+     * 记录一张已完成的表
+     */
+    public void save(TableMetadata table) {
+        try {
+            writer.write(MAPPER.writeValueAsString(table));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            // 检查点只影响重试，写入失败不中断提取
+            logger.warn("写入检查点失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从检查点恢复的表数
+     */
+    public int getResumedTables() {
+        return resumedTables;
+    }
+
+    /**
+     * 提取成功完成，删除检查点
+     */
+    public void complete() {
+        close();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("删除检查点失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 关闭检查点，文件保留供重试使用
+     */
+    @Override
+    public void close() {
+        if (OPEN.remove(file)) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("关闭检查点失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest(value.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.tools.services.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次元数据提取的时限
+ * <ul>
+ *     <li>单次查询：每个语句设置查询超时；DatabaseMetaData调用没有超时参数，由连接的网络超时
+ *     （查询超时加宽限时间）兜底，卡住的目录查询最终以连接错误结束</li>
+ *     <li>整体：到期时取消所有进行中的语句并中止提取使用的连接，之后的JDBC调用直接抛出{@link ExtractionTimeoutException}</li>
+ * </ul>
+ * 由JdbcInstrumentation在包装连接和执行语句时调用，可被多个线程共用
+ */
+public final class ExtractionDeadline implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionDeadline.class);
+
+    /** 网络超时比查询超时多出的宽限，让语句超时先在服务端取消 */
+    private static final int NETWORK_TIMEOUT_GRACE_SECONDS = 10;
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "extraction-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** 驱动处理网络超时和中止连接的线程 */
+    private static final Executor ABORT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "extraction-abort");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int queryTimeoutSeconds;
+    private final long extractionTimeoutSeconds;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Set<Statement> inFlight = ConcurrentHashMap.newKeySet();
+    private final ScheduledFuture<?> expiry;
+    private volatile boolean expired;
+
+    /**
+     * @param queryTimeoutSeconds      单次查询超时（秒），不大于0表示不限制
+     * @param extractionTimeoutSeconds 整体时限（秒），不大于0表示不限制
+     */
+    public ExtractionDeadline(int queryTimeoutSeconds, long extractionTimeoutSeconds) {
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.extractionTimeoutSeconds = extractionTimeoutSeconds;
+        this.expiry = extractionTimeoutSeconds > 0
+                ? TIMER.schedule(this::expire, extractionTimeoutSeconds, TimeUnit.SECONDS) : null;
+    }
+
+    /**
+     * 登记提取使用的连接并设置网络超时
+     */
+    void register(Connection connection) {
+        connections.add(connection);
+        if (queryTimeoutSeconds > 0) {
+            try {
+                connection.setNetworkTimeout(ABORT_EXECUTOR,
+                        (int) TimeUnit.SECONDS.toMillis(queryTimeoutSeconds + NETWORK_TIMEOUT_GRACE_SECONDS));
+            } catch (SQLException | AbstractMethodError | UnsupportedOperationException e) {
+                logger.debug("驱动不支持网络超时: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 连接关闭（归还连接池）后不再中止它
+     */
+    void unregister(Connection connection) {
+        connections.remove(connection);
+    }
+
+    /**
+     * 为新建的语句设置查询超时
+     */
+    void applyQueryTimeout(Statement statement) throws SQLException {
+        if (queryTimeoutSeconds > 0) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+        }
+    }
+
+    /**
+     * 每次JDBC往返之前检查整体时限
+     *
+     * @throws ExtractionTimeoutException 已超过时限
+     */
+    void check() {
+        if (expired) {
+            throw new ExtractionTimeoutException(extractionTimeoutSeconds);
+        }
+    }
+
+    void started(Statement statement) {
+        inFlight.add(statement);
+    }
+
+    void finished(Statement statement) {
+        inFlight.remove(statement);
+    }
+
+    public boolean isExpired() {
+        return expired;
+    }
+
+    private void expire() {
+        expired = true;
+        logger.warn("元数据提取超过{}秒的时限，取消{}个进行中的语句并中止{}个连接",
+                extractionTimeoutSeconds, inFlight.size(), connections.size());
+        for (Statement statement : inFlight) {
+            try {
+                statement.cancel();
+            } catch (SQLException | RuntimeException e) {
+                logger.debug("取消语句失败: {}", e.getMessage());
+            }
+        }
+        for (Connection connection : connections) {
+            try {
+                connection.abort(ABORT_EXECUTOR);
+            } catch (SQLException | AbstractMethodError | UnsupportedOperationException e) {
+                try {
+                    connection.close();
+                } catch (SQLException ex) {
+                    logger.debug("关闭连接失败: {}", ex.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (expiry != null) {
+            expiry.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.tools.services.database;
+
+/**
+ * 元数据提取超过整体时限（接口层映射为504），进行中的语句已取消、连接已中止；已完成的表保留在检查点中，重试时继续
+ */
+public class ExtractionTimeoutException extends RuntimeException {
+
+    public ExtractionTimeoutException(long timeoutSeconds) {
+        super("元数据提取超过" + timeoutSeconds + "秒的时限");
+    }
+}
@@ -0,0 +1,336 @@
+package com.tools.services.database;
+
+import com.tools.metrics.PipelineMetrics;
+import com.tools.model.database.JdbcCallStatistics;
+import com.tools.model.database.JdbcStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC往返统计
+ * 包装提取使用的Connection，以及由它得到的DatabaseMetaData、Statement/PreparedStatement和ResultSet。
+ * 每次元数据调用（返回结果集的DatabaseMetaData方法）和语句执行算一次往返，耗时包括读取结果集，
+ * 在结果集读完或关闭时结算：
+ * <ul>
+ *     <li>按方法名（元数据调用）或SQL文本（语句）汇总次数、行数和耗时，提取结束后由{@link #summary()}输出</li>
+ *     <li>记录docgen.database.jdbc.*指标，按database和operation（JDBC方法名）区分</li>
+ *     <li>超过慢查询阈值的往返记录警告日志，包含调用参数或SQL</li>
+ * </ul>
+ * 设置了{@link ExtractionDeadline}时，新建的语句带查询超时，每次往返之前检查整体时限，进行中的语句和连接在到期时被取消。
+ * 每次提取创建一个实例，可被多个线程共用
+ */
+public final class JdbcInstrumentation {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcInstrumentation.class);
+
+    private final String databaseTag;
+    private final long slowQueryThresholdMs;
+    private final long slowQueryThresholdNanos;
+    private final Map<String, CallStatistics> statistics = new ConcurrentHashMap<>();
+    private final ExtractionDeadline deadline;
+
+    /**
+     * @param databaseTag          指标的database标签值
+     * @param slowQueryThresholdMs 慢查询阈值（毫秒），不大于0时不记录慢查询
+     */
+    public JdbcInstrumentation(String databaseTag, long slowQueryThresholdMs) {
+        this(databaseTag, slowQueryThresholdMs, null);
+    }
+
+    /**
+     * @param databaseTag          指标的database标签值
+     * @param slowQueryThresholdMs 慢查询阈值（毫秒），不大于0时不记录慢查询
+     * @param deadline             提取的时限，为空表示不限制
+     */
+    public JdbcInstrumentation(String databaseTag, long slowQueryThresholdMs, ExtractionDeadline deadline) {
+        this.deadline = deadline;
+        this.databaseTag = databaseTag;
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+        this.slowQueryThresholdNanos = slowQueryThresholdMs > 0
+                ? TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMs) : Long.MAX_VALUE;
+    }
+
+    /**
+     * 包装连接，通过返回的连接进行的JDBC往返都会被统计
+     */
+    public Connection wrap(Connection connection) {
+        if (deadline != null) {
+            deadline.register(connection);
+        }
+        ConnectionHandler handler = new ConnectionHandler(connection);
+        handler.proxy = (Connection) Proxy.newProxyInstance(JdbcInstrumentation.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> handler.invoke(method, args));
+        return handler.proxy;
+    }
+
+    /**
+     * 当前的统计汇总，各方法/查询按总耗时降序
+     */
+    public JdbcStatistics summary() {
+        JdbcStatistics summary = new JdbcStatistics();
+        summary.setSlowQueryThresholdMs(slowQueryThresholdMs);
+        List<JdbcCallStatistics> calls = new ArrayList<>();
+        for (CallStatistics stats : statistics.values()) {
+            JdbcCallStatistics call = stats.snapshot();
+            calls.add(call);
+            summary.setTotalCalls(summary.getTotalCalls() + call.getCalls());
+            summary.setTotalRows(summary.getTotalRows() + call.getRows());
+            summary.setSlowCalls(summary.getSlowCalls() + call.getSlowCalls());
+            summary.setTotalTimeMs(summary.getTotalTimeMs() + call.getTotalTimeMs());
+        }
+        calls.sort(Comparator.comparingDouble(JdbcCallStatistics::getTotalTimeMs).reversed());
+        summary.setCalls(calls);
+        return summary;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String normalize(String sql) {
+        return sql.trim().replaceAll("\\s+", " ");
+    }
+
+    private CallStatistics statistics(String operation, String query) {
+        String key = query == null ? operation : operation + '\u0000' + query;
+        return statistics.computeIfAbsent(key, k -> new CallStatistics(operation, query));
+    }
+
+    /**
+     * Connection代理：包装元数据对象和语句，getConnection类调用都返回代理连接
+     */
+    private final class ConnectionHandler {
+        private final Connection target;
+        private Connection proxy;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        Object invoke(Method method, Object[] args) throws Throwable {
+            if (deadline != null && "close".equals(method.getName())) {
+                deadline.unregister(target);
+            }
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof DatabaseMetaData) {
+                DatabaseMetaData metaData = (DatabaseMetaData) result;
+                return Proxy.newProxyInstance(JdbcInstrumentation.class.getClassLoader(),
+                        new Class<?>[]{DatabaseMetaData.class}, (p, m, a) -> invokeMetaData(metaData, m, a));
+            }
+            if (result instanceof Statement) {
+                if (deadline != null) {
+                    deadline.applyQueryTimeout((Statement) result);
+                }
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return wrapStatement((Statement) result, sql);
+            }
+            return result;
+        }
+
+        private Object invokeMetaData(DatabaseMetaData target, Method method, Object[] args) throws Throwable {
+            if ("getConnection".equals(method.getName())) {
+                return proxy;
+            }
+            if (!ResultSet.class.isAssignableFrom(method.getReturnType())) {
+                return invokeTarget(target, method, args);
+            }
+            if (deadline != null) {
+                deadline.check();
+            }
+            RoundTrip roundTrip = new RoundTrip(statistics(method.getName(), null),
+                    method.getName() + (args != null ? Arrays.toString(args) : "[]"));
+            long start = System.nanoTime();
+            try {
+                ResultSet resultSet = (ResultSet) invokeTarget(target, method, args);
+                roundTrip.nanos += System.nanoTime() - start;
+                return wrapResultSet(resultSet, roundTrip);
+            } catch (Throwable e) {
+                roundTrip.nanos += System.nanoTime() - start;
+                roundTrip.finish();
+                throw e;
+            }
+        }
+
+        /**
+         * 语句按最具体的接口代理，预编译语句记住SQL文本
+         */
+        private Object wrapStatement(Statement statement, String preparedSql) {
+            Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return Proxy.newProxyInstance(JdbcInstrumentation.class.getClassLoader(), new Class<?>[]{type},
+                    (p, m, a) -> invokeStatement(statement, preparedSql, m, a));
+        }
+
+        private Object invokeStatement(Statement target, String preparedSql, Method method, Object[] args)
+                throws Throwable {
+            if ("getConnection".equals(method.getName())) {
+                return proxy;
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            String query = sql != null ? normalize(sql) : null;
+            RoundTrip roundTrip = new RoundTrip(statistics(method.getName(), query),
+                    method.getName() + (query != null ? ": " + query : ""));
+            if (deadline != null) {
+                deadline.check();
+                deadline.started(target);
+            }
+            long start = System.nanoTime();
+            try {
+                Object result = invokeTarget(target, method, args);
+                roundTrip.nanos += System.nanoTime() - start;
+                if (result instanceof ResultSet) {
+                    return wrapResultSet((ResultSet) result, roundTrip);
+                }
+                roundTrip.finish();
+                return result;
+            } catch (Throwable e) {
+                roundTrip.nanos += System.nanoTime() - start;
+                roundTrip.finish();
+                throw e;
+            } finally {
+                if (deadline != null) {
+                    deadline.finished(target);
+                }
+            }
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet, RoundTrip roundTrip) {
+            if (resultSet == null) {
+                roundTrip.finish();
+                return null;
+            }
+            return (ResultSet) Proxy.newProxyInstance(JdbcInstrumentation.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (p, m, a) -> invokeResultSet(resultSet, roundTrip, m, a));
+        }
+
+        /**
+         * 结果集的next和close计入所属往返，读完（next返回false）或关闭时结算
+         */
+        private Object invokeResultSet(ResultSet target, RoundTrip roundTrip, Method method, Object[] args)
+                throws Throwable {
+            boolean next = "next".equals(method.getName());
+            if (!next && !"close".equals(method.getName())) {
+                return invokeTarget(target, method, args);
+            }
+            if (next && deadline != null) {
+                deadline.check();
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeTarget(target, method, args);
+            } finally {
+                roundTrip.nanos += System.nanoTime() - start;
+            }
+            if (next && Boolean.TRUE.equals(result)) {
+                roundTrip.rows++;
+            } else {
+                roundTrip.finish();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 一次往返：调用本身加上读取结果集
+     */
+    private final class RoundTrip {
+        private final CallStatistics statistics;
+        private final String description;
+        private long nanos;
+        private long rows;
+        private boolean finished;
+
+        RoundTrip(CallStatistics statistics, String description) {
+            this.statistics = statistics;
+            this.description = description;
+        }
+
+        void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            boolean slow = nanos >= slowQueryThresholdNanos;
+            statistics.record(nanos, rows, slow);
+            PipelineMetrics.timer(PipelineMetrics.DATABASE_JDBC_CALL, "database", databaseTag,
+                    "operation", statistics.operation).record(nanos, TimeUnit.NANOSECONDS);
+            PipelineMetrics.counter(PipelineMetrics.DATABASE_JDBC_ROWS, "database", databaseTag,
+                    "operation", statistics.operation).increment(rows);
+            if (slow) {
+                PipelineMetrics.counter(PipelineMetrics.DATABASE_JDBC_SLOW, "database", databaseTag,
+                        "operation", statistics.operation).increment();
+                logger.warn("慢查询: {} 耗时{}ms，读取{}行（阈值{}ms）",
+                        description, String.format("%.1f", toMillis(nanos)), rows, slowQueryThresholdMs);
+            }
+        }
+    }
+
+    /**
+     * 单个方法/查询的累计值
+     */
+    private static final class CallStatistics {
+        private final String operation;
+        private final String query;
+        private long calls;
+        private long rows;
+        private long totalNanos;
+        private long maxNanos;
+        private long slowCalls;
+
+        CallStatistics(String operation, String query) {
+            this.operation = operation;
+            this.query = query;
+        }
+
+        synchronized void record(long nanos, long rowCount, boolean slow) {
+            calls++;
+            rows += rowCount;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            if (slow) {
+                slowCalls++;
+            }
+        }
+
+        synchronized JdbcCallStatistics snapshot() {
+            JdbcCallStatistics call = new JdbcCallStatistics();
+            call.setOperation(operation);
+            call.setQuery(query);
+            call.setCalls(calls);
+            call.setRows(rows);
+            call.setTotalTimeMs(toMillis(totalNanos));
+            call.setMaxTimeMs(toMillis(maxNanos));
+            call.setSlowCalls(slowCalls);
+            return call;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.tools.services.database;
 import com.tools.model.database.ColumnMetadata;
 
 import java.sql.*;
+import java.util.Properties;
 
 /**
  * MySQL specific implementation of database metadata extractor
@@ -13,11 +14,53 @@ public class MySqlMetadataExtractor extends AbstractDatabaseMetadataExtractor {
             "SELECT table_comment, tablespace_name FROM information_schema.tables " +
             "WHERE table_schema = ? AND table_name = ?";
     
+    private static final String TABLES_QUERY = 
+            "SELECT table_name AS TABLE_NAME, table_schema AS TABLE_SCHEM FROM information_schema.tables " +
+            "WHERE table_schema = ? AND table_type = 'BASE TABLE'";
+    
+    /**
+     * Order-independent checksum of the schema's column definitions (CREATE_TIME does not change for instant DDL)
+     */
+    private static final String SCHEMA_FINGERPRINT_QUERY = 
+            "SELECT COUNT(*), SUM(CRC32(CONCAT_WS(':', table_name, column_name, column_type, is_nullable, " +
+            "IFNULL(column_default, ''), column_key, column_comment))) " +
+            "FROM information_schema.columns WHERE table_schema = ?";
+    
     @Override
     public boolean supportsDatabase(String databaseType) {
         return "mysql".equalsIgnoreCase(databaseType);
     }
     
+    @Override
+    protected String getTablesQuery() {
+        return TABLES_QUERY;
+    }
+    
+    @Override
+    protected String getSchemaFingerprint(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        return querySchemaFingerprint(dbMetaData, SCHEMA_FINGERPRINT_QUERY, schema);
+    }
+    
+    @Override
+    protected void setLoginTimeout(Properties properties, int seconds) {
+        // connectTimeout is in milliseconds
+        properties.setProperty("connectTimeout", String.valueOf(seconds * 1000L));
+    }
+    
+    @Override
+    protected String getCatalogSchema(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        // If schema is not provided, use the current database
+        if (schema == null || schema.isEmpty()) {
+            try (Statement stmt = dbMetaData.getConnection().createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT DATABASE()")) {
+                if (rs.next()) {
+                    return rs.getString(1);
+                }
+            }
+        }
+        return schema;
+    }
+    
     @Override
     protected String getTableComment(DatabaseMetaData dbMetaData, String tableName, String schema) 
             throws SQLException {
@@ -3,6 +3,7 @@ package com.tools.services.database;
 import com.tools.model.database.ColumnMetadata;
 
 import java.sql.*;
+import java.util.Properties;
 
 /**
  * Oracle specific implementation of database metadata extractor
@@ -21,13 +22,55 @@ public class OracleMetadataExtractor extends AbstractDatabaseMetadataExtractor {
             "SELECT comments FROM all_col_comments " +
             "WHERE owner = ? AND table_name = ? AND column_name = ?";
     
+    private static final String TABLES_QUERY = 
+            "SELECT table_name AS TABLE_NAME, owner AS TABLE_SCHEM FROM all_tables " +
+            "WHERE owner = ?";
+    
+    /**
+     * Partitions of the owner's partitioned tables in partition order, with the partitioning type and key columns.
+     * Partitions are not listed in all_tables, so the partitioned table itself is extracted once as usual
+     */
+    private static final String PARTITIONS_QUERY = 
+            "SELECT p.table_name AS parent_name, p.partition_name, t.partitioning_type, " +
+            "(SELECT LISTAGG(k.column_name, ', ') WITHIN GROUP (ORDER BY k.column_position) " +
+            "FROM all_part_key_columns k " +
+            "WHERE k.owner = t.owner AND k.name = t.table_name AND k.object_type = 'TABLE') AS partition_key, " +
+            "p.high_value " +
+            "FROM all_tab_partitions p " +
+            "JOIN all_part_tables t ON t.owner = p.table_owner AND t.table_name = p.table_name " +
+            "WHERE p.table_owner = ? " +
+            "ORDER BY p.table_name, p.partition_position";
+    
+    /**
+     * Object count and latest DDL time of the owner's tables and indexes (COMMENT ON also updates last_ddl_time)
+     */
+    private static final String SCHEMA_FINGERPRINT_QUERY = 
+            "SELECT COUNT(*), TO_CHAR(MAX(last_ddl_time), 'YYYYMMDDHH24MISS') FROM all_objects " +
+            "WHERE owner = ? AND object_type IN ('TABLE', 'INDEX')";
+    
     @Override
     public boolean supportsDatabase(String databaseType) {
         return "oracle".equalsIgnoreCase(databaseType);
     }
     
     @Override
-    protected ResultSet getTables(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+    protected String getTablesQuery() {
+        return TABLES_QUERY;
+    }
+    
+    @Override
+    protected String getSchemaFingerprint(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        return querySchemaFingerprint(dbMetaData, SCHEMA_FINGERPRINT_QUERY, schema);
+    }
+    
+    @Override
+    protected void setLoginTimeout(Properties properties, int seconds) {
+        // Connect timeout of Oracle Net, in milliseconds
+        properties.setProperty("oracle.net.CONNECT_TIMEOUT", String.valueOf(seconds * 1000L));
+    }
+    
+    @Override
+    protected String getCatalogSchema(DatabaseMetaData dbMetaData, String schema) throws SQLException {
         // In Oracle, if schema is null, we use the current user's schema
         if (schema == null || schema.isEmpty()) {
             try (Statement stmt = dbMetaData.getConnection().createStatement();
@@ -39,7 +82,32 @@ public class OracleMetadataExtractor extends AbstractDatabaseMetadataExtractor {
         }
         
         // In Oracle, schema is the owner
-        return dbMetaData.getTables(null, schema.toUpperCase(), null, new String[]{"TABLE"});
+        return schema.toUpperCase();
+    }
+    
+    @Override
+    protected ResultSet getTables(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        return dbMetaData.getTables(null, getCatalogSchema(dbMetaData, schema), null, new String[]{"TABLE"});
+    }
+    
+    @Override
+    protected PartitionLayout getPartitionLayout(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        PartitionLayout layout = new PartitionLayout();
+        try (PreparedStatement stmt = dbMetaData.getConnection().prepareStatement(PARTITIONS_QUERY)) {
+            stmt.setString(1, getCatalogSchema(dbMetaData, schema));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String parentName = rs.getString("parent_name");
+                    String partitionName = rs.getString("partition_name");
+                    String partitioningType = rs.getString("partitioning_type");
+                    String partitionKey = rs.getString("partition_key");
+                    // high_value is a LONG column and has to be read last
+                    layout.addPartition(parentName, partitionName, rs.getString("high_value"), false);
+                    layout.setPartitionKey(parentName, partitioningType, partitionKey);
+                }
+            }
+        }
+        return layout;
     }
     
     @Override
@@ -0,0 +1,86 @@
+package com.tools.services.database;
+
+import com.tools.model.database.PartitionSummary;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 模式下的分区布局
+ * 记录哪些表是分区（子表，提取时跳过）以及分区表的分区汇总。
+ * 分区按顺序加入，第一个和最后一个分区作为汇总的范围
+ */
+public final class PartitionLayout {
+
+    /** 不识别分区的数据库使用的空布局 */
+    public static final PartitionLayout NONE = new PartitionLayout(Collections.emptySet(), Collections.emptyMap());
+
+    private final Set<String> partitions;
+    private final Map<String, PartitionSummary> summaries;
+
+    public PartitionLayout() {
+        this(new HashSet<>(), new HashMap<>());
+    }
+
+    private PartitionLayout(Set<String> partitions, Map<String, PartitionSummary> summaries) {
+        this.partitions = partitions;
+        this.summaries = summaries;
+    }
+
+    /**
+     * 加入一个分区
+     *
+     * @param parentTable 分区表
+     * @param partition   分区名
+     * @param bound       分区边界（可为空）
+     * @param isTable     分区是否作为独立的表出现在表列表中（PostgreSQL），是则提取时跳过
+     */
+    public void addPartition(String parentTable, String partition, String bound, boolean isTable) {
+        PartitionSummary summary = summaries.computeIfAbsent(parentTable, k -> new PartitionSummary());
+        if (summary.getPartitionCount() == 0) {
+            summary.setFirstPartition(partition);
+            summary.setFirstBound(bound);
+        }
+        summary.setPartitionCount(summary.getPartitionCount() + 1);
+        summary.setLastPartition(partition);
+        summary.setLastBound(bound);
+        if (isTable) {
+            partitions.add(partition);
+        }
+    }
+
+    /**
+     * 设置分区表的分区方式和分区键
+     */
+    public void setPartitionKey(String parentTable, String strategy, String key) {
+        PartitionSummary summary = summaries.get(parentTable);
+        if (summary != null) {
+            summary.setPartitionStrategy(strategy);
+            summary.setPartitionKey(key);
+        }
+    }
+
+    /**
+     * 表是否为其他表的分区
+     */
+    public boolean isPartition(String tableName) {
+        return partitions.contains(tableName);
+    }
+
+    /**
+     * 分区表的分区汇总，不是分区表时返回null
+     */
+    public PartitionSummary getSummary(String tableName) {
+        return summaries.get(tableName);
+    }
+
+    /**
+     * 作为独立的表出现的分区数量
+     */
+    public int getPartitionTableCount() {
+        return partitions.size();
+    }
+}
@@ -3,6 +3,7 @@ package com.tools.services.database;
 import com.tools.model.database.ColumnMetadata;
 
 import java.sql.*;
+import java.util.Properties;
 
 /**
  * PostgreSQL specific implementation of database metadata extractor
@@ -22,15 +23,104 @@ public class PostgreSqlMetadataExtractor extends AbstractDatabaseMetadataExtract
             "JOIN pg_catalog.pg_namespace n ON c.relnamespace = n.oid " +
             "WHERE c.relname = ? AND n.nspname = ? AND a.attname = ?";
     
+    private static final String TABLES_QUERY = 
+            "SELECT table_name AS TABLE_NAME, table_schema AS TABLE_SCHEM FROM information_schema.tables " +
+            "WHERE table_schema = ? AND table_type = 'BASE TABLE'";
+    
+    /**
+     * Declarative partitions of the schema (PostgreSQL 10+), one row per partition ordered by parent and partition name.
+     * Plain inheritance children are separate tables with columns of their own, and partitioned-index children
+     * (PostgreSQL 11+) are not tables, so only relations flagged relispartition with kind 'r' or 'p' are included
+     */
+    private static final String PARTITIONS_QUERY = 
+            "SELECT p.relname AS parent_name, c.relname AS partition_name, " +
+            "pg_get_partkeydef(p.oid) AS partition_key, pg_get_expr(c.relpartbound, c.oid) AS partition_bound " +
+            "FROM pg_catalog.pg_inherits i " +
+            "JOIN pg_catalog.pg_class p ON p.oid = i.inhparent " +
+            "JOIN pg_catalog.pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = ? AND p.relnamespace = c.relnamespace " +
+            "AND c.relispartition AND c.relkind IN ('r', 'p') " +
+            "ORDER BY p.relname, c.relname";
+    
+    /**
+     * Column definitions and index count of the schema; PostgreSQL keeps no DDL timestamps
+     */
+    private static final String SCHEMA_FINGERPRINT_QUERY = 
+            "SELECT count(*), md5(string_agg(c.relname || '.' || a.attname || ':' || " +
+            "format_type(a.atttypid, a.atttypmod) || ':' || a.attnotnull::text, ',' ORDER BY c.relname, a.attnum)), " +
+            "(SELECT count(*) FROM pg_catalog.pg_indexes WHERE schemaname = ?) " +
+            "FROM pg_catalog.pg_attribute a " +
+            "JOIN pg_catalog.pg_class c ON c.oid = a.attrelid " +
+            "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = ? AND c.relkind IN ('r', 'p') AND a.attnum > 0 AND NOT a.attisdropped";
+    
     @Override
     public boolean supportsDatabase(String databaseType) {
         return "postgresql".equalsIgnoreCase(databaseType);
     }
     
+    @Override
+    protected String getTablesQuery() {
+        return TABLES_QUERY;
+    }
+    
+    @Override
+    protected String getSchemaFingerprint(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        return querySchemaFingerprint(dbMetaData, SCHEMA_FINGERPRINT_QUERY, schema);
+    }
+    
+    @Override
+    protected void setLoginTimeout(Properties properties, int seconds) {
+        // loginTimeout covers the whole login, connectTimeout the socket connect (both in seconds)
+        properties.setProperty("loginTimeout", String.valueOf(seconds));
+        properties.setProperty("connectTimeout", String.valueOf(seconds));
+    }
+    
+    @Override
+    protected String getCatalogSchema(DatabaseMetaData dbMetaData, String schema) {
+        // In PostgreSQL, if schema is null, we use "public" schema by default
+        return schema != null ? schema : "public";
+    }
+    
     @Override
     protected ResultSet getTables(DatabaseMetaData dbMetaData, String schema) throws SQLException {
         // In PostgreSQL, if schema is null, we use "public" schema by default
-        return dbMetaData.getTables(null, schema != null ? schema : "public", null, new String[]{"TABLE"});
+        // Declarative partitioned parents are reported as PARTITIONED TABLE by newer drivers
+        return dbMetaData.getTables(null, schema != null ? schema : "public", null,
+                new String[]{"TABLE", "PARTITIONED TABLE"});
+    }
+    
+    @Override
+    protected PartitionLayout getPartitionLayout(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        if (dbMetaData.getDatabaseMajorVersion() < 10) {
+            // No declarative partitioning before PostgreSQL 10; inheritance children stay separate tables
+            return PartitionLayout.NONE;
+        }
+        PartitionLayout layout = new PartitionLayout();
+        try (PreparedStatement stmt = dbMetaData.getConnection().prepareStatement(PARTITIONS_QUERY)) {
+            stmt.setString(1, getCatalogSchema(dbMetaData, schema));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String parentName = rs.getString("parent_name");
+                    // Partitions are listed as tables of their own
+                    layout.addPartition(parentName, rs.getString("partition_name"), rs.getString("partition_bound"), true);
+                    String keyDefinition = rs.getString("partition_key");
+                    if (keyDefinition != null) {
+                        // e.g. "RANGE (created_at)"
+                        int open = keyDefinition.indexOf('(');
+                        int close = keyDefinition.lastIndexOf(')');
+                        if (open > 0 && close > open) {
+                            layout.setPartitionKey(parentName, keyDefinition.substring(0, open).trim(),
+                                    keyDefinition.substring(open + 1, close).trim());
+                        } else {
+                            layout.setPartitionKey(parentName, keyDefinition, null);
+                        }
+                    }
+                }
+            }
+        }
+        return layout;
     }
     
     @Override
@@ -3,6 +3,7 @@ package com.tools.services.database;
 import com.tools.model.database.ColumnMetadata;
 
 import java.sql.*;
+import java.util.Properties;
 
 /**
  * SQL Server specific implementation of database metadata extractor
@@ -23,11 +24,45 @@ public class SqlServerMetadataExtractor extends AbstractDatabaseMetadataExtracto
             "LEFT JOIN sys.extended_properties ep ON ep.major_id = t.object_id AND ep.minor_id = c.column_id AND ep.name = 'MS_Description' " +
             "WHERE SCHEMA_NAME(t.schema_id) = ? AND t.name = ? AND c.name = ?";
     
+    private static final String TABLES_QUERY = 
+            "SELECT TABLE_NAME, TABLE_SCHEMA AS TABLE_SCHEM FROM INFORMATION_SCHEMA.TABLES " +
+            "WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = 'BASE TABLE'";
+    
+    /**
+     * Table count and latest modify_date of the schema's tables (column and index changes update the table)
+     */
+    private static final String SCHEMA_FINGERPRINT_QUERY = 
+            "SELECT COUNT(*), CONVERT(VARCHAR(30), MAX(o.modify_date), 126) FROM sys.objects o " +
+            "JOIN sys.schemas s ON s.schema_id = o.schema_id " +
+            "WHERE s.name = ? AND o.type = 'U'";
+    
     @Override
     public boolean supportsDatabase(String databaseType) {
         return "sqlserver".equalsIgnoreCase(databaseType) || "mssql".equalsIgnoreCase(databaseType);
     }
     
+    @Override
+    protected String getTablesQuery() {
+        return TABLES_QUERY;
+    }
+    
+    @Override
+    protected String getSchemaFingerprint(DatabaseMetaData dbMetaData, String schema) throws SQLException {
+        return querySchemaFingerprint(dbMetaData, SCHEMA_FINGERPRINT_QUERY, schema);
+    }
+    
+    @Override
+    protected void setLoginTimeout(Properties properties, int seconds) {
+        // loginTimeout is in seconds
+        properties.setProperty("loginTimeout", String.valueOf(seconds));
+    }
+    
+    @Override
+    protected String getCatalogSchema(DatabaseMetaData dbMetaData, String schema) {
+        // In SQL Server, if schema is null, we use "dbo" schema by default
+        return schema != null ? schema : "dbo";
+    }
+    
     @Override
     protected ResultSet getTables(DatabaseMetaData dbMetaData, String schema) throws SQLException {
         // In SQL Server, if schema is null, we use "dbo" schema by default
@@ -0,0 +1,172 @@
+package com.tools.services.database;
+
+import com.tools.model.database.DatabaseConnectionConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 表名过滤条件
+ * 包含/排除模式使用SQL LIKE语法（%和_），与正则一样不区分大小写；排除条件优先于包含条件。
+ * LIKE模式可以作为目录查询的条件下推到数据库，正则只在客户端匹配
+ */
+public final class TableNameFilter {
+
+    private static final TableNameFilter NONE = new TableNameFilter(
+            Collections.emptyList(), Collections.emptyList(), null, null);
+
+    private final List<String> includes;
+    private final List<String> excludes;
+    private final List<Pattern> includeLikes = new ArrayList<>();
+    private final List<Pattern> excludeLikes = new ArrayList<>();
+    private final Pattern includeRegex;
+    private final Pattern excludeRegex;
+
+    private TableNameFilter(List<String> includes, List<String> excludes, String includeRegex, String excludeRegex) {
+        this.includes = includes;
+        this.excludes = excludes;
+        for (String include : includes) {
+            includeLikes.add(likeToPattern(include));
+        }
+        for (String exclude : excludes) {
+            excludeLikes.add(likeToPattern(exclude));
+        }
+        this.includeRegex = compile(includeRegex);
+        this.excludeRegex = compile(excludeRegex);
+    }
+
+    /**
+     * 由连接配置创建过滤条件
+     *
+     * @throws IllegalArgumentException 正则表达式无效
+     */
+    public static TableNameFilter of(DatabaseConnectionConfig config) {
+        List<String> includes = normalize(config.getIncludeTables());
+        List<String> excludes = normalize(config.getExcludeTables());
+        if (includes.isEmpty() && excludes.isEmpty() && isBlank(config.getIncludeTableRegex())
+                && isBlank(config.getExcludeTableRegex())) {
+            return NONE;
+        }
+        return new TableNameFilter(includes, excludes, config.getIncludeTableRegex(), config.getExcludeTableRegex());
+    }
+
+    /**
+     * 只有包含模式的过滤条件，用于按LIKE模式匹配模式名等其他名称
+     */
+    public static TableNameFilter including(List<String> patterns) {
+        return new TableNameFilter(normalize(patterns), Collections.emptyList(), null, null);
+    }
+    
+    /**
+     * 是否没有任何过滤条件
+     */
+    public boolean isEmpty() {
+        return this == NONE;
+    }
+
+    /**
+     * 是否有可以下推到目录查询的LIKE模式
+     */
+    public boolean hasLikePatterns() {
+        return !includes.isEmpty() || !excludes.isEmpty();
+    }
+
+    /**
+     * 客户端匹配（包括LIKE模式和正则）
+     */
+    public boolean matches(String tableName) {
+        if (tableName == null) {
+            return false;
+        }
+        for (Pattern exclude : excludeLikes) {
+            if (exclude.matcher(tableName).matches()) {
+                return false;
+            }
+        }
+        if (excludeRegex != null && excludeRegex.matcher(tableName).matches()) {
+            return false;
+        }
+        if (!includeLikes.isEmpty()) {
+            boolean included = false;
+            for (Pattern include : includeLikes) {
+                if (include.matcher(tableName).matches()) {
+                    included = true;
+                    break;
+                }
+            }
+            if (!included) {
+                return false;
+            }
+        }
+        return includeRegex == null || includeRegex.matcher(tableName).matches();
+    }
+
+    /**
+     * 生成目录查询的过滤条件（以AND开头，没有LIKE模式时为空字符串），参数按顺序加入params
+     *
+     * @param column 表名列
+     * @param params 查询参数
+     */
+    public String sqlCondition(String column, List<String> params) {
+        StringBuilder condition = new StringBuilder();
+        if (!includes.isEmpty()) {
+            condition.append(" AND (");
+            for (int i = 0; i < includes.size(); i++) {
+                condition.append(i > 0 ? " OR " : "").append("UPPER(").append(column).append(") LIKE ?");
+                params.add(includes.get(i).toUpperCase(Locale.ROOT));
+            }
+            condition.append(')');
+        }
+        for (String exclude : excludes) {
+            condition.append(" AND UPPER(").append(column).append(") NOT LIKE ?");
+            params.add(exclude.toUpperCase(Locale.ROOT));
+        }
+        return condition.toString();
+    }
+
+    /**
+     * 将LIKE模式转换为不区分大小写的正则，%匹配任意字符串，_匹配单个字符
+     */
+    private static Pattern likeToPattern(String like) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : like.toCharArray()) {
+            if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    }
+
+    private static Pattern compile(String regex) {
+        return isBlank(regex) ? null : Pattern.compile(regex.trim(), Pattern.CASE_INSENSITIVE);
+    }
+
+    private static List<String> normalize(List<String> patterns) {
+        List<String> normalized = new ArrayList<>();
+        if (patterns != null) {
+            for (String pattern : patterns) {
+                if (!isBlank(pattern)) {
+                    normalized.add(pattern.trim());
+                }
+            }
+        }
+        return normalized;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,122 @@
+package com.tools.services.document;
+
+import com.deepoove.poi.render.compute.EnvModel;
+import com.deepoove.poi.render.compute.ReadMapAccessor;
+import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.render.compute.RenderDataComputeFactory;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存编译结果的Spring EL标签计算
+ * 与poi-tl自带的SpELRenderDataCompute计算规则一致（循环变量优先，其次为当前数据，严格模式下计算失败抛出异常），
+ * 但每个不同的标签表达式只解析一次并全局缓存，且开启Spring EL的MIXED编译模式：
+ * 同一表达式多次计算后编译为字节码，数据类型变化导致编译结果不可用时自动退回解释执行。
+ *
+ * 循环变量和当前数据分别缓存表达式，避免同一个编译结果在Map和实体类型之间来回切换
+ */
+public class CompiledSpELRenderDataComputeFactory implements RenderDataComputeFactory {
+
+    private static final int MAX_CACHED_EXPRESSIONS = 4096;
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser(new SpelParserConfiguration(
+            SpelCompilerMode.MIXED, CompiledSpELRenderDataComputeFactory.class.getClassLoader()));
+    private static final Map<String, Expression> ROOT_EXPRESSIONS = new ConcurrentHashMap<>();
+    private static final Map<String, Expression> ENV_EXPRESSIONS = new ConcurrentHashMap<>();
+
+    private final boolean strict;
+
+    public CompiledSpELRenderDataComputeFactory() {
+        this(true);
+    }
+
+    /**
+     * @param strict 严格模式：计算失败时抛出异常，否则返回null
+     */
+    public CompiledSpELRenderDataComputeFactory(boolean strict) {
+        this.strict = strict;
+    }
+
+    @Override
+    public RenderDataCompute newCompute(EnvModel model) {
+        return new CompiledSpELRenderDataCompute(model);
+    }
+
+    private static Expression expression(Map<String, Expression> cache, String el) {
+        Expression expression = cache.get(el);
+        if (expression == null) {
+            expression = PARSER.parseExpression(el);
+            if (cache.size() < MAX_CACHED_EXPRESSIONS) {
+                cache.put(el, expression);
+            }
+        }
+        return expression;
+    }
+
+    private static StandardEvaluationContext newContext(Object root) {
+        StandardEvaluationContext context = new StandardEvaluationContext(root);
+        context.addPropertyAccessor(new ReadMapAccessor());
+        return context;
+    }
+
+    private class CompiledSpELRenderDataCompute implements RenderDataCompute {
+        private final EnvModel model;
+        private EvaluationContext context;
+        private EvaluationContext envContext;
+
+        private CompiledSpELRenderDataCompute(EnvModel model) {
+            this.model = model;
+        }
+
+        @Override
+        public Object compute(String el) {
+            try {
+                if (referencesEnv(el)) {
+                    try {
+                        if (envContext == null) {
+                            envContext = newContext(model.getEnv());
+                        }
+                        Object value = expression(ENV_EXPRESSIONS, el).getValue(envContext);
+                        if (value != null) {
+                            return value;
+                        }
+                    } catch (Exception e) {
+                        // 循环变量中不存在时按当前数据计算
+                    }
+                }
+                if (context == null) {
+                    context = newContext(model.getRoot());
+                }
+                return expression(ROOT_EXPRESSIONS, el).getValue(context);
+            } catch (Exception e) {
+                if (strict) {
+                    throw e;
+                }
+                return null;
+            }
+        }
+
+        /**
+         * 循环变量（_index、_is_first等）只在表达式包含其名称时才可能被引用，其余表达式直接按当前数据计算
+         */
+        private boolean referencesEnv(String el) {
+            Map<String, Object> env = model.getEnv();
+            if (env == null || env.isEmpty() || el.contains("#this")) {
+                return false;
+            }
+            for (String name : env.keySet()) {
+                if (el.contains(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
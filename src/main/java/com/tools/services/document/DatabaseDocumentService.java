@@ -2,31 +2,59 @@ package com.tools.services.document;
 
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.Configure;
-import com.deepoove.poi.data.RowRenderData;
-import com.deepoove.poi.data.Rows;
+import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.policy.DynamicTableRenderPolicy;
-import com.deepoove.poi.policy.TableRenderPolicy;
+import com.deepoove.poi.policy.TextRenderPolicy;
+import com.deepoove.poi.render.RenderContext;
+import com.deepoove.poi.template.BlockTemplate;
+import com.deepoove.poi.template.ElementTemplate;
+import com.deepoove.poi.template.MetaTemplate;
+import com.deepoove.poi.template.run.RunTemplate;
 import com.deepoove.poi.util.TableTools;
+import com.tools.metrics.PipelineMetrics;
+import com.tools.metrics.PipelineTrace;
 import com.tools.model.database.ColumnMetadata;
 import com.tools.model.database.DatabaseMetadata;
 import com.tools.model.database.IndexMetadata;
+import com.tools.model.database.MetadataCategory;
 import com.tools.model.database.TableMetadata;
+import com.tools.services.TemplateResources;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
-import org.springframework.core.io.ClassPathResource;
+import org.apache.xmlbeans.impl.xb.xmlschema.SpaceAttribute;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRow;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTText;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STJc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STVerticalJc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -36,7 +64,45 @@ import java.util.stream.Collectors;
 @Service
 public class DatabaseDocumentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseDocumentService.class);
+
+    /**
+     * 明细模板行相对detail_table标签所在行的偏移：标签行之后依次为表头行、模板行
+     */
+    private static final int DETAIL_ROW_OFFSET = 2;
+    /**
+     * 直接调用{@link ColumnDetailTablePolicy#render(XWPFTable, Object)}时明细模板行的行号，
+     * 沿用加入分区行之前的模板布局（第8行），已有的自定义模板和调用方不受影响。
+     * 经过模板标签渲染时按detail_table标签所在行定位，不使用此行号
+     */
     private static final int TABLE_DETAIL_START_ROW = 8;
+    private static final int DETAIL_COLUMN_COUNT = 8;
+
+    /**
+     * 模板标签依赖的元数据类别（见prepareTemplateData和DetailTablePolicy）
+     */
+    private static final Map<String, Set<MetadataCategory>> TAG_CATEGORIES = new HashMap<>();
+
+    static {
+        TAG_CATEGORIES.put("table_comment", EnumSet.of(MetadataCategory.TABLE_COMMENT));
+        TAG_CATEGORIES.put("primaryKeys", EnumSet.of(MetadataCategory.PRIMARY_KEYS));
+        TAG_CATEGORIES.put("index", EnumSet.of(MetadataCategory.INDEXES));
+        // 明细表展示列注释、主键、非空和外键
+        TAG_CATEGORIES.put("detail_table", EnumSet.of(MetadataCategory.COLUMNS, MetadataCategory.COLUMN_EXTRAS,
+                MetadataCategory.PRIMARY_KEYS, MetadataCategory.FOREIGN_KEYS));
+    }
+
+    private static final Map<String, Set<MetadataCategory>> REQUIRED_CATEGORIES = new ConcurrentHashMap<>();
+
+    /**
+     * 分片文档的输出格式
+     */
+    public enum ShardFormat {
+        /** 在docx包级合并为一个文档 */
+        MERGED,
+        /** 每个分片一个文档，打包为zip */
+        ZIP
+    }
 
     /**
      * 生成数据库文档
@@ -47,26 +113,200 @@ public class DatabaseDocumentService {
      * @throws IOException 文档生成过程中发生IO异常
      */
     public void generateDocument(DatabaseMetadata metadata, String templatePath, String outputPath) throws IOException {
+        try (InputStream templateStream = TemplateResources.open(templatePath)) {
+            generateDocument(metadata, templateStream, outputPath);
+        }
+    }
+
+    /**
+     * 使用模板输入流生成数据库文档
+     *
+     * @param metadata       数据库元数据
+     * @param templateStream Word模板输入流（调用方负责关闭）
+     * @param outputPath     输出文档路径
+     * @throws IOException 文档生成过程中发生IO异常
+     */
+    public void generateDocument(DatabaseMetadata metadata, InputStream templateStream, String outputPath) throws IOException {
         // 确保输出目录存在
         ensureOutputDirectoryExists(outputPath);
         
         // 准备模板数据模型
-        Map<String, Object> dataModel = prepareTemplateData(metadata);
+        Map<String, Object> dataModel = prepareTemplateData(metadata.getTables(), 1);
+        PipelineMetrics.RenderStages stages = renderStages(metadata, "whole");
 
         // 配置并渲染模板
-        Configure config = Configure.builder()
+        PipelineTrace.Span span = PipelineTrace.span("compile");
+        XWPFTemplate compiled = XWPFTemplate.compile(templateStream, createConfigure());
+        span.stop(stages.compile());
+        span = PipelineTrace.span("render");
+        try (XWPFTemplate template = compiled.render(dataModel)) {
+            span.stop(stages.render());
+            span = PipelineTrace.span("write");
+            try (OutputStream out = new FileOutputStream(outputPath)) {
+                // 保存文档
+                template.write(out);
+            }
+            span.stop(stages.write());
+        }
+        recordDocument(metadata, outputPath);
+    }
+
+    /**
+     * 分片生成数据库文档
+     * 每shardSize张表渲染为一个独立的分片文档，各分片并行渲染，任一时刻只有正在渲染的分片占用DOM内存。
+     * MERGED模式下各分片在docx包级拼接为一个文档（表序号连续），模板不支持切分或分片无法在包级合并时回退为整体渲染；
+     * ZIP模式下每个分片是完整文档，打包为zip
+     *
+     * @param metadata   数据库元数据
+     * @param template   Word模板内容
+     * @param shardSize  每个分片包含的表数量
+     * @param format     输出格式
+     * @param outputPath 输出文件路径（docx或zip）
+     * @throws IOException 文档生成过程中发生IO异常
+     */
+    public void generateShardedDocument(DatabaseMetadata metadata, byte[] template, int shardSize,
+                                        ShardFormat format, String outputPath) throws IOException {
+        if (shardSize <= 0) {
+            throw new IllegalArgumentException("分片大小必须大于0");
+        }
+        ensureOutputDirectoryExists(outputPath);
+
+        List<TableMetadata> tables = metadata.getTables();
+        int shardCount = Math.max(1, (tables.size() + shardSize - 1) / shardSize);
+        String baseName = shardBaseName(outputPath);
+
+        PipelineMetrics.RenderStages stages = renderStages(metadata, "sharded");
+        if (format == ShardFormat.ZIP) {
+            // 每个分片都是使用完整模板渲染的独立文档
+            List<ParallelFragmentRenderer.Fragment> fragments = new ArrayList<>();
+            for (int i = 0; i < shardCount; i++) {
+                fragments.add(new ParallelFragmentRenderer.Fragment(shardName(baseName, i), template,
+                        shardModel(tables, i, shardSize)));
+            }
+            try (OutputStream out = new FileOutputStream(outputPath)) {
+                ParallelFragmentRenderer.render(fragments, this::createConfigure, stages,
+                        files -> DocxPackageMerger.zip(files, out));
+            }
+        } else {
+            try (OutputStream out = new FileOutputStream(outputPath)) {
+                ParallelFragmentRenderer.renderMerged(mergedFragments(tables, template, shardSize, shardCount, baseName),
+                        this::createConfigure, stages, out);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                // 模板不支持切分或分片部件不一致（如编号、样式）时，包级拼接的结果不可靠
+                logger.warn("分片无法在包级合并，改为整体渲染: {}", e.getMessage());
+                generateDocument(metadata, new ByteArrayInputStream(template), outputPath);
+                return;
+            }
+        }
+        recordDocument(metadata, outputPath);
+    }
+
+    /**
+     * MERGED模式的片段：循环之外的内容只渲染一次，循环按分片渲染后依次拼接
+     */
+    private List<ParallelFragmentRenderer.Fragment> mergedFragments(List<TableMetadata> tables, byte[] template,
+                                                                    int shardSize, int shardCount, String baseName)
+            throws IOException {
+        List<ParallelFragmentRenderer.Fragment> fragments = new ArrayList<>();
+        int fragmentNo = 0;
+        for (TemplateFragments.Segment segment : TemplateFragments.split(template, "resources").getSegments()) {
+            if (segment.isLoop()) {
+                for (int i = 0; i < shardCount; i++) {
+                    fragments.add(new ParallelFragmentRenderer.Fragment(shardName(baseName, fragmentNo++),
+                            segment.getTemplate(), shardModel(tables, i, shardSize)));
+                }
+            } else {
+                fragments.add(new ParallelFragmentRenderer.Fragment(shardName(baseName, fragmentNo++),
+                        segment.getTemplate(), prepareTemplateData(Collections.emptyList(), 1)));
+            }
+        }
+        return fragments;
+    }
+
+    /**
+     * 模板需要的元数据类别
+     * 按模板引用的标签推断，只提取模板实际展示的内容；结果按模板路径缓存
+     *
+     * @param templatePath Word模板路径（相对于classpath）
+     * @return 模板需要的元数据类别
+     * @throws IOException 读取模板失败
+     */
+    public Set<MetadataCategory> requiredCategories(String templatePath) throws IOException {
+        Set<MetadataCategory> categories = REQUIRED_CATEGORIES.get(templatePath);
+        if (categories == null) {
+            Set<String> tags = new HashSet<>();
+            try (InputStream templateStream = TemplateResources.open(templatePath);
+                 XWPFTemplate compiled = XWPFTemplate.compile(templateStream, createConfigure())) {
+                collectTags(compiled.getElementTemplates(), tags);
+            }
+            categories = EnumSet.noneOf(MetadataCategory.class);
+            for (String tag : tags) {
+                categories.addAll(TAG_CATEGORIES.getOrDefault(tag, Collections.emptySet()));
+            }
+            categories = Collections.unmodifiableSet(categories);
+            REQUIRED_CATEGORIES.put(templatePath, categories);
+        }
+        return categories;
+    }
+
+    private static void collectTags(List<MetaTemplate> templates, Set<String> tags) {
+        for (MetaTemplate template : templates) {
+            if (template instanceof ElementTemplate) {
+                tags.add(((ElementTemplate) template).getTagName());
+            } else if (template instanceof BlockTemplate) {
+                tags.add(((BlockTemplate) template).getStartMark().getTagName());
+                collectTags(((BlockTemplate) template).getTemplates(), tags);
+            }
+        }
+    }
+
+    /**
+     * 渲染各阶段计时器，按数据库类型和渲染方式（whole/sharded）区分
+     */
+    private PipelineMetrics.RenderStages renderStages(DatabaseMetadata metadata, String mode) {
+        return PipelineMetrics.renderStages(PipelineMetrics.DATABASE_RENDER,
+                "database", PipelineMetrics.databaseTag(metadata.getDatabaseType()), "mode", mode);
+    }
+
+    /**
+     * 记录文档的表数量和字节数
+     */
+    private void recordDocument(DatabaseMetadata metadata, String outputPath) throws IOException {
+        String databaseTag = PipelineMetrics.databaseTag(metadata.getDatabaseType());
+        PipelineMetrics.summary(PipelineMetrics.DATABASE_TABLES, "tables", "database", databaseTag)
+                .record(metadata.getTables().size());
+        PipelineMetrics.summary(PipelineMetrics.DATABASE_DOCUMENT_SIZE, "bytes", "database", databaseTag)
+                .record(Files.size(Paths.get(outputPath)));
+    }
+
+    /**
+     * 分片的数据模型，表序号与整体渲染时保持一致
+     */
+    private Map<String, Object> shardModel(List<TableMetadata> tables, int shardIndex, int shardSize) {
+        int from = shardIndex * shardSize;
+        return prepareTemplateData(tables.subList(from, Math.min(from + shardSize, tables.size())), from + 1);
+    }
+
+    private String shardName(String baseName, int index) {
+        return String.format("%s_part%03d.docx", baseName, index + 1);
+    }
+
+    private String shardBaseName(String outputPath) {
+        String fileName = Paths.get(outputPath).getFileName().toString();
+        int extIndex = fileName.lastIndexOf('.');
+        return extIndex > 0 ? fileName.substring(0, extIndex) : fileName;
+    }
+
+    /**
+     * 模板渲染配置
+     */
+    private Configure createConfigure() {
+        return Configure.builder()
                 .bind("detail_table", new ColumnDetailTablePolicy())
+                .bind("partitions", new PartitionRowPolicy())
                 .useSpringEL()
+                .setRenderDataComputeFactory(new CompiledSpELRenderDataComputeFactory())
                 .build();
-
-        try (XWPFTemplate template = XWPFTemplate.compile(
-                new ClassPathResource(templatePath).getInputStream(),
-                config
-        ).render(dataModel);
-             OutputStream out = new FileOutputStream(outputPath)) {
-            // 保存文档
-            template.write(out);
-        }
     }
 
     /**
@@ -82,15 +322,18 @@ public class DatabaseDocumentService {
 
     /**
      * 将数据库元数据转换为模板数据模型
+     *
+     * @param tables       需要渲染的表
+     * @param firstTableNo 第一张表的序号（分片渲染时保持序号连续）
      */
-    private Map<String, Object> prepareTemplateData(DatabaseMetadata metadata) {
+    private Map<String, Object> prepareTemplateData(List<TableMetadata> tables, int firstTableNo) {
         Map<String, Object> dataModel = new HashMap<>();
         List<Map<String, Object>> resources = new ArrayList<>();
 
-        int tableNo = 1;
+        int tableNo = firstTableNo;
 
         // 处理数据库中的每个表
-        for (TableMetadata table : metadata.getTables()) {
+        for (TableMetadata table : tables) {
             Map<String, Object> tableData = new HashMap<>();
 
             // 设置表数据
@@ -101,6 +344,8 @@ public class DatabaseDocumentService {
             tableData.put("logicalKeys", formatListOrDefault(table.getLogicalKeys(), "无"));
             tableData.put("schema", table.getSchema() != null ? table.getSchema() : "");
             tableData.put("index", formatIndexes(table.getIndexes()));
+            // 未分区的表为null，分区行由PartitionRowPolicy删除
+            tableData.put("partitions", table.getPartitions() != null ? table.getPartitions().describe() : null);
 
             // 添加列数据（由策略类渲染）
             tableData.put("detail_table", table.getColumns());
@@ -130,14 +375,58 @@ public class DatabaseDocumentService {
                 .collect(Collectors.joining(", "));
     }
 
+    /**
+     * 分区摘要渲染策略
+     * 有分区摘要时按文本渲染；表未分区时删除标签所在的表格行，标签不在表格中时清空标签
+     */
+    public static class PartitionRowPolicy extends TextRenderPolicy {
+
+        @Override
+        public void render(ElementTemplate eleTemplate, Object data, XWPFTemplate template) {
+            XWPFRun run = ((RunTemplate) eleTemplate).getRun();
+            if (data != null || !TableTools.isInsideTable(run)) {
+                super.render(eleTemplate, data, template);
+                return;
+            }
+            XWPFTableRow row = ((XWPFTableCell) ((XWPFParagraph) run.getParent()).getBody()).getTableRow();
+            XWPFTable table = row.getTable();
+            table.removeRow(table.getRows().indexOf(row));
+        }
+    }
+
     /**
      * 列详情表格渲染策略
      * 负责动态生成表格中的列信息部分
      */
     public static class ColumnDetailTablePolicy extends DynamicTableRenderPolicy {
-        
+
+        /**
+         * 与DynamicTableRenderPolicy一致，但按标签所在行定位明细模板行，
+         * 模板在标签行之前增删行（如分区行）时无需调整固定行号
+         */
+        @Override
+        public void doRender(RenderContext<Object> context) throws Exception {
+            XWPFRun run = ((RunTemplate) context.getEleTemplate()).getRun();
+            run.setText("", 0);
+            if (!TableTools.isInsideTable(run)) {
+                throw new IllegalStateException("The template tag " + context.getEleTemplate().getSource()
+                        + " must be inside a table");
+            }
+            XWPFTableRow tagRow = ((XWPFTableCell) ((XWPFParagraph) run.getParent()).getBody()).getTableRow();
+            XWPFTable table = tagRow.getTable();
+            try {
+                render(table, context.getData(), table.getRows().indexOf(tagRow) + DETAIL_ROW_OFFSET);
+            } catch (Exception e) {
+                throw new RenderException("Dynamic render table error:" + e.getMessage(), e);
+            }
+        }
+
         @Override
         public void render(XWPFTable table, Object data) throws Exception {
+            render(table, data, TABLE_DETAIL_START_ROW);
+        }
+
+        private void render(XWPFTable table, Object data, int startRow) {
             if (data == null) return;
 
             @SuppressWarnings("unchecked")
@@ -145,7 +434,7 @@ public class DatabaseDocumentService {
 
             if (columns == null || columns.isEmpty()) {
                 // 如果没有列数据，则删除表格的模板行
-                table.removeRow(TABLE_DETAIL_START_ROW);
+                table.removeRow(startRow);
                 return;
             }
 
@@ -155,42 +444,98 @@ public class DatabaseDocumentService {
                     .collect(Collectors.toList());
 
             // 准备行数据
-            List<RowRenderData> rowRenderData = prepareRowData(sortedColumns);
+            List<String[]> rowData = prepareRowData(sortedColumns);
 
-            // 删除模板行
-            table.removeRow(TABLE_DETAIL_START_ROW);
+            // 以模板行为原型准备数据行，然后删除模板行
+            CTRow prototype = prepareTemplateRow(table, startRow);
+            table.removeRow(startRow);
 
             // 添加实际数据行
-            renderTableRows(table, rowRenderData);
+            renderTableRows(table, startRow, prototype, rowData);
         }
 
         /**
          * 准备表格行数据
          */
-        private List<RowRenderData> prepareRowData(List<ColumnMetadata> columns) {
-            return columns.stream().map(column -> {
-                return Rows.of(
-                        String.valueOf(column.getOrdinalPosition()),      // 序号
-                        column.getColumnComment() != null ? column.getColumnComment() : "",  // 中文名称
-                        column.getColumnName(),                           // 列名
-                        column.getFormattedDataType(),                    // 数据类型
-                        column.getColumnSize() != null ? column.getColumnSize().toString() : "",  // 长度
-                        column.isPrimaryKey() ? "是" : "",                // 主键
-                        column.isNullable() ? "" : "是",                  // 非空
-                        column.getForeignKeyReference()                   // 外键
-                ).center().create();
+        private List<String[]> prepareRowData(List<ColumnMetadata> columns) {
+            return columns.stream().map(column -> new String[]{
+                    String.valueOf(column.getOrdinalPosition()),      // 序号
+                    column.getColumnComment() != null ? column.getColumnComment() : "",  // 中文名称
+                    column.getColumnName(),                           // 列名
+                    column.getFormattedDataType(),                    // 数据类型
+                    column.getColumnSize() != null ? column.getColumnSize().toString() : "",  // 长度
+                    column.isPrimaryKey() ? "是" : "",                // 主键
+                    column.isNullable() ? "" : "是",                  // 非空
+                    column.getForeignKeyReference()                   // 外键
             }).collect(Collectors.toList());
         }
 
+        /**
+         * 准备数据行原型
+         * 模板行的单元格数量与数据列一致时复用模板行（保留行属性、单元格宽度/边框、段落格式），
+         * 否则创建默认单元格（第2、3列合并为中文名称列）。单元格统一设置为水平、垂直居中，
+         * 原型只准备一次，之后每个数据行复制原型并填入文本即可
+         */
+        private CTRow prepareTemplateRow(XWPFTable table, int startRow) {
+            XWPFTableRow templateRow = table.getRow(startRow);
+            CTRow prototype;
+            if (templateRow != null && templateRow.getTableCells().size() == DETAIL_COLUMN_COUNT) {
+                prototype = (CTRow) templateRow.getCtRow().copy();
+            } else {
+                prototype = CTRow.Factory.newInstance();
+                for (int j = 0; j < DETAIL_COLUMN_COUNT; j++) {
+                    prototype.addNewTc();
+                }
+                prototype.getTcArray(1).addNewTcPr().addNewGridSpan().setVal(BigInteger.valueOf(2));
+            }
+
+            for (CTTc cell : prototype.getTcArray()) {
+                CTTcPr cellPr = cell.isSetTcPr() ? cell.getTcPr() : cell.addNewTcPr();
+                (cellPr.isSetVAlign() ? cellPr.getVAlign() : cellPr.addNewVAlign()).setVal(STVerticalJc.CENTER);
+
+                // 只保留第一个段落的格式，清除模板中的文本和书签（如Word自动生成的_GoBack），避免书签名重复
+                CTPPr paragraphPr = cell.sizeOfPArray() > 0 && cell.getPArray(0).isSetPPr()
+                        ? (CTPPr) cell.getPArray(0).getPPr().copy()
+                        : CTPPr.Factory.newInstance();
+                (paragraphPr.isSetJc() ? paragraphPr.getJc() : paragraphPr.addNewJc()).setVal(STJc.CENTER);
+                for (int i = cell.sizeOfPArray() - 1; i >= 0; i--) {
+                    cell.removeP(i);
+                }
+                cell.addNewP().setPPr(paragraphPr);
+            }
+            return prototype;
+        }
+
         /**
          * 渲染表格行
+         * 数据行位于表格末尾时，直接在底层XML末尾追加原型副本并写入文本；
+         * XWPFTable.insertNewTableRow/addRow每次都要按下标定位或重新统计行数，行数多时退化为平方级。
+         * 追加的行不会登记到XWPFTable的行列表中，本策略之后不会再访问该表格的行
          */
-        private void renderTableRows(XWPFTable table, List<RowRenderData> rowData) throws Exception {
+        private void renderTableRows(XWPFTable table, int startRow, CTRow prototype, List<String[]> rowData) {
+            boolean append = table.getNumberOfRows() == startRow;
             for (int i = 0; i < rowData.size(); i++) {
-                XWPFTableRow insertNewTableRow = table.insertNewTableRow(TABLE_DETAIL_START_ROW + i);
-                for (int j = 0; j < 9; j++) insertNewTableRow.createCell();
-                TableTools.mergeCellsHorizonal(table, TABLE_DETAIL_START_ROW + i, 1, 2);
-                TableRenderPolicy.Helper.renderRow(table.getRow(TABLE_DETAIL_START_ROW + i), rowData.get(i));
+                CTRow row = append
+                        ? table.getCTTbl().addNewTr()
+                        // 自定义模板中明细行之后还有其他行，按位置插入
+                        : table.insertNewTableRow(startRow + i).getCtRow();
+                row.set(prototype);
+                fillRow(row, rowData.get(i));
+            }
+        }
+
+        /**
+         * 将文本写入数据行各单元格的段落
+         */
+        private void fillRow(CTRow row, String[] values) {
+            for (int j = 0; j < values.length; j++) {
+                String value = values[j];
+                if (value == null || value.isEmpty()) continue;
+                CTText text = row.getTcArray(j).getPArray(0).addNewR().addNewT();
+                text.setStringValue(value);
+                if (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1))) {
+                    text.setSpace(SpaceAttribute.Space.PRESERVE);
+                }
             }
         }
     }
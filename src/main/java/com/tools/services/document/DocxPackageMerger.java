@@ -0,0 +1,484 @@
+package com.tools.services.document;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Word文档包级合并工具
+ * 直接在docx压缩包层面拼接多个文档的正文（word/document.xml的body内容），
+ * 不把所有文档加载进同一个XWPF DOM，任一时刻只在内存中保留一个分片的正文XML。
+ *
+ * 要求所有分片由同一模板渲染：正文之外的部件（样式、脚注、页眉页脚、关系文件等）取自第一个分片，
+ * 各分片的这些部件必须完全一致（按压缩包目录中的CRC和大小比较），否则抛出IllegalStateException，
+ * 调用方据此回退为整体渲染。
+ * 编号定义（word/numbering.xml）例外：poi-tl渲染列表时会在分片中追加编号定义，给出模板时
+ * 模板中已有的定义各分片共用，分片追加的定义重新编号后并入，正文中的编号引用同步替换
+ */
+public final class DocxPackageMerger {
+
+    private static final String DOCUMENT_PART = "word/document.xml";
+    private static final String NUMBERING_PART = "word/numbering.xml";
+    private static final String BODY_START = "<w:body>";
+    private static final String BODY_END = "</w:body>";
+    private static final String SECTION_START = "<w:sectPr";
+
+    private static final Pattern NAMESPACE_PATTERN = Pattern.compile("\\sxmlns:([\\w.-]+)=\"([^\"]*)\"");
+    private static final Pattern BOOKMARK_ID_PATTERN =
+            Pattern.compile("(<w:bookmark(?:Start|End)\\b[^>]*?\\bw:id=\")(\\d+)(\")");
+    private static final Pattern ABSTRACT_NUM_PATTERN = Pattern.compile(
+            "<w:abstractNum\\b[^>]*?\\bw:abstractNumId=\"(\\d+)\"[^>]*>.*?</w:abstractNum>", Pattern.DOTALL);
+    private static final Pattern NUM_PATTERN = Pattern.compile(
+            "<w:num\\b[^>]*?\\bw:numId=\"(\\d+)\"[^>]*>.*?</w:num>", Pattern.DOTALL);
+    private static final Pattern ABSTRACT_NUM_REF_PATTERN =
+            Pattern.compile("(<w:abstractNumId\\b[^>]*?\\bw:val=\")(\\d+)(\")");
+    private static final Pattern NUM_REF_PATTERN = Pattern.compile("(<w:numId\\b[^>]*?\\bw:val=\")(\\d+)(\")");
+
+    private DocxPackageMerger() {
+    }
+
+    /**
+     * 合并多个docx文档，正文按给定顺序依次拼接，编号定义也必须完全一致
+     *
+     * @param parts  分片文档路径（至少一个）
+     * @param output 合并结果输出流（调用方负责关闭）
+     * @throws IOException 读取或写入文档失败
+     */
+    public static void merge(List<Path> parts, OutputStream output) throws IOException {
+        merge(parts, null, output);
+    }
+
+    /**
+     * 合并多个docx文档，正文按给定顺序依次拼接，分片追加的编号定义重新编号后并入
+     *
+     * @param parts    分片文档路径（至少一个）
+     * @param template 渲染分片的模板内容，用于区分模板自带和分片追加的编号定义；为null时编号定义也必须完全一致
+     * @param output   合并结果输出流（调用方负责关闭）
+     * @throws IOException 读取或写入文档失败
+     */
+    public static void merge(List<Path> parts, byte[] template, OutputStream output) throws IOException {
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个文档分片");
+        }
+
+        NumberingMerge numbering = template == null ? null : NumberingMerge.create(parts, template);
+        Set<String> mergedParts = numbering == null
+                ? Collections.emptySet() : Collections.singleton(NUMBERING_PART);
+        Map<String, List<Long>> firstParts = packageParts(parts.get(0), mergedParts);
+        Map<String, String> namespaces = new LinkedHashMap<>();
+        for (Path part : parts) {
+            Map<String, List<Long>> partParts = packageParts(part, mergedParts);
+            if (!firstParts.equals(partParts)) {
+                throw new IllegalStateException("文档分片的" + differingPart(firstParts, partParts)
+                        + "不一致，无法在包级合并: " + part.getFileName());
+            }
+            String xml = readDocument(part);
+            collectNamespaces(xml.substring(0, bodyContentStart(xml, part)), namespaces);
+        }
+
+        ZipOutputStream zip = new ZipOutputStream(output);
+        try (ZipFile first = new ZipFile(parts.get(0).toFile())) {
+            Enumeration<? extends ZipEntry> entries = first.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                zip.putNextEntry(new ZipEntry(entry.getName()));
+                if (DOCUMENT_PART.equals(entry.getName())) {
+                    writeMergedDocument(parts, namespaces, numbering, zip);
+                } else if (numbering != null && NUMBERING_PART.equals(entry.getName())) {
+                    zip.write(numbering.xml.getBytes(StandardCharsets.UTF_8));
+                } else {
+                    try (InputStream in = first.getInputStream(entry)) {
+                        copy(in, zip);
+                    }
+                }
+                zip.closeEntry();
+            }
+        }
+        zip.finish();
+    }
+
+    /**
+     * 写出合并后的document.xml：文档头取自第一个分片（补齐其余分片声明的命名空间），
+     * 节属性（页面设置、页眉页脚引用）取自最后一个分片
+     */
+    private static void writeMergedDocument(List<Path> parts, Map<String, String> namespaces, NumberingMerge numbering,
+                                            OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        int bookmarkOffset = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            Path part = parts.get(i);
+            String xml = readDocument(part);
+            int contentStart = bodyContentStart(xml, part);
+            int contentEnd = bodyContentEnd(xml);
+
+            if (i == 0) {
+                writer.write(addNamespaces(xml.substring(0, contentStart), namespaces));
+            }
+
+            String content = xml.substring(contentStart, contentEnd);
+            if (numbering != null) {
+                content = replaceIds(content, NUM_REF_PATTERN, numbering.numIds.get(i));
+            }
+            BookmarkRenumbering renumbering = renumberBookmarks(content, bookmarkOffset);
+            writer.write(renumbering.xml);
+            bookmarkOffset = renumbering.nextId;
+
+            if (i == parts.size() - 1) {
+                writer.write(xml.substring(contentEnd));
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * 正文内容的起始位置（紧跟在&lt;w:body&gt;之后）
+     */
+    private static int bodyContentStart(String xml, Path part) {
+        int index = xml.indexOf(BODY_START);
+        if (index < 0) {
+            throw new IllegalStateException("文档分片中没有正文: " + part.getFileName());
+        }
+        return index + BODY_START.length();
+    }
+
+    /**
+     * 正文内容的结束位置：body末尾的节属性之前，没有节属性时为&lt;/w:body&gt;之前
+     */
+    private static int bodyContentEnd(String xml) {
+        int bodyEnd = xml.lastIndexOf(BODY_END);
+        int sectionStart = xml.lastIndexOf(SECTION_START, bodyEnd);
+        if (sectionStart >= 0 && xml.indexOf("</w:p>", sectionStart) < 0
+                && xml.indexOf("</w:tbl>", sectionStart) < 0) {
+            return sectionStart;
+        }
+        return bodyEnd;
+    }
+
+    private static void collectNamespaces(String header, Map<String, String> namespaces) {
+        Matcher matcher = NAMESPACE_PATTERN.matcher(header);
+        while (matcher.find()) {
+            namespaces.putIfAbsent(matcher.group(1), matcher.group(2));
+        }
+    }
+
+    /**
+     * 在根元素上补充第一个分片缺少的命名空间声明
+     */
+    private static String addNamespaces(String header, Map<String, String> namespaces) {
+        Map<String, String> declared = new LinkedHashMap<>();
+        collectNamespaces(header, declared);
+        StringBuilder missing = new StringBuilder();
+        for (Map.Entry<String, String> namespace : namespaces.entrySet()) {
+            if (!declared.containsKey(namespace.getKey())) {
+                missing.append(" xmlns:").append(namespace.getKey()).append("=\"").append(namespace.getValue()).append('"');
+            }
+        }
+        if (missing.length() == 0) {
+            return header;
+        }
+        int rootStart = header.indexOf("<w:document");
+        int insertAt = rootStart + "<w:document".length();
+        return header.substring(0, insertAt) + missing + header.substring(insertAt);
+    }
+
+    /**
+     * 书签ID在整个文档内必须唯一，按分片依次偏移
+     */
+    private static BookmarkRenumbering renumberBookmarks(String content, int offset) {
+        Matcher matcher = BOOKMARK_ID_PATTERN.matcher(content);
+        StringBuffer result = new StringBuffer(content.length() + 64);
+        int maxId = -1;
+        while (matcher.find()) {
+            int id = Integer.parseInt(matcher.group(2));
+            maxId = Math.max(maxId, id);
+            matcher.appendReplacement(result, matcher.group(1) + (id + offset) + matcher.group(3));
+        }
+        matcher.appendTail(result);
+        return new BookmarkRenumbering(result.toString(), offset + maxId + 1);
+    }
+
+    /**
+     * 正文之外的部件及其CRC和大小，合并处理的部件只比较是否存在
+     */
+    private static Map<String, List<Long>> packageParts(Path part, Set<String> mergedParts) throws IOException {
+        Map<String, List<Long>> packageParts = new HashMap<>();
+        try (ZipFile zipFile = new ZipFile(part.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (mergedParts.contains(entry.getName())) {
+                    packageParts.put(entry.getName(), Collections.emptyList());
+                } else if (!DOCUMENT_PART.equals(entry.getName())) {
+                    packageParts.put(entry.getName(), Arrays.asList(entry.getCrc(), entry.getSize()));
+                }
+            }
+        }
+        return packageParts;
+    }
+
+    /**
+     * 按映射替换匹配到的ID（第2组），不在映射中的ID保持不变
+     */
+    private static String replaceIds(String xml, Pattern pattern, Map<String, String> ids) {
+        if (ids.isEmpty()) {
+            return xml;
+        }
+        Matcher matcher = pattern.matcher(xml);
+        StringBuffer result = new StringBuffer(xml.length() + 64);
+        while (matcher.find()) {
+            String id = ids.getOrDefault(matcher.group(2), matcher.group(2));
+            matcher.appendReplacement(result, matcher.group(1) + id + matcher.group(3));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static String differingPart(Map<String, List<Long>> expected, Map<String, List<Long>> actual) {
+        Set<String> names = new TreeSet<>(expected.keySet());
+        names.addAll(actual.keySet());
+        for (String name : names) {
+            if (!Objects.equals(expected.get(name), actual.get(name))) {
+                return name;
+            }
+        }
+        return "部件";
+    }
+
+    private static String readDocument(Path part) throws IOException {
+        return new String(readEntry(part, DOCUMENT_PART), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 模板中的编号部件，没有时返回null
+     */
+    private static String readTemplateNumbering(byte[] template) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(template))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (NUMBERING_PART.equals(entry.getName())) {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                    copy(zip, buffer);
+                    return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasEntry(Path part, String name) throws IOException {
+        try (ZipFile zipFile = new ZipFile(part.toFile())) {
+            return zipFile.getEntry(name) != null;
+        }
+    }
+
+    private static byte[] readEntry(Path part, String name) throws IOException {
+        try (ZipFile zipFile = new ZipFile(part.toFile())) {
+            ZipEntry entry = zipFile.getEntry(name);
+            if (entry == null) {
+                throw new IllegalStateException("文档分片中缺少" + name + ": " + part.getFileName());
+            }
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                copy(in, buffer);
+                return buffer.toByteArray();
+            }
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+    }
+
+    /**
+     * 将多个文件打包为zip，每个文件作为一个条目
+     *
+     * @param files  待打包文件
+     * @param output zip输出流（调用方负责关闭）
+     * @throws IOException 读取或写入失败
+     */
+    public static void zip(List<Path> files, OutputStream output) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(output);
+        for (Path file : files) {
+            zip.putNextEntry(new ZipEntry(file.getFileName().toString()));
+            Files.copy(file, zip);
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
+
+    /**
+     * 合并后的编号部件和各分片正文中numId的替换关系
+     */
+    private static final class NumberingMerge {
+        private final String xml;
+        private final List<Map<String, String>> numIds;
+
+        private NumberingMerge(String xml, List<Map<String, String>> numIds) {
+            this.xml = xml;
+            this.numIds = numIds;
+        }
+
+        /**
+         * 第一个分片的编号部件保持不变，其余分片中不属于模板的abstractNum和num依次分配新ID，
+         * 分别追加到第一个分片最后一个abstractNum和num之后（abstractNum必须位于num之前）。
+         * 各分片去掉追加的定义后必须与第一个分片一致
+         *
+         * @return 模板或分片没有编号部件时返回null（按普通部件比较）
+         */
+        private static NumberingMerge create(List<Path> parts, byte[] template) throws IOException {
+            String templateXml = readTemplateNumbering(template);
+            if (templateXml == null || !hasEntry(parts.get(0), NUMBERING_PART)) {
+                return null;
+            }
+            Set<String> templateAbstractIds = ids(templateXml, ABSTRACT_NUM_PATTERN);
+            Set<String> templateNumIds = ids(templateXml, NUM_PATTERN);
+
+            String first = new String(readEntry(parts.get(0), NUMBERING_PART), StandardCharsets.UTF_8);
+            String firstBase = templateOnly(first, templateAbstractIds, templateNumIds);
+            int nextAbstractId = maxId(first, ABSTRACT_NUM_PATTERN) + 1;
+            int nextNumId = maxId(first, NUM_PATTERN) + 1;
+            StringBuilder addedAbstracts = new StringBuilder();
+            StringBuilder addedNums = new StringBuilder();
+            List<Map<String, String>> numIds = new ArrayList<>();
+            numIds.add(Collections.emptyMap());
+
+            for (Path part : parts.subList(1, parts.size())) {
+                String xml = new String(readEntry(part, NUMBERING_PART), StandardCharsets.UTF_8);
+                if (!firstBase.equals(templateOnly(xml, templateAbstractIds, templateNumIds))) {
+                    throw new IllegalStateException("文档分片的" + NUMBERING_PART + "不一致，无法在包级合并: "
+                            + part.getFileName());
+                }
+                Map<String, String> abstractIds = new HashMap<>();
+                Matcher matcher = ABSTRACT_NUM_PATTERN.matcher(xml);
+                while (matcher.find()) {
+                    if (!templateAbstractIds.contains(matcher.group(1))) {
+                        String id = String.valueOf(nextAbstractId++);
+                        abstractIds.put(matcher.group(1), id);
+                        addedAbstracts.append(replaceFirstId(matcher, id));
+                    }
+                }
+                Map<String, String> partNumIds = new HashMap<>();
+                matcher = NUM_PATTERN.matcher(xml);
+                while (matcher.find()) {
+                    if (!templateNumIds.contains(matcher.group(1))) {
+                        String id = String.valueOf(nextNumId++);
+                        partNumIds.put(matcher.group(1), id);
+                        addedNums.append(replaceIds(replaceFirstId(matcher, id), ABSTRACT_NUM_REF_PATTERN, abstractIds));
+                    }
+                }
+                numIds.add(partNumIds);
+            }
+
+            int abstractEnd = lastEnd(first, ABSTRACT_NUM_PATTERN, firstStart(first, NUM_PATTERN));
+            int numEnd = lastEnd(first, NUM_PATTERN, first.lastIndexOf("</w:numbering>"));
+            if (abstractEnd < 0 || numEnd < 0) {
+                throw new IllegalStateException("无法识别" + NUMBERING_PART + "的结构");
+            }
+            String xml = first.substring(0, abstractEnd) + addedAbstracts + first.substring(abstractEnd, numEnd)
+                    + addedNums + first.substring(numEnd);
+            return new NumberingMerge(xml, numIds);
+        }
+
+        /**
+         * 只保留模板自带的编号定义
+         */
+        private static String templateOnly(String xml, Set<String> abstractIds, Set<String> numIds) {
+            return removeAdded(removeAdded(xml, ABSTRACT_NUM_PATTERN, abstractIds), NUM_PATTERN, numIds);
+        }
+
+        private static String removeAdded(String xml, Pattern pattern, Set<String> templateIds) {
+            Matcher matcher = pattern.matcher(xml);
+            StringBuffer result = new StringBuffer(xml.length());
+            while (matcher.find()) {
+                matcher.appendReplacement(result, templateIds.contains(matcher.group(1))
+                        ? Matcher.quoteReplacement(matcher.group()) : "");
+            }
+            matcher.appendTail(result);
+            return result.toString();
+        }
+
+        /**
+         * 把匹配到的定义自身的ID（开始标签上的第一个ID属性）替换为新ID
+         */
+        private static String replaceFirstId(Matcher matcher, String id) {
+            String element = matcher.group();
+            int start = matcher.start(1) - matcher.start();
+            int end = matcher.end(1) - matcher.start();
+            return element.substring(0, start) + id + element.substring(end);
+        }
+
+        private static Set<String> ids(String xml, Pattern pattern) {
+            Set<String> ids = new HashSet<>();
+            Matcher matcher = pattern.matcher(xml);
+            while (matcher.find()) {
+                ids.add(matcher.group(1));
+            }
+            return ids;
+        }
+
+        private static int maxId(String xml, Pattern pattern) {
+            int max = -1;
+            Matcher matcher = pattern.matcher(xml);
+            while (matcher.find()) {
+                max = Math.max(max, Integer.parseInt(matcher.group(1)));
+            }
+            return max;
+        }
+
+        private static int firstStart(String xml, Pattern pattern) {
+            Matcher matcher = pattern.matcher(xml);
+            return matcher.find() ? matcher.start() : xml.lastIndexOf("</w:numbering>");
+        }
+
+        /**
+         * 最后一个定义的结束位置，没有定义时为fallback
+         */
+        private static int lastEnd(String xml, Pattern pattern, int fallback) {
+            int end = fallback;
+            Matcher matcher = pattern.matcher(xml);
+            while (matcher.find()) {
+                end = matcher.end();
+            }
+            return end;
+        }
+    }
+
+    private static class BookmarkRenumbering {
+        private final String xml;
+        private final int nextId;
+
+        private BookmarkRenumbering(String xml, int nextId) {
+            this.xml = xml;
+            this.nextId = nextId;
+        }
+    }
+}
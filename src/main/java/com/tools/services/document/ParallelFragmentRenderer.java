@@ -0,0 +1,170 @@
+package com.tools.services.document;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.tools.metrics.PipelineMetrics;
+import com.tools.metrics.PipelineTrace;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 文档片段并行渲染器
+ * 每个片段使用独立的模板和数据模型编译渲染，结果写入临时文件，由调用方合并或打包，
+ * 之后临时文件统一删除。渲染线程池为进程内共享的守护线程池，大小与CPU核数一致，
+ * 渲染任务沿用提交线程的请求跟踪（PipelineTrace）
+ */
+public final class ParallelFragmentRenderer {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "doc-fragment-" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private ParallelFragmentRenderer() {
+    }
+
+    /**
+     * 并行渲染所有片段
+     *
+     * @param fragments 文档片段（按最终顺序）
+     * @param configure 渲染配置工厂，每个片段单独创建配置
+     * @param stages    各片段编译、渲染、写出以及合并阶段的计时器
+     * @param consumer  片段文件处理（合并或打包），在临时文件删除之前调用
+     * @throws IOException 渲染或处理失败
+     */
+    public static void render(List<Fragment> fragments, Supplier<Configure> configure,
+                              PipelineMetrics.RenderStages stages, FragmentConsumer consumer) throws IOException {
+        Path directory = Files.createTempDirectory("doc-fragments");
+        List<Future<Path>> futures = new ArrayList<>();
+        PipelineTrace trace = PipelineTrace.current();
+        try {
+            for (Fragment fragment : fragments) {
+                Path file = directory.resolve(fragment.name);
+                futures.add(EXECUTOR.submit(() -> {
+                    PipelineTrace previous = PipelineTrace.attach(trace);
+                    try {
+                        renderFragment(fragment, configure.get(), stages, file);
+                    } finally {
+                        PipelineTrace.restore(previous);
+                    }
+                    return file;
+                }));
+            }
+
+            List<Path> files = new ArrayList<>();
+            for (Future<Path> future : futures) {
+                files.add(await(future));
+            }
+            PipelineTrace.Span merge = PipelineTrace.span("merge");
+            consumer.accept(files);
+            merge.stop(stages.merge());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            deleteDirectory(directory);
+        }
+    }
+
+    /**
+     * 并行渲染所有片段，并在docx包级合并为一个文档
+     * 片段追加的编号定义按第一个片段的模板区分，片段之间其余部件不一致时抛出IllegalStateException
+     *
+     * @param fragments 文档片段（按最终顺序）
+     * @param configure 渲染配置工厂
+     * @param stages    各阶段计时器
+     * @param output    合并结果输出流（调用方负责关闭）
+     * @throws IOException 渲染或合并失败
+     */
+    public static void renderMerged(List<Fragment> fragments, Supplier<Configure> configure,
+                                    PipelineMetrics.RenderStages stages, OutputStream output) throws IOException {
+        byte[] template = fragments.isEmpty() ? null : fragments.get(0).template;
+        render(fragments, configure, stages, files -> DocxPackageMerger.merge(files, template, output));
+    }
+
+    private static void renderFragment(Fragment fragment, Configure configure, PipelineMetrics.RenderStages stages,
+                                       Path file) throws IOException {
+        PipelineTrace.Span span = PipelineTrace.span("compile");
+        XWPFTemplate compiled = XWPFTemplate.compile(new ByteArrayInputStream(fragment.template), configure);
+        span.stop(stages.compile());
+        span = PipelineTrace.span("render");
+        try (XWPFTemplate template = compiled.render(fragment.model)) {
+            span.stop(stages.render());
+            span = PipelineTrace.span("write");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                template.write(out);
+            }
+            span.stop(stages.write());
+        }
+    }
+
+    private static Path await(Future<Path> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("文档片段渲染被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("文档片段渲染失败", cause);
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * 文档片段：模板和对应的数据模型
+     */
+    public static final class Fragment {
+        private final String name;
+        private final byte[] template;
+        private final Object model;
+
+        /**
+         * @param name     片段文件名（打包为zip时作为条目名，需在同一批片段中唯一）
+         * @param template 片段模板内容
+         * @param model    片段数据模型（Map或实体对象）
+         */
+        public Fragment(String name, byte[] template, Object model) {
+            this.name = name;
+            this.template = template;
+            this.model = model;
+        }
+    }
+
+    /**
+     * 片段文件处理
+     */
+    @FunctionalInterface
+    public interface FragmentConsumer {
+        void accept(List<Path> files) throws IOException;
+    }
+}
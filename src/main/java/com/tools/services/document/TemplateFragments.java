@@ -0,0 +1,130 @@
+package com.tools.services.document;
+
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 按区块循环切分的模板片段
+ * 模板正文按给定的区块循环（{{?name}}...{{/name}}，开始和结束标签各自独立成段）切分为有序片段：
+ * 循环之外的内容为静态片段，每个循环为一个循环片段。各片段分别渲染后按顺序拼接正文，
+ * 即可得到与整体渲染一致的文档；循环片段可以按数据分批多次渲染，从而并行处理
+ */
+public final class TemplateFragments {
+
+    private final List<Segment> segments;
+
+    private TemplateFragments(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * 按区块循环切分模板
+     *
+     * @param template  模板内容
+     * @param loopNames 区块循环名称，需按在模板中出现的顺序给出，如resources对应{{?resources}}...{{/resources}}
+     * @return 切分后的模板片段
+     * @throws IOException 模板读取失败
+     * @throws IllegalArgumentException 模板中不存在独立成段的区块循环
+     */
+    public static TemplateFragments split(byte[] template, String... loopNames) throws IOException {
+        List<int[]> loopRanges = new ArrayList<>();
+        int size;
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(template))) {
+            List<IBodyElement> elements = document.getBodyElements();
+            size = elements.size();
+            int searchFrom = 0;
+            for (String loopName : loopNames) {
+                int start = indexOfParagraph(elements, "{{?" + loopName + "}}", searchFrom);
+                int end = start < 0 ? -1 : indexOfParagraph(elements, "{{/" + loopName + "}}", start + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("模板中未找到独立成段的区块循环{{?" + loopName + "}}...{{/" + loopName + "}}");
+                }
+                loopRanges.add(new int[]{start, end + 1});
+                searchFrom = end + 1;
+            }
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        for (int i = 0; i < loopNames.length; i++) {
+            int[] range = loopRanges.get(i);
+            if (range[0] > position) {
+                segments.add(new Segment(null, keepRange(template, position, range[0])));
+            }
+            segments.add(new Segment(loopNames[i], keepRange(template, range[0], range[1])));
+            position = range[1];
+        }
+        if (position < size) {
+            segments.add(new Segment(null, keepRange(template, position, size)));
+        }
+        return new TemplateFragments(Collections.unmodifiableList(segments));
+    }
+
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    private static int indexOfParagraph(List<IBodyElement> elements, String text, int from) {
+        for (int i = from; i < elements.size(); i++) {
+            IBodyElement element = elements.get(i);
+            if (element instanceof XWPFParagraph && ((XWPFParagraph) element).getText().trim().equals(text)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 只保留正文中[from, to)范围内的元素，其他部件（样式、页眉页脚、节属性）保持不变
+     */
+    private static byte[] keepRange(byte[] template, int from, int to) throws IOException {
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(template))) {
+            int size = document.getBodyElements().size();
+            for (int i = size - 1; i >= to; i--) {
+                document.removeBodyElement(i);
+            }
+            for (int i = from - 1; i >= 0; i--) {
+                document.removeBodyElement(i);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(template.length);
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 模板片段
+     */
+    public static final class Segment {
+        private final String loopName;
+        private final byte[] template;
+
+        private Segment(String loopName, byte[] template) {
+            this.loopName = loopName;
+            this.template = template;
+        }
+
+        /**
+         * @return 区块循环名称，静态片段返回null
+         */
+        public String getLoopName() {
+            return loopName;
+        }
+
+        public boolean isLoop() {
+            return loopName != null;
+        }
+
+        public byte[] getTemplate() {
+            return template;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.tools.services.document;
+
+import com.deepoove.poi.exception.RenderException;
+import com.deepoove.poi.render.compute.EnvModel;
+import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.render.compute.RenderDataComputeFactory;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 类型化模板数据绑定
+ * 直接以实体对象（如ApiDataModel）作为渲染数据，不必先转换为嵌套的Map。
+ * 形如a.b.c的属性路径标签按类缓存getter逐级读取，中间值为null时结果为null（与Map数据的渲染结果一致）；
+ * 条件表达式、#this、方法调用等其他标签交给表达式计算（默认为缓存编译结果的Spring EL），因此配置时仍需开启useSpringEL
+ */
+public class TypedRenderDataComputeFactory implements RenderDataComputeFactory {
+
+    private static final Pattern PROPERTY_PATH = Pattern.compile("[A-Za-z_$][\\w$]*(\\.[A-Za-z_$][\\w$]*)*");
+    private static final Set<String> LITERALS = new HashSet<>(Arrays.asList("true", "false", "null"));
+    private static final String[] NOT_A_PATH = new String[0];
+    private static final int MAX_CACHED_PATHS = 4096;
+
+    private static final Map<String, String[]> PATHS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Map<String, Method>> GETTERS = new ConcurrentHashMap<>();
+
+    private final RenderDataComputeFactory expressionFactory;
+
+    public TypedRenderDataComputeFactory() {
+        this(new CompiledSpELRenderDataComputeFactory());
+    }
+
+    /**
+     * @param expressionFactory 非属性路径标签的计算方式
+     */
+    public TypedRenderDataComputeFactory(RenderDataComputeFactory expressionFactory) {
+        this.expressionFactory = expressionFactory;
+    }
+
+    @Override
+    public RenderDataCompute newCompute(EnvModel model) {
+        return new TypedRenderDataCompute(model);
+    }
+
+    private static String[] parsePath(String el) {
+        String[] path = PATHS.get(el);
+        if (path != null) {
+            return path;
+        }
+        String trimmed = el.trim();
+        path = PROPERTY_PATH.matcher(trimmed).matches() && !LITERALS.contains(trimmed)
+                ? trimmed.split("\\.") : NOT_A_PATH;
+        if (PATHS.size() < MAX_CACHED_PATHS) {
+            PATHS.put(el, path);
+        }
+        return path;
+    }
+
+    /**
+     * 读取对象属性：Map按键读取，其他对象通过getter读取，不存在的属性返回null
+     */
+    private static Object readProperty(Object target, String name) {
+        if (target instanceof Map) {
+            return ((Map<?, ?>) target).get(name);
+        }
+        Method getter = GETTERS.computeIfAbsent(target.getClass(), TypedRenderDataComputeFactory::findGetters).get(name);
+        if (getter == null) {
+            return null;
+        }
+        try {
+            return getter.invoke(target);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RenderException("读取属性失败: " + target.getClass().getName() + "." + name, e);
+        }
+    }
+
+    private static Map<String, Method> findGetters(Class<?> type) {
+        try {
+            Map<String, Method> getters = new HashMap<>();
+            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+                Method getter = descriptor.getReadMethod();
+                if (getter != null) {
+                    try {
+                        getter.setAccessible(true);
+                    } catch (RuntimeException e) {
+                        // 无法设置访问权限时按公共方法调用
+                    }
+                    getters.put(descriptor.getName(), getter);
+                }
+            }
+            return getters;
+        } catch (IntrospectionException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    private class TypedRenderDataCompute implements RenderDataCompute {
+        private final EnvModel model;
+        private RenderDataCompute expressionCompute;
+
+        private TypedRenderDataCompute(EnvModel model) {
+            this.model = model;
+        }
+
+        @Override
+        public Object compute(String el) {
+            String[] path = parsePath(el);
+            if (path == NOT_A_PATH) {
+                if (expressionCompute == null) {
+                    expressionCompute = expressionFactory.newCompute(model);
+                }
+                return expressionCompute.compute(el);
+            }
+
+            // 与Spring EL计算一致：循环变量（_index等）优先，其次为当前数据
+            Map<String, Object> env = model.getEnv();
+            Object value = env != null ? env.get(path[0]) : null;
+            if (value == null && model.getRoot() != null) {
+                value = readProperty(model.getRoot(), path[0]);
+            }
+            for (int i = 1; i < path.length && value != null; i++) {
+                value = readProperty(value, path[i]);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.tools.synthetic;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tools.model.database.ColumnMetadata;
+import com.tools.model.database.DatabaseMetadata;
+import com.tools.model.database.IndexMetadata;
+import com.tools.model.database.TableMetadata;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 合成数据库元数据生成器
+ * 按给定规模生成确定性的数据库元数据（相同参数和种子得到完全相同的输出），用于基准测试、测试和压测。
+ * 每张表的第一列为主键id，并按参数附加索引和指向前面某张表的外键；
+ * toJson输出的格式与数据库文档上传接口（DatabaseMetadataParser）读取的格式一致
+ */
+public class SyntheticDatabaseGenerator {
+
+    private static final String[] DATA_TYPES = {"VARCHAR", "INTEGER", "BIGINT", "DECIMAL", "TIMESTAMP", "BOOLEAN"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 生成数据库元数据
+     */
+    public DatabaseMetadata generate(Options options) {
+        options.validate();
+        Random random = new Random(options.getSeed());
+        DatabaseMetadata metadata = new DatabaseMetadata();
+        metadata.setDatabaseName(options.getDatabaseName());
+        metadata.setDatabaseType(options.getDatabaseType());
+        metadata.setDatabaseVersion("1.0");
+        for (int t = 1; t <= options.getTables(); t++) {
+            metadata.addTable(table(t, options, random));
+        }
+        return metadata;
+    }
+
+    /**
+     * 生成上传接口格式的数据库元数据JSON字符串
+     */
+    public String generateJson(Options options) {
+        try {
+            return objectMapper.writeValueAsString(toJson(generate(options)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化合成数据库元数据失败", e);
+        }
+    }
+
+    /**
+     * 转换为上传接口格式的JSON
+     */
+    public ObjectNode toJson(DatabaseMetadata metadata) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("databaseName", metadata.getDatabaseName());
+        root.put("databaseType", metadata.getDatabaseType());
+        root.put("databaseVersion", metadata.getDatabaseVersion());
+        ArrayNode tables = root.putArray("tables");
+        for (TableMetadata table : metadata.getTables()) {
+            ObjectNode tableNode = tables.addObject();
+            tableNode.put("tableName", table.getTableName());
+            tableNode.put("tableComment", table.getTableComment());
+            tableNode.put("schema", table.getSchema());
+            ArrayNode primaryKeys = tableNode.putArray("primaryKeys");
+            table.getPrimaryKeys().forEach(primaryKeys::add);
+
+            ArrayNode indexes = tableNode.putArray("indexes");
+            for (IndexMetadata index : table.getIndexes()) {
+                ObjectNode indexNode = indexes.addObject();
+                indexNode.put("indexName", index.getIndexName());
+                indexNode.put("isUnique", index.isUnique());
+                indexNode.put("indexType", index.getIndexType());
+                ArrayNode columnNames = indexNode.putArray("columnNames");
+                index.getColumnNames().forEach(columnNames::add);
+            }
+
+            ArrayNode columns = tableNode.putArray("columns");
+            for (ColumnMetadata column : table.getColumns()) {
+                ObjectNode columnNode = columns.addObject();
+                columnNode.put("columnName", column.getColumnName());
+                columnNode.put("columnComment", column.getColumnComment());
+                columnNode.put("dataType", column.getDataType());
+                columnNode.put("columnSize", column.getColumnSize());
+                columnNode.put("decimalDigits", column.getDecimalDigits());
+                columnNode.put("ordinalPosition", column.getOrdinalPosition());
+                columnNode.put("isPrimaryKey", column.isPrimaryKey());
+                columnNode.put("isNullable", column.isNullable());
+                columnNode.put("isForeignKey", column.isForeignKey());
+                columnNode.put("foreignKeyTable", column.getForeignKeyTable());
+                columnNode.put("foreignKeyColumn", column.getForeignKeyColumn());
+                columnNode.put("defaultValue", column.getDefaultValue());
+            }
+        }
+        return root;
+    }
+
+    /**
+     * 转换为建表语句（建表、表和字段注释、索引、外键），语法兼容H2和PostgreSQL，
+     * 可用于在嵌入式数据库中建出与元数据一致的模式，测试提取器
+     */
+    public List<String> toDdl(DatabaseMetadata metadata) {
+        List<String> statements = new ArrayList<>();
+        for (TableMetadata table : metadata.getTables()) {
+            StringBuilder create = new StringBuilder("CREATE TABLE ").append(table.getTableName()).append(" (");
+            for (ColumnMetadata column : table.getColumns()) {
+                create.append(column.getColumnName()).append(' ').append(columnDefinition(column));
+                if (column.getDefaultValue() != null) {
+                    create.append(" DEFAULT ").append(column.getDefaultValue());
+                }
+                if (!column.isNullable()) {
+                    create.append(" NOT NULL");
+                }
+                create.append(", ");
+            }
+            create.append("PRIMARY KEY (").append(String.join(", ", table.getPrimaryKeys())).append("))");
+            statements.add(create.toString());
+            statements.add("COMMENT ON TABLE " + table.getTableName() + " IS " + quote(table.getTableComment()));
+            for (ColumnMetadata column : table.getColumns()) {
+                statements.add("COMMENT ON COLUMN " + table.getTableName() + "." + column.getColumnName()
+                        + " IS " + quote(column.getColumnComment()));
+            }
+            for (IndexMetadata index : table.getIndexes()) {
+                statements.add("CREATE " + (index.isUnique() ? "UNIQUE " : "") + "INDEX " + index.getIndexName()
+                        + " ON " + table.getTableName() + " (" + String.join(", ", index.getColumnNames()) + ")");
+            }
+        }
+        // 外键最后创建，此时被引用的表都已存在
+        for (TableMetadata table : metadata.getTables()) {
+            for (ColumnMetadata column : table.getColumns()) {
+                if (column.isForeignKey()) {
+                    statements.add("ALTER TABLE " + table.getTableName() + " ADD CONSTRAINT fk_" + table.getTableName()
+                            + "_" + column.getColumnName() + " FOREIGN KEY (" + column.getColumnName() + ") REFERENCES "
+                            + column.getForeignKeyTable() + " (" + column.getForeignKeyColumn() + ")");
+                }
+            }
+        }
+        return statements;
+    }
+
+    private String columnDefinition(ColumnMetadata column) {
+        switch (column.getDataType()) {
+            case "VARCHAR":
+                return "VARCHAR(" + column.getColumnSize() + ")";
+            case "DECIMAL":
+                return "DECIMAL(" + column.getColumnSize() + ", " + column.getDecimalDigits() + ")";
+            default:
+                return column.getDataType();
+        }
+    }
+
+    private String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private TableMetadata table(int index, Options options, Random random) {
+        TableMetadata table = new TableMetadata();
+        table.setTableName(tableName(index));
+        table.setTableComment("合成表" + index);
+        table.setSchema(options.getSchema());
+        table.addPrimaryKey("id");
+
+        for (int c = 1; c <= options.getColumnsPerTable(); c++) {
+            ColumnMetadata column = new ColumnMetadata();
+            column.setOrdinalPosition(c);
+            if (c == 1) {
+                column.setColumnName("id");
+                column.setColumnComment("主键");
+                column.setDataType("BIGINT");
+                column.setColumnSize(19);
+                column.setPrimaryKey(true);
+                column.setNullable(false);
+            } else {
+                String dataType = DATA_TYPES[random.nextInt(DATA_TYPES.length)];
+                column.setColumnName("column_" + c);
+                column.setColumnComment("字段" + c);
+                column.setDataType(dataType);
+                column.setColumnSize(columnSize(dataType, random));
+                column.setDecimalDigits("DECIMAL".equals(dataType) ? 2 : null);
+                column.setNullable(random.nextInt(4) != 0);
+                column.setDefaultValue("BOOLEAN".equals(dataType) ? "FALSE" : null);
+            }
+            table.addColumn(column);
+        }
+
+        // 外键列依次放在id之后，引用编号更小的表以避免自引用和循环依赖
+        int foreignKeys = index > 1 ? Math.min(options.getForeignKeysPerTable(), options.getColumnsPerTable() - 1) : 0;
+        for (int f = 0; f < foreignKeys; f++) {
+            ColumnMetadata column = table.getColumns().get(f + 1);
+            column.setDataType("BIGINT");
+            column.setColumnSize(19);
+            column.setDecimalDigits(null);
+            column.setDefaultValue(null);
+            column.setForeignKey(true);
+            column.setForeignKeyTable(tableName(1 + random.nextInt(index - 1)));
+            column.setForeignKeyColumn("id");
+        }
+
+        int indexes = Math.min(options.getIndexesPerTable(), options.getColumnsPerTable() - 1);
+        for (int i = 0; i < indexes; i++) {
+            String columnName = table.getColumns().get(options.getColumnsPerTable() - 1 - i).getColumnName();
+            IndexMetadata indexMetadata = new IndexMetadata();
+            indexMetadata.setIndexName("idx_" + table.getTableName() + "_" + columnName);
+            indexMetadata.setUnique(i == 0 && random.nextBoolean());
+            indexMetadata.setIndexType("BTREE");
+            indexMetadata.addColumnName(columnName);
+            table.addIndex(indexMetadata);
+        }
+        return table;
+    }
+
+    private Integer columnSize(String dataType, Random random) {
+        switch (dataType) {
+            case "VARCHAR":
+                return 16 << random.nextInt(5);
+            case "INTEGER":
+                return 10;
+            case "BIGINT":
+                return 19;
+            case "DECIMAL":
+                return 10 + random.nextInt(9);
+            default:
+                return null;
+        }
+    }
+
+    static String tableName(int index) {
+        return String.format("table_%05d", index);
+    }
+
+    /**
+     * 生成参数
+     */
+    @Data
+    public static class Options {
+        /**
+         * 表数量
+         */
+        private int tables = 100;
+
+        /**
+         * 每张表的字段数量（含主键id）
+         */
+        private int columnsPerTable = 20;
+
+        /**
+         * 每张表的索引数量
+         */
+        private int indexesPerTable = 2;
+
+        /**
+         * 每张表的外键数量（第一张表没有外键）
+         */
+        private int foreignKeysPerTable = 1;
+
+        /**
+         * 数据库名称
+         */
+        private String databaseName = "synthetic";
+
+        /**
+         * 数据库类型
+         */
+        private String databaseType = "h2";
+
+        /**
+         * 模式名称
+         */
+        private String schema = "PUBLIC";
+
+        /**
+         * 随机种子
+         */
+        private long seed = 42L;
+
+        void validate() {
+            if (tables < 1 || columnsPerTable < 1 || indexesPerTable < 0 || foreignKeysPerTable < 0) {
+                throw new IllegalArgumentException("合成数据库参数不合法: " + this);
+            }
+        }
+    }
+}
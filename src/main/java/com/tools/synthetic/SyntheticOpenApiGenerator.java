@@ -0,0 +1,251 @@
+package com.tools.synthetic;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 合成OpenAPI规范生成器
+ * 按给定规模生成确定性的OpenAPI 3.0文档（相同参数和种子得到完全相同的输出），用于基准测试、测试和压测。
+ *
+ * 数据模型按引用深度分层：第0层被接口直接引用，第L层的每个模型引用第L+1层的fanOut个模型（单个引用与数组引用交替），
+ * 最深一层只包含基本类型属性；开启循环引用时最深一层的模型再引用回第0层
+ */
+public class SyntheticOpenApiGenerator {
+
+    private static final String SCHEMA_REF_PREFIX = "#/components/schemas/";
+    private static final String[] PRIMITIVE_TYPES = {"string", "integer", "number", "boolean"};
+    private static final String[] STRING_FORMATS = {null, "date-time", "email", "uuid"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 生成OpenAPI文档
+     */
+    public ObjectNode generate(Options options) {
+        options.validate();
+        Random random = new Random(options.getSeed());
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("openapi", "3.0.1");
+
+        ObjectNode info = root.putObject("info");
+        info.put("title", "Synthetic API (" + options.getPaths() + " paths, " + options.getSchemas() + " schemas)");
+        info.put("description", "Generated by SyntheticOpenApiGenerator, seed " + options.getSeed());
+        info.put("version", "1.0.0");
+        info.putObject("contact").put("email", "synthetic@example.com");
+        info.putObject("license").put("name", "Apache 2.0");
+
+        ArrayNode tags = root.putArray("tags");
+        for (int t = 0; t < options.getTags(); t++) {
+            tags.addObject().put("name", tagName(t)).put("description", "Synthetic resource " + t);
+        }
+
+        List<List<String>> levels = schemaLevels(options);
+        ObjectNode paths = root.putObject("paths");
+        for (int p = 0; p < options.getPaths(); p++) {
+            addPath(paths, p, options, levels.get(0), random);
+        }
+
+        ObjectNode schemas = root.putObject("components").putObject("schemas");
+        for (int level = 0; level < levels.size(); level++) {
+            List<String> next = level + 1 < levels.size() ? levels.get(level + 1)
+                    : options.isCyclicRefs() ? levels.get(0) : null;
+            for (String name : levels.get(level)) {
+                schemas.set(name, schema(name, next, options, random));
+            }
+        }
+        return root;
+    }
+
+    /**
+     * 生成OpenAPI文档JSON字符串
+     */
+    public String generateJson(Options options) {
+        try {
+            return objectMapper.writeValueAsString(generate(options));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化合成OpenAPI文档失败", e);
+        }
+    }
+
+    /**
+     * 按引用深度把数据模型平均分为refDepth + 1层
+     */
+    private List<List<String>> schemaLevels(Options options) {
+        int levelCount = Math.min(options.getRefDepth() + 1, options.getSchemas());
+        List<List<String>> levels = new ArrayList<>();
+        for (int level = 0; level < levelCount; level++) {
+            levels.add(new ArrayList<>());
+        }
+        for (int s = 0; s < options.getSchemas(); s++) {
+            levels.get(s * levelCount / options.getSchemas()).add(String.format("Model%05d", s));
+        }
+        return levels;
+    }
+
+    private void addPath(ObjectNode paths, int index, Options options, List<String> topSchemas, Random random) {
+        String resource = "resource" + (index % options.getTags());
+        ObjectNode pathItem = paths.putObject("/" + resource + "/items" + index + "/{id}");
+        String tag = tagName(index % options.getTags());
+        String responseSchema = topSchemas.get(random.nextInt(topSchemas.size()));
+
+        ObjectNode get = operation(pathItem.putObject("get"), tag, "get" + index, "Query item " + index);
+        ArrayNode parameters = get.putArray("parameters");
+        parameters.add(parameter("id", "path", true, "integer"));
+        parameters.add(parameter("page", "query", false, "integer"));
+        parameters.add(parameter("keyword", "query", false, "string"));
+        get.set("responses", responses(responseSchema));
+
+        if (options.getOperationsPerPath() > 1) {
+            ObjectNode post = operation(pathItem.putObject("post"), tag, "update" + index, "Update item " + index);
+            post.putArray("parameters").add(parameter("id", "path", true, "integer"));
+            String requestSchema = topSchemas.get(random.nextInt(topSchemas.size()));
+            post.putObject("requestBody").put("required", true)
+                    .putObject("content").putObject("application/json")
+                    .putObject("schema").put("$ref", SCHEMA_REF_PREFIX + requestSchema);
+            post.set("responses", responses(responseSchema));
+        }
+        if (options.getOperationsPerPath() > 2) {
+            ObjectNode delete = operation(pathItem.putObject("delete"), tag, "delete" + index, "Delete item " + index);
+            delete.putArray("parameters").add(parameter("id", "path", true, "integer"));
+            delete.putObject("responses").putObject("204").put("description", "Deleted");
+        }
+    }
+
+    private ObjectNode operation(ObjectNode operation, String tag, String operationId, String summary) {
+        operation.putArray("tags").add(tag);
+        operation.put("summary", summary);
+        operation.put("description", summary + " of the synthetic API");
+        operation.put("operationId", operationId);
+        return operation;
+    }
+
+    private ObjectNode parameter(String name, String in, boolean required, String type) {
+        ObjectNode parameter = objectMapper.createObjectNode();
+        parameter.put("name", name);
+        parameter.put("in", in);
+        parameter.put("description", name + " parameter");
+        parameter.put("required", required);
+        parameter.putObject("schema").put("type", type);
+        return parameter;
+    }
+
+    private ObjectNode responses(String schemaName) {
+        ObjectNode responses = objectMapper.createObjectNode();
+        ObjectNode ok = responses.putObject("200");
+        ok.put("description", "OK");
+        ok.putObject("content").putObject("application/json")
+                .putObject("schema").put("$ref", SCHEMA_REF_PREFIX + schemaName);
+        responses.putObject("404").put("description", "Not found");
+        return responses;
+    }
+
+    /**
+     * 单个数据模型：若干基本类型属性，加上对下一层模型的引用
+     */
+    private ObjectNode schema(String name, List<String> referenced, Options options, Random random) {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.put("description", name + " of the synthetic API");
+        ArrayNode required = schema.putArray("required");
+        ObjectNode properties = schema.putObject("properties");
+
+        for (int i = 0; i < options.getPropertiesPerSchema(); i++) {
+            String type = PRIMITIVE_TYPES[random.nextInt(PRIMITIVE_TYPES.length)];
+            ObjectNode property = properties.putObject("field" + i);
+            property.put("type", type);
+            property.put("description", "Field " + i + " of " + name);
+            if ("string".equals(type)) {
+                String format = STRING_FORMATS[random.nextInt(STRING_FORMATS.length)];
+                if (format != null) {
+                    property.put("format", format);
+                }
+            }
+            if (i == 0) {
+                required.add("field" + i);
+            }
+        }
+
+        if (referenced != null) {
+            for (int i = 0; i < options.getFanOut(); i++) {
+                String target = referenced.get(random.nextInt(referenced.size()));
+                ObjectNode property = properties.putObject("ref" + i);
+                if (i % 2 == 0) {
+                    property.put("$ref", SCHEMA_REF_PREFIX + target);
+                } else {
+                    property.put("type", "array");
+                    property.putObject("items").put("$ref", SCHEMA_REF_PREFIX + target);
+                }
+            }
+        }
+        return schema;
+    }
+
+    private String tagName(int index) {
+        return "Resource" + index;
+    }
+
+    /**
+     * 生成参数
+     */
+    @Data
+    public static class Options {
+        /**
+         * 路径数量
+         */
+        private int paths = 100;
+
+        /**
+         * 每个路径的操作数量（1-3：GET、POST、DELETE）
+         */
+        private int operationsPerPath = 2;
+
+        /**
+         * 标签（资源分组）数量
+         */
+        private int tags = 10;
+
+        /**
+         * 数据模型数量
+         */
+        private int schemas = 50;
+
+        /**
+         * 每个数据模型的基本类型属性数量
+         */
+        private int propertiesPerSchema = 6;
+
+        /**
+         * 引用深度：从接口直接引用的模型开始，沿$ref最多再经过几层模型
+         */
+        private int refDepth = 3;
+
+        /**
+         * 每个模型引用下一层模型的数量
+         */
+        private int fanOut = 2;
+
+        /**
+         * 最深一层模型是否引用回第0层，形成循环引用
+         */
+        private boolean cyclicRefs;
+
+        /**
+         * 随机种子
+         */
+        private long seed = 42L;
+
+        void validate() {
+            if (paths < 1 || schemas < 1 || tags < 1 || operationsPerPath < 1 || operationsPerPath > 3
+                    || propertiesPerSchema < 0 || refDepth < 0 || fanOut < 0) {
+                throw new IllegalArgumentException("合成OpenAPI参数不合法: " + this);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.tools.admission;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FairSchedulerTest {
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        FairScheduler.bindClient(null);
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private FairScheduler scheduler(int ioConcurrency, long queueTimeoutMs) {
+        FairScheduler scheduler = new FairScheduler();
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "ioConcurrency", ioConcurrency);
+        ReflectionTestUtils.setField(scheduler, "queueTimeoutMs", queueTimeoutMs);
+        scheduler.init();
+        return scheduler;
+    }
+
+    /**
+     * 以client身份在I/O通道中执行work
+     */
+    private Thread submit(FairScheduler scheduler, String client, Runnable work) {
+        Thread thread = new Thread(() -> {
+            FairScheduler.bindClient(client);
+            try {
+                scheduler.io(() -> {
+                    work.run();
+                    return null;
+                });
+            } finally {
+                FairScheduler.bindClient(null);
+            }
+        });
+        threads.add(thread);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * 等待线程进入排队（在通道上限时等待）
+     */
+    private static void awaitQueued(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "request was not queued");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testQueuedClientsAreInterleaved() throws InterruptedException {
+        FairScheduler scheduler = scheduler(1, 5000);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        submit(scheduler, "holder", () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        // 客户端a先排入三个请求，b之后只排入一个，b不必等a的请求全部完成
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        for (String request : Arrays.asList("a1", "a2", "a3")) {
+            awaitQueued(submit(scheduler, "a", () -> order.add(request)));
+        }
+        awaitQueued(submit(scheduler, "b", () -> order.add("b1")));
+
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        assertEquals(Arrays.asList("a1", "b1", "a2", "a3"), order);
+    }
+
+    @Test
+    public void testHeavierClientIsServedMoreOften() throws InterruptedException {
+        FairScheduler scheduler = new FairScheduler();
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "ioConcurrency", 1);
+        ReflectionTestUtils.setField(scheduler, "clientWeights", "portal=2");
+        scheduler.init();
+
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        submit(scheduler, "holder", () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        for (String request : Arrays.asList("ci1", "ci2")) {
+            awaitQueued(submit(scheduler, "ci", () -> order.add(request)));
+        }
+        for (String request : Arrays.asList("portal1", "portal2", "portal3")) {
+            awaitQueued(submit(scheduler, "portal", () -> order.add(request)));
+        }
+
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // 虚拟完成时间：ci 1、2；portal 0.5、1、1.5
+        assertEquals(Arrays.asList("portal1", "ci1", "portal2", "portal3", "ci2"), order);
+    }
+
+    @Test
+    public void testQueueTimeout() throws InterruptedException {
+        FairScheduler scheduler = scheduler(1, 50);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        submit(scheduler, "holder", () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        try {
+            FairScheduler.bindClient("waiting");
+            AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                    () -> scheduler.io(() -> "never"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+            assertEquals("timeout", e.getRejectReason());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testRejectedRequestDoesNotAdvanceClientShare() throws InterruptedException {
+        FairScheduler scheduler = scheduler(1, 5000);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        submit(scheduler, "holder", () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        // a的第一个请求排队时被中断，没有执行
+        List<String> rejections = Collections.synchronizedList(new ArrayList<>());
+        Thread interrupted = new Thread(() -> {
+            FairScheduler.bindClient("a");
+            try {
+                scheduler.io(() -> "never");
+            } catch (AdmissionRejectedException e) {
+                rejections.add(e.getRejectReason());
+            } finally {
+                FairScheduler.bindClient(null);
+            }
+        });
+        threads.add(interrupted);
+        interrupted.start();
+        awaitQueued(interrupted);
+        interrupted.interrupt();
+        interrupted.join(TimeUnit.SECONDS.toMillis(5));
+        assertEquals(Collections.singletonList("interrupted"), rejections);
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        for (String request : Arrays.asList("b1", "b2")) {
+            awaitQueued(submit(scheduler, "b", () -> order.add(request)));
+        }
+        awaitQueued(submit(scheduler, "a", () -> order.add("a1")));
+
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // 虚拟完成时间：b 1、2；被中断的请求不计入，a1为1
+        assertEquals(Arrays.asList("b1", "a1", "b2"), order);
+    }
+
+    @Test
+    public void testUnboundRequestsBypassTheLanes() {
+        FairScheduler scheduler = scheduler(1, 50);
+        assertEquals("direct", scheduler.io(() -> "direct"));
+    }
+
+    @Test
+    public void testRateLimitRetryAfter() {
+        FairScheduler scheduler = new FairScheduler();
+        ReflectionTestUtils.setField(scheduler, "requestsPerMinute", 1.0);
+        ReflectionTestUtils.setField(scheduler, "burst", 2);
+        scheduler.init();
+
+        scheduler.checkRateLimit("ci");
+        scheduler.checkRateLimit("ci");
+        RateLimitedException e = assertThrows(RateLimitedException.class, () -> scheduler.checkRateLimit("ci"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+        // 每分钟一个令牌，下一个令牌在一分钟内可用
+        assertTrue(e.getRetryAfterSeconds() > 0 && e.getRetryAfterSeconds() <= 61);
+
+        // 其他客户端有自己的令牌桶
+        scheduler.checkRateLimit("portal");
+    }
+
+    @Test
+    public void testRateLimitDisabledByDefault() {
+        FairScheduler scheduler = new FairScheduler();
+        scheduler.init();
+        for (int i = 0; i < 100; i++) {
+            scheduler.checkRateLimit("ci");
+        }
+    }
+}
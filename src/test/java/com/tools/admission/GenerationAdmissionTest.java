@@ -0,0 +1,235 @@
+package com.tools.admission;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GenerationAdmissionTest {
+
+    private static final long MB = 1L << 20;
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        joinThreads();
+    }
+
+    private void joinThreads() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * 预算100MB，额度等于输入大小，每个接口1MB
+     */
+    private GenerationAdmission admission(int maxQueue, long queueTimeoutMs) {
+        GenerationAdmission admission = new GenerationAdmission();
+        ReflectionTestUtils.setField(admission, "heapBudgetMb", 100L);
+        ReflectionTestUtils.setField(admission, "maxQueue", maxQueue);
+        ReflectionTestUtils.setField(admission, "queueTimeoutMs", queueTimeoutMs);
+        ReflectionTestUtils.setField(admission, "baseBytes", 0L);
+        ReflectionTestUtils.setField(admission, "openApiBytesPerInputByte", 1L);
+        ReflectionTestUtils.setField(admission, "bytesPerEndpoint", MB);
+        ReflectionTestUtils.setField(admission, "bytesPerDefinition", 0L);
+        admission.init();
+        return admission;
+    }
+
+    private Thread start(Runnable work) {
+        Thread thread = new Thread(work);
+        threads.add(thread);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * 在线程中申请额度，执行work后释放
+     */
+    private Thread admitAndRun(GenerationAdmission admission, long inputBytes, Runnable work,
+                               AtomicReference<Throwable> failure) {
+        return start(() -> {
+            try (GenerationAdmission.Permit ignored = admission.admit(GenerationAdmission.OPENAPI, inputBytes)) {
+                work.run();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+    }
+
+    private static void awaitCondition(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        awaitCondition(() -> thread.getState() == Thread.State.TIMED_WAITING, "request is not waiting");
+    }
+
+    @Test
+    public void testRequestLargerThanBudgetIsRejected() {
+        GenerationAdmission admission = admission(4, 5000);
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> admission.admit(GenerationAdmission.OPENAPI, 101 * MB));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+        assertEquals("too_large", e.getRejectReason());
+        assertEquals(0, admission.getReservedBytes());
+    }
+
+    @Test
+    public void testQueueFullIsRejected() throws InterruptedException {
+        GenerationAdmission admission = admission(1, 5000);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        GenerationAdmission.Permit holder = admission.admit(GenerationAdmission.OPENAPI, 100 * MB);
+        try {
+            awaitWaiting(admitAndRun(admission, MB, () -> {
+            }, failure));
+
+            AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                    () -> admission.admit(GenerationAdmission.OPENAPI, MB));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+            assertEquals("queue_full", e.getRejectReason());
+        } finally {
+            holder.close();
+        }
+        joinThreads();
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void testQueueTimeoutIsRejected() throws InterruptedException {
+        GenerationAdmission admission = admission(4, 50);
+        try (GenerationAdmission.Permit ignored = admission.admit(GenerationAdmission.OPENAPI, 100 * MB)) {
+            AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                    () -> admission.admit(GenerationAdmission.OPENAPI, MB));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+            assertEquals("timeout", e.getRejectReason());
+            assertEquals(0, admission.getQueueDepth());
+        }
+    }
+
+    @Test
+    public void testQueuedRequestsAreAdmittedInArrivalOrder() throws InterruptedException {
+        GenerationAdmission admission = admission(4, 5000);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        GenerationAdmission.Permit holder = admission.admit(GenerationAdmission.OPENAPI, 50 * MB);
+        // 第二个请求本身放得下，但不越过排在前面的大请求
+        awaitWaiting(admitAndRun(admission, 60 * MB, () -> order.add("large"), failure));
+        awaitWaiting(admitAndRun(admission, 10 * MB, () -> order.add("small"), failure));
+        assertEquals(2, admission.getQueueDepth());
+        assertTrue(order.isEmpty());
+
+        holder.close();
+        joinThreads();
+        assertNull(failure.get());
+        assertEquals(Arrays.asList("large", "small"), order);
+        assertEquals(0, admission.getReservedBytes());
+    }
+
+    @Test
+    public void testGrowthWaitsForRelease() throws InterruptedException {
+        GenerationAdmission admission = admission(4, 5000);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicReference<Long> grownCost = new AtomicReference<>();
+
+        GenerationAdmission.Permit holder = admission.admit(GenerationAdmission.OPENAPI, 40 * MB);
+        CountDownLatch admitted = new CountDownLatch(1);
+        Thread growing = start(() -> {
+            try (GenerationAdmission.Permit permit = admission.admit(GenerationAdmission.OPENAPI, 40 * MB)) {
+                admitted.countDown();
+                // 40MB输入加40个接口，调大到80MB，超出剩余预算
+                GenerationAdmission.refineOpenApi(40, 0);
+                grownCost.set(permit.getCostBytes());
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        awaitWaiting(growing);
+        assertNull(grownCost.get());
+
+        holder.close();
+        joinThreads();
+        assertNull(failure.get());
+        assertEquals(80 * MB, grownCost.get().longValue());
+        assertEquals(0, admission.getReservedBytes());
+    }
+
+    @Test
+    public void testGrowthIsRejectedWhenAllHoldersAreGrowing() throws InterruptedException {
+        GenerationAdmission admission = admission(4, 5000);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicReference<Long> grownCost = new AtomicReference<>();
+
+        try (GenerationAdmission.Permit ignored = admission.admit(GenerationAdmission.OPENAPI, 50 * MB)) {
+            Thread growing = start(() -> {
+                try (GenerationAdmission.Permit permit = admission.admit(GenerationAdmission.OPENAPI, 50 * MB)) {
+                    GenerationAdmission.refineOpenApi(30, 0);
+                    grownCost.set(permit.getCostBytes());
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            awaitWaiting(growing);
+
+            // 另一个持有者也在等待调大，互相等待没有结果，直接拒绝
+            AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                    () -> GenerationAdmission.refineOpenApi(30, 0));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+            assertEquals("overcommit", e.getRejectReason());
+            assertEquals("10", e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        }
+
+        // 被拒绝的请求释放额度后，等待调大的请求继续
+        joinThreads();
+        assertNull(failure.get());
+        assertEquals(80 * MB, grownCost.get().longValue());
+        assertEquals(0, admission.getReservedBytes());
+    }
+
+    @Test
+    public void testCloseReleasesBudgetAndThreadBinding() throws InterruptedException {
+        GenerationAdmission admission = admission(4, 5000);
+        GenerationAdmission.Permit permit = admission.admit(GenerationAdmission.OPENAPI, 30 * MB);
+        assertEquals(30 * MB, admission.getReservedBytes());
+
+        permit.close();
+        assertEquals(0, admission.getReservedBytes());
+        // 解除线程绑定后重新估算为空操作
+        GenerationAdmission.refineOpenApi(10, 0);
+        assertEquals(0, admission.getReservedBytes());
+    }
+
+    @Test
+    public void testSharedResultReleasesBudget() throws InterruptedException {
+        GenerationAdmission admission = admission(4, 5000);
+        try (GenerationAdmission.Permit permit = admission.admit(GenerationAdmission.OPENAPI, 30 * MB)) {
+            GenerationAdmission.releaseShared();
+            assertEquals(0, admission.getReservedBytes());
+            assertEquals(0, permit.getCostBytes());
+        }
+        assertEquals(0, admission.getReservedBytes());
+    }
+}
@@ -0,0 +1,226 @@
+package com.tools.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class SingleFlightTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private static final Runnable NO_JOIN = () -> {
+    };
+
+    @Test
+    public void testConcurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(3);
+        Object result = new Object();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Object> leader = executor.submit(() -> flight.execute("key", TIMEOUT_MS, () -> {
+                computations.incrementAndGet();
+                computing.countDown();
+                await(finish);
+                return result;
+            }, NO_JOIN));
+            assertTrue(computing.await(5, TimeUnit.SECONDS));
+
+            Future<?>[] followers = new Future<?>[3];
+            for (int i = 0; i < followers.length; i++) {
+                followers[i] = executor.submit(() -> flight.execute("key", TIMEOUT_MS, () -> {
+                    computations.incrementAndGet();
+                    return new Object();
+                }, joined::countDown));
+            }
+            assertTrue(joined.await(5, TimeUnit.SECONDS));
+            finish.countDown();
+
+            assertSame(result, leader.get(5, TimeUnit.SECONDS));
+            for (Future<?> follower : followers) {
+                assertSame(result, follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+            assertEquals(0, flight.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExceptionIsSharedWithJoinedCallers() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(1);
+        IOException failure = new IOException("spec unavailable");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> leader = executor.submit(() -> flight.execute("key", TIMEOUT_MS, () -> {
+                computing.countDown();
+                await(finish);
+                throw failure;
+            }, NO_JOIN));
+            assertTrue(computing.await(5, TimeUnit.SECONDS));
+            Future<Object> follower = executor.submit(() -> flight.execute("key", TIMEOUT_MS, () -> {
+                throw new AssertionError("joined caller must not compute");
+            }, joined::countDown));
+            assertTrue(joined.await(5, TimeUnit.SECONDS));
+            finish.countDown();
+
+            assertSame(failure, causeOf(leader));
+            assertSame(failure, causeOf(follower));
+            assertEquals(0, flight.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testJoinedCallerStopsWaitingAtTimeout() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Object result = new Object();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> leader = executor.submit(() -> flight.execute("key", TIMEOUT_MS, () -> {
+                computing.countDown();
+                await(finish);
+                return result;
+            }, NO_JOIN));
+            assertTrue(computing.await(5, TimeUnit.SECONDS));
+
+            AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                    () -> flight.execute("key", 50, () -> {
+                        throw new AssertionError("joined caller must not compute");
+                    }, NO_JOIN));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatus());
+            assertEquals("timeout", rejected.getRejectReason());
+
+            // leader不受等待者超时影响
+            finish.countDown();
+            assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLeaderRejectionIsNotSharedWithJoinedCallers() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(1);
+        AdmissionRejectedException rejection = new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                "timeout", "lane timeout");
+        Object result = new Object();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> leader = executor.submit(() -> flight.execute("key", TIMEOUT_MS, () -> {
+                computing.countDown();
+                await(finish);
+                throw rejection;
+            }, NO_JOIN));
+            assertTrue(computing.await(5, TimeUnit.SECONDS));
+            Future<Object> follower = executor.submit(() -> flight.execute("key", TIMEOUT_MS, () -> result,
+                    joined::countDown));
+            assertTrue(joined.await(5, TimeUnit.SECONDS));
+            finish.countDown();
+
+            assertSame(rejection, causeOf(leader));
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+            assertEquals(0, flight.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRuntimeExceptionIsRethrownAsIs() {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        IllegalStateException failure = new IllegalStateException("bad template");
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> flight.execute("key", TIMEOUT_MS, () -> {
+                    throw failure;
+                }, NO_JOIN));
+        assertSame(failure, thrown);
+        assertEquals(0, flight.size());
+    }
+
+    @Test
+    public void testResultsAreNotCached() throws IOException {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+
+        assertEquals(1, flight.execute("key", TIMEOUT_MS, computations::incrementAndGet, NO_JOIN).intValue());
+        assertEquals(2, flight.execute("key", TIMEOUT_MS, computations::incrementAndGet, NO_JOIN).intValue());
+    }
+
+    @Test
+    public void testDifferentKeysDoNotJoin() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = executor.submit(() -> flight.execute("a", TIMEOUT_MS, () -> {
+                computing.countDown();
+                await(finish);
+                return "a";
+            }, NO_JOIN));
+            assertTrue(computing.await(5, TimeUnit.SECONDS));
+
+            assertEquals("b", flight.execute("b", TIMEOUT_MS, () -> "b", () -> fail("different keys must not join")));
+            finish.countDown();
+            assertEquals("a", first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IOException("timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private static Throwable causeOf(Future<?> future) throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            throw new AssertionError("expected the computation to fail");
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.tools.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+    @Test
+    public void testBurstThenWait() {
+        // 每分钟60个令牌，即每秒一个
+        TokenBucket bucket = new TokenBucket(3, 60);
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+
+        long waitNanos = bucket.tryAcquire();
+        assertTrue(waitNanos > 0);
+        assertTrue(waitNanos <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testRefill() throws InterruptedException {
+        // 每毫秒一个令牌
+        TokenBucket bucket = new TokenBucket(2, 60000);
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertFalse(bucket.isFull());
+
+        Thread.sleep(20);
+
+        assertTrue(bucket.isFull());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+    }
+
+    @Test
+    public void testRefillIsCappedAtCapacity() throws InterruptedException {
+        // 每10毫秒一个令牌，空闲100毫秒后仍然最多只有2个
+        TokenBucket bucket = new TokenBucket(2, 6000);
+        Thread.sleep(100);
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+    }
+}
@@ -1,11 +1,15 @@
 package com.tools.controller;
 
+import com.tools.admission.FairScheduler;
+import com.tools.model.ApiFilter;
 import com.tools.services.OpenApiDocService;
+import com.tools.services.OpenApiParserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
@@ -28,6 +32,13 @@ public class OpenApiDocControllerTest {
     @Mock
     private OpenApiDocService openApiDocService;
 
+    @Mock
+    private OpenApiParserService parserService;
+
+    /** 未启用调度时直接在调用线程上执行 */
+    @Spy
+    private FairScheduler scheduler = new FairScheduler();
+
     @InjectMocks
     private OpenApiDocController controller;
 
@@ -43,10 +54,13 @@ public class OpenApiDocControllerTest {
         // Sample test data
         String openApiUrl = "https://petstore.swagger.io/v2/swagger.json";
         String templateName = null;
+        String openApiJson = "{ \"swagger\": \"2.0\" }";
         byte[] docBytes = "sample doc content".getBytes(StandardCharsets.UTF_8);
 
         // Mock service behavior
-        when(openApiDocService.generateDocFromUrl(eq(openApiUrl), eq(templateName))).thenReturn(docBytes);
+        when(openApiDocService.fetch(eq(openApiUrl))).thenReturn(openApiJson);
+        when(openApiDocService.generateDocFromJson(eq(openApiJson), eq(templateName), any(ApiFilter.class)))
+                .thenReturn(docBytes);
 
         // Execute and verify
         mockMvc.perform(post("/api/openapi-doc/generate-from-url")
@@ -68,8 +82,12 @@ public class OpenApiDocControllerTest {
                 "application/vnd.openxmlformats-officedocument.wordprocessingml.document", 
                 "template content".getBytes(StandardCharsets.UTF_8));
 
+        String openApiJson = "{ \"swagger\": \"2.0\" }";
+
         // Mock service behavior
-        when(openApiDocService.generateDocFromUrl(eq(openApiUrl), any(InputStream.class))).thenReturn(docBytes);
+        when(openApiDocService.fetch(eq(openApiUrl))).thenReturn(openApiJson);
+        when(openApiDocService.generateDocFromJson(eq(openApiJson), any(InputStream.class), any(ApiFilter.class)))
+                .thenReturn(docBytes);
 
         // Execute and verify
         mockMvc.perform(multipart("/api/openapi-doc/generate-from-url")
@@ -89,7 +107,8 @@ public class OpenApiDocControllerTest {
         byte[] docBytes = "sample doc content".getBytes(StandardCharsets.UTF_8);
 
         // Mock service behavior
-        when(openApiDocService.generateDocFromJson(eq(openApiJson), eq(templateName))).thenReturn(docBytes);
+        when(openApiDocService.generateDocFromJson(eq(openApiJson), eq(templateName), any(ApiFilter.class)))
+                .thenReturn(docBytes);
 
         // Execute and verify
         mockMvc.perform(post("/api/openapi-doc/generate-from-json")
@@ -116,7 +135,8 @@ public class OpenApiDocControllerTest {
                 openApiJsonContent.getBytes(StandardCharsets.UTF_8));
 
         // Mock service behavior
-        when(openApiDocService.generateDocFromFile(any(InputStream.class), eq(templateName))).thenReturn(docBytes);
+        when(openApiDocService.generateDocFromFile(any(InputStream.class), eq(templateName), any(ApiFilter.class)))
+                .thenReturn(docBytes);
 
         // Execute and verify
         mockMvc.perform(multipart("/api/openapi-doc/generate-from-file")
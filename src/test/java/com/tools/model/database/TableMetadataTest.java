@@ -0,0 +1,143 @@
+package com.tools.model.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TableMetadataTest {
+
+    private static ColumnMetadata column(String name) {
+        ColumnMetadata column = new ColumnMetadata();
+        column.setColumnName(name);
+        return column;
+    }
+
+    private static IndexMetadata index(String name) {
+        IndexMetadata index = new IndexMetadata();
+        index.setIndexName(name);
+        return index;
+    }
+
+    @Test
+    public void testLookupByName() {
+        TableMetadata table = new TableMetadata();
+        ColumnMetadata id = column("ID");
+        table.addColumn(id);
+        table.addColumn(column("Name"));
+
+        assertSame(id, table.getColumn("ID"));
+        assertNull(table.getColumn("id"));
+        assertSame(id, table.findColumnByName("id").orElse(null));
+        assertFalse(table.findColumnByName("missing").isPresent());
+        assertFalse(table.findColumnByName(null).isPresent());
+    }
+
+    @Test
+    public void testDuplicateNamesKeepFirst() {
+        TableMetadata table = new TableMetadata();
+        ColumnMetadata first = column("code");
+        table.addColumn(first);
+        table.addColumn(column("code"));
+        table.addColumn(column("CODE"));
+
+        assertSame(first, table.getColumn("code"));
+        assertSame(first, table.findColumnByName("Code").orElse(null));
+    }
+
+    @Test
+    public void testAddAfterLookupUpdatesIndex() {
+        TableMetadata table = new TableMetadata();
+        table.addColumn(column("id"));
+        assertNull(table.getColumn("name"));
+        assertFalse(table.isPrimaryKey("id"));
+        assertFalse(table.findIndexByName("idx_name").isPresent());
+
+        ColumnMetadata name = column("name");
+        table.addColumn(name);
+        table.addPrimaryKey("id");
+        table.addIndex(index("idx_name"));
+
+        assertSame(name, table.getColumn("name"));
+        assertTrue(table.isPrimaryKey("id"));
+        assertTrue(table.findIndexByName("idx_name").isPresent());
+    }
+
+    @Test
+    public void testSettersInvalidateIndex() {
+        TableMetadata table = new TableMetadata();
+        table.addColumn(column("old"));
+        table.addPrimaryKey("old");
+        table.addIndex(index("idx_old"));
+        assertTrue(table.isPrimaryKey("old"));
+
+        ColumnMetadata replacement = column("new");
+        table.setColumns(new ArrayList<>(Collections.singletonList(replacement)));
+        table.setPrimaryKeys(new ArrayList<>(Collections.singletonList("new")));
+        table.setIndexes(new ArrayList<>(Collections.singletonList(index("idx_new"))));
+
+        assertNull(table.getColumn("old"));
+        assertSame(replacement, table.getColumn("new"));
+        assertFalse(table.isPrimaryKey("old"));
+        assertTrue(table.isPrimaryKey("new"));
+        assertFalse(table.findIndexByName("idx_old").isPresent());
+        assertTrue(table.findIndexByName("idx_new").isPresent());
+    }
+
+    @Test
+    public void testDirectListChangesRebuildIndex() {
+        TableMetadata table = new TableMetadata();
+        table.addColumn(column("id"));
+        assertNull(table.getColumn("added"));
+
+        // 绕过add方法直接修改列表
+        ColumnMetadata added = column("added");
+        table.getColumns().add(added);
+        table.getPrimaryKeys().add("added");
+        table.getIndexes().add(index("idx_added"));
+
+        assertSame(added, table.getColumn("added"));
+        assertTrue(table.isPrimaryKey("added"));
+        assertTrue(table.findIndexByName("idx_added").isPresent());
+
+        table.getColumns().remove(added);
+        assertNull(table.getColumn("added"));
+    }
+
+    @Test
+    public void testNullLists() {
+        TableMetadata table = new TableMetadata();
+        table.setColumns(null);
+        table.setPrimaryKeys(null);
+        table.setIndexes(null);
+
+        assertNull(table.getColumn("id"));
+        assertFalse(table.isPrimaryKey("id"));
+        assertFalse(table.findIndexByName("idx").isPresent());
+
+        table.setColumns(new ArrayList<>(Arrays.asList(column("id"), null, column(null))));
+        assertTrue(table.findColumnByName("ID").isPresent());
+    }
+
+    @Test
+    public void testIndexDoesNotAffectEquality() {
+        TableMetadata indexed = new TableMetadata();
+        indexed.setTableName("t");
+        indexed.addColumn(column("id"));
+        TableMetadata plain = new TableMetadata();
+        plain.setTableName("t");
+        plain.addColumn(column("id"));
+
+        indexed.getColumn("id");
+
+        assertEquals(plain, indexed);
+        assertEquals(plain.hashCode(), indexed.hashCode());
+    }
+}
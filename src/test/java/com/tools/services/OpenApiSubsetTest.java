@@ -0,0 +1,150 @@
+package com.tools.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tools.model.ApiFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OpenApiSubsetTest {
+
+    private static final String SPEC = "{"
+            + "'openapi': '3.0.1',"
+            + "'paths': {"
+            + "  '/pets': {"
+            + "    'get': {'tags': ['pets'], 'responses': {'200': {'content': {'application/json': {'schema':"
+            + "      {'type': 'array', 'items': {'$ref': '#/components/schemas/Pet'}}}}}}},"
+            + "    'post': {'tags': ['pets'], 'requestBody': {'$ref': '#/components/requestBodies/NewPet'}}"
+            + "  },"
+            + "  '/users/{id}': {"
+            + "    'parameters': [{'$ref': '#/components/parameters/UserId'}],"
+            + "    'get': {'tags': ['users'], 'responses': {'200': {'content': {'application/json': {'schema':"
+            + "      {'$ref': '#/components/schemas/User'}}}}}},"
+            + "    'delete': {'tags': ['users'], 'responses': {'200': {'content': {'application/json': {'schema':"
+            + "      {'$ref': '#/components/schemas/DeleteResult'}}}}}}"
+            + "  }"
+            + "},"
+            + "'components': {"
+            + "  'schemas': {"
+            + "    'Pet': {'properties': {"
+            + "      'owner': {'$ref': '#/components/schemas/Owner'},"
+            + "      'tags': {'type': 'array', 'items': {'$ref': '#/components/schemas/Tag'}},"
+            + "      'kind': {'$ref': '#/components/schemas/Animal'}}},"
+            + "    'Owner': {'properties': {'pets': {'type': 'array', 'items': {'$ref': '#/components/schemas/Pet'}}}},"
+            + "    'Tag': {'type': 'object'},"
+            + "    'Animal': {'discriminator': {'propertyName': 'type', 'mapping': {'cat': '#/components/schemas/Cat'}}},"
+            + "    'Cat': {'type': 'object'},"
+            + "    'NewPet': {'type': 'object'},"
+            + "    'User': {'type': 'object'},"
+            + "    'UserIdType': {'type': 'string'},"
+            + "    'DeleteResult': {'type': 'object'},"
+            + "    'Unused': {'type': 'object'}"
+            + "  },"
+            + "  'requestBodies': {'NewPet': {'content': {'application/json': {'schema':"
+            + "    {'$ref': '#/components/schemas/NewPet'}}}}},"
+            + "  'parameters': {'UserId': {'name': 'id', 'in': 'path', 'schema':"
+            + "    {'$ref': '#/components/schemas/UserIdType'}}}"
+            + "}"
+            + "}";
+
+    private JsonNode root;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        root = new ObjectMapper().readTree(SPEC.replace('\'', '"'));
+    }
+
+    @Test
+    public void testTagFilterKeepsTransitivelyReachableSchemas() {
+        ApiFilter filter = new ApiFilter();
+        filter.setIncludeTags(Collections.singletonList("pets"));
+
+        JsonNode subset = OpenApiSubset.apply(root, filter);
+
+        assertEquals(names("/pets"), fieldNames(subset.path("paths")));
+        assertEquals(2, subset.path("paths").path("/pets").size());
+        // Pet -> Owner -> Pet（循环）、Tag、Animal -> Cat（discriminator映射），NewPet经由requestBodies
+        assertEquals(names("Pet", "Owner", "Tag", "Animal", "Cat", "NewPet"),
+                fieldNames(subset.path("components").path("schemas")));
+        // 其他components原样保留
+        assertTrue(subset.path("components").path("parameters").has("UserId"));
+    }
+
+    @Test
+    public void testPathAndMethodFilter() {
+        ApiFilter filter = new ApiFilter();
+        filter.setIncludePaths(Collections.singletonList("/users/**"));
+        filter.setMethods(Collections.singletonList("GET"));
+
+        JsonNode subset = OpenApiSubset.apply(root, filter);
+
+        JsonNode users = subset.path("paths").path("/users/{id}");
+        // 路径级的参数随路径保留，未选中的方法被移除
+        assertEquals(names("parameters", "get"), fieldNames(users));
+        assertEquals(names("User", "UserIdType"), fieldNames(subset.path("components").path("schemas")));
+    }
+
+    @Test
+    public void testExcludeWinsOverInclude() {
+        ApiFilter filter = new ApiFilter();
+        filter.setIncludeTags(Arrays.asList("pets", "users"));
+        filter.setExcludePaths(Collections.singletonList("/pets"));
+
+        JsonNode subset = OpenApiSubset.apply(root, filter);
+
+        assertEquals(names("/users/{id}"), fieldNames(subset.path("paths")));
+        assertFalse(subset.path("components").path("schemas").has("Pet"));
+    }
+
+    @Test
+    public void testOriginalTreeIsNotModified() {
+        ApiFilter filter = new ApiFilter();
+        filter.setIncludeTags(Collections.singletonList("users"));
+
+        OpenApiSubset.apply(root, filter);
+
+        assertEquals(2, root.path("paths").size());
+        assertEquals(10, root.path("components").path("schemas").size());
+    }
+
+    @Test
+    public void testUnrestrictedFilterReturnsOriginal() {
+        assertSame(root, OpenApiSubset.apply(root, new ApiFilter()));
+        assertSame(root, OpenApiSubset.apply(root, null));
+    }
+
+    @Test
+    public void testEscapedAndExternalReferences() throws IOException {
+        JsonNode components = new ObjectMapper().readTree(("{'schemas': {"
+                + "'a/b': {'properties': {'c': {'$ref': '#/components/schemas/c~0d'}}},"
+                + "'c~d': {'properties': {'ext': {'$ref': 'common.yaml#/Error'}}}}}").replace('\'', '"'));
+        JsonNode paths = new ObjectMapper().readTree("{\"$ref\": \"#/components/schemas/a~1b\"}");
+
+        assertEquals(names("a/b", "c~d"), OpenApiSubset.reachableSchemas(paths, components));
+    }
+
+    private static Set<String> names(String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+        Set<String> names = new HashSet<>();
+        Iterator<String> iterator = node.fieldNames();
+        while (iterator.hasNext()) {
+            names.add(iterator.next());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,183 @@
+package com.tools.services.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLInvalidAuthorizationSpecException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CatalogCircuitBreakerTest {
+
+    private static final long OPEN_SECONDS = 1;
+
+    private String target;
+
+    @BeforeEach
+    public void setup() {
+        CatalogCircuitBreaker.configure(true, 3, OPEN_SECONDS);
+        // 熔断器按目标保存状态，每个测试使用独立的目标
+        target = CatalogCircuitBreaker.target(
+                "jdbc:postgresql://db-" + UUID.randomUUID() + ".example.com/app?password=secret", "app");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        CatalogCircuitBreaker.configure(true, 3, 60);
+    }
+
+    private void recordFailures(int times) {
+        for (int i = 0; i < times; i++) {
+            CatalogCircuitBreaker.recordFailure(target);
+        }
+    }
+
+    private static void waitUntilHalfOpen() throws InterruptedException {
+        Thread.sleep(OPEN_SECONDS * 1000 + 100);
+    }
+
+    @Test
+    public void testStaysClosedBelowThreshold() {
+        recordFailures(2);
+
+        assertFalse(CatalogCircuitBreaker.acquire(target));
+    }
+
+    @Test
+    public void testSuccessResetsConsecutiveFailures() {
+        recordFailures(2);
+        CatalogCircuitBreaker.recordSuccess(target);
+        recordFailures(2);
+
+        assertFalse(CatalogCircuitBreaker.acquire(target));
+    }
+
+    @Test
+    public void testOpensAtThreshold() {
+        recordFailures(3);
+
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, () -> CatalogCircuitBreaker.acquire(target));
+        assertTrue(e.getRetryAfterSeconds() >= 1 && e.getRetryAfterSeconds() <= OPEN_SECONDS + 1);
+        // 返回给客户端的消息不包含可能带有凭据的URL
+        assertFalse(e.getMessage().contains("secret"));
+        assertFalse(e.getMessage().contains("jdbc:"));
+    }
+
+    @Test
+    public void testHealthyTargetsKeepNoState() {
+        int before = CatalogCircuitBreaker.size();
+        assertFalse(CatalogCircuitBreaker.acquire(target));
+        CatalogCircuitBreaker.recordSuccess(target);
+        assertEquals(before, CatalogCircuitBreaker.size());
+
+        recordFailures(1);
+        assertEquals(before + 1, CatalogCircuitBreaker.size());
+        CatalogCircuitBreaker.recordSuccess(target);
+        assertEquals(before, CatalogCircuitBreaker.size());
+    }
+
+    @Test
+    public void testTargetMasksCredentials() {
+        assertEquals("jdbc:mysql://db:3306/app?useSSL=false&password=***&user=app|app",
+                CatalogCircuitBreaker.target("jdbc:mysql://db:3306/app?useSSL=false&password=s3cret&user=app", "app"));
+        assertEquals("jdbc:sqlserver://db:1433;databaseName=app;Password=***;encrypt=true|sa",
+                CatalogCircuitBreaker.target("jdbc:sqlserver://db:1433;databaseName=app;Password=s3cret;encrypt=true",
+                        "sa"));
+        assertEquals("jdbc:postgresql://app:***@db:5432/app|app",
+                CatalogCircuitBreaker.target("jdbc:postgresql://app:s3cret@db:5432/app", "app"));
+        assertEquals("jdbc:oracle:thin:scott/***@db:1521/orcl|scott",
+                CatalogCircuitBreaker.target("jdbc:oracle:thin:scott/s3cret@db:1521/orcl", "scott"));
+        assertEquals("jdbc:oracle:thin:@//db:1521/orcl|scott",
+                CatalogCircuitBreaker.target("jdbc:oracle:thin:@//db:1521/orcl", "scott"));
+        assertFalse(target.contains("secret"));
+    }
+
+    @Test
+    public void testTargetsAreIndependent() {
+        recordFailures(3);
+
+        assertFalse(CatalogCircuitBreaker.acquire(target.replace("|app", "|report")));
+        assertThrows(CircuitOpenException.class, () -> CatalogCircuitBreaker.acquire(target));
+    }
+
+    @Test
+    public void testHalfOpenTrialSuccessCloses() throws InterruptedException {
+        recordFailures(3);
+        waitUntilHalfOpen();
+
+        assertTrue(CatalogCircuitBreaker.acquire(target));
+        // 试探期间其他提取仍被拒绝
+        assertThrows(CircuitOpenException.class, () -> CatalogCircuitBreaker.acquire(target));
+
+        CatalogCircuitBreaker.recordSuccess(target);
+        CatalogCircuitBreaker.release(target, true);
+
+        assertFalse(CatalogCircuitBreaker.acquire(target));
+        assertFalse(CatalogCircuitBreaker.acquire(target));
+    }
+
+    @Test
+    public void testHalfOpenTrialFailureReopens() throws InterruptedException {
+        recordFailures(3);
+        waitUntilHalfOpen();
+
+        assertTrue(CatalogCircuitBreaker.acquire(target));
+        // 一次失败即重新打开，不需要再达到阈值
+        CatalogCircuitBreaker.recordFailure(target);
+        CatalogCircuitBreaker.release(target, true);
+
+        assertThrows(CircuitOpenException.class, () -> CatalogCircuitBreaker.acquire(target));
+    }
+
+    @Test
+    public void testTrialEndingWithOtherErrorAllowsAnotherTrial() throws InterruptedException {
+        recordFailures(3);
+        waitUntilHalfOpen();
+
+        assertTrue(CatalogCircuitBreaker.acquire(target));
+        // 试探因不计入熔断的错误（如认证失败）结束
+        CatalogCircuitBreaker.release(target, true);
+
+        assertTrue(CatalogCircuitBreaker.acquire(target));
+        CatalogCircuitBreaker.release(target, true);
+    }
+
+    @Test
+    public void testDisabled() {
+        CatalogCircuitBreaker.configure(false, 1, OPEN_SECONDS);
+        recordFailures(5);
+
+        assertFalse(CatalogCircuitBreaker.acquire(target));
+    }
+
+    @Test
+    public void testOnlyConnectionFailuresCount() {
+        assertTrue(AbstractDatabaseMetadataExtractor.isTargetFailure(new SQLException("refused", "08001")));
+        assertTrue(AbstractDatabaseMetadataExtractor.isTargetFailure(new SQLRecoverableException("io error")));
+        assertTrue(AbstractDatabaseMetadataExtractor.isTargetFailure(
+                new SQLNonTransientConnectionException("closed")));
+        // 连接池包装的驱动错误没有SQLSTATE
+        assertTrue(AbstractDatabaseMetadataExtractor.isTargetFailure(
+                new SQLException("Cannot create PoolableConnectionFactory", new SQLException("refused", "08001"))));
+
+        assertFalse(AbstractDatabaseMetadataExtractor.isTargetFailure(
+                new SQLException("password authentication failed", "28P01")));
+        assertFalse(AbstractDatabaseMetadataExtractor.isTargetFailure(
+                new SQLInvalidAuthorizationSpecException("access denied")));
+        assertFalse(AbstractDatabaseMetadataExtractor.isTargetFailure(
+                new SQLNonTransientConnectionException("access denied", "28000")));
+        assertFalse(AbstractDatabaseMetadataExtractor.isTargetFailure(
+                new SQLException("Cannot create PoolableConnectionFactory", new SQLException("denied", "28000"))));
+        assertFalse(AbstractDatabaseMetadataExtractor.isTargetFailure(new SQLSyntaxErrorException("syntax", "42601")));
+        assertFalse(AbstractDatabaseMetadataExtractor.isTargetFailure(new SQLException("permission denied", "42501")));
+    }
+}
@@ -0,0 +1,174 @@
+package com.tools.services.database;
+
+import com.tools.model.database.ColumnMetadata;
+import com.tools.model.database.TableMetadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ExtractionCheckpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path directory;
+
+    @BeforeEach
+    public void setup() {
+        directory = tempDir.resolve("private").resolve("checkpoints");
+        ExtractionCheckpoint.configure(true, directory.toString());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ExtractionCheckpoint.configure(false, null);
+    }
+
+    private static TableMetadata table(String name) {
+        TableMetadata table = new TableMetadata();
+        table.setTableName(name);
+        ColumnMetadata column = new ColumnMetadata();
+        column.setColumnName("id");
+        column.setOrdinalPosition(1);
+        column.setDataType("INTEGER");
+        table.addColumn(column);
+        table.addPrimaryKey("id");
+        return table;
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        ExtractionCheckpoint.configure(false, null);
+
+        assertFalse(ExtractionCheckpoint.isEnabled());
+        assertNull(ExtractionCheckpoint.open("key", "fingerprint"));
+        assertFalse(Files.exists(directory));
+    }
+
+    @Test
+    public void testResumeWithSameFingerprint() {
+        ExtractionCheckpoint checkpoint = ExtractionCheckpoint.open("key", "v1");
+        assertNotNull(checkpoint);
+        assertNull(checkpoint.completed("orders"));
+        checkpoint.save(table("orders"));
+        checkpoint.save(table("users"));
+        // 提取中途失败，文件保留
+        checkpoint.close();
+
+        ExtractionCheckpoint resumed = ExtractionCheckpoint.open("key", "v1");
+        assertNotNull(resumed);
+        TableMetadata orders = resumed.completed("orders");
+        assertNotNull(orders);
+        assertEquals("id", orders.getColumns().get(0).getColumnName());
+        assertNotNull(orders.getColumn("id"));
+        assertEquals(1, orders.getPrimaryKeys().size());
+        assertNotNull(resumed.completed("users"));
+        assertNull(resumed.completed("items"));
+        assertEquals(2, resumed.getResumedTables());
+
+        // 恢复后继续追加
+        resumed.save(table("items"));
+        resumed.close();
+        ExtractionCheckpoint again = ExtractionCheckpoint.open("key", "v1");
+        assertNotNull(again.completed("items"));
+        again.close();
+    }
+
+    @Test
+    public void testFingerprintChangeDiscardsCheckpoint() {
+        ExtractionCheckpoint checkpoint = ExtractionCheckpoint.open("key", "v1");
+        checkpoint.save(table("orders"));
+        checkpoint.close();
+
+        ExtractionCheckpoint changed = ExtractionCheckpoint.open("key", "v2");
+        assertNotNull(changed);
+        assertNull(changed.completed("orders"));
+        assertEquals(0, changed.getResumedTables());
+        changed.close();
+
+        // 新指纹的检查点替换了旧文件
+        ExtractionCheckpoint old = ExtractionCheckpoint.open("key", "v1");
+        assertNull(old.completed("orders"));
+        old.close();
+    }
+
+    @Test
+    public void testCompleteDeletesFile() throws IOException {
+        ExtractionCheckpoint checkpoint = ExtractionCheckpoint.open("key", "v1");
+        checkpoint.save(table("orders"));
+        assertEquals(1, files().size());
+
+        checkpoint.complete();
+
+        assertEquals(0, files().size());
+        ExtractionCheckpoint next = ExtractionCheckpoint.open("key", "v1");
+        assertNull(next.completed("orders"));
+        next.close();
+    }
+
+    @Test
+    public void testSameKeyIsUsedByOneExtractionAtATime() {
+        ExtractionCheckpoint first = ExtractionCheckpoint.open("key", "v1");
+        assertNotNull(first);
+
+        assertNull(ExtractionCheckpoint.open("key", "v1"));
+        ExtractionCheckpoint other = ExtractionCheckpoint.open("other", "v1");
+        assertNotNull(other);
+
+        first.close();
+        other.close();
+        ExtractionCheckpoint reopened = ExtractionCheckpoint.open("key", "v1");
+        assertNotNull(reopened);
+        reopened.close();
+    }
+
+    @Test
+    public void testTruncatedRecordIsIgnored() throws IOException {
+        ExtractionCheckpoint checkpoint = ExtractionCheckpoint.open("key", "v1");
+        checkpoint.save(table("orders"));
+        checkpoint.close();
+        // 写入时中断留下的不完整记录
+        Files.write(files().get(0), "{\"tableName\":\"us".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ExtractionCheckpoint resumed = ExtractionCheckpoint.open("key", "v1");
+        assertNotNull(resumed.completed("orders"));
+        assertNull(resumed.completed("users"));
+        resumed.close();
+    }
+
+    @Test
+    public void testOwnerOnlyPermissions() throws IOException {
+        assumeTrue(tempDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        ExtractionCheckpoint checkpoint = ExtractionCheckpoint.open("key", "v1");
+        checkpoint.close();
+
+        assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(directory));
+        assertEquals(PosixFilePermissions.fromString("rwx------"),
+                Files.getPosixFilePermissions(directory.getParent()));
+        assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(files().get(0)));
+    }
+}
@@ -0,0 +1,125 @@
+package com.tools.services.database;
+
+import com.tools.model.database.DatabaseConnectionConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TableNameFilterTest {
+
+    private static DatabaseConnectionConfig config(List<String> includes, List<String> excludes) {
+        DatabaseConnectionConfig config = new DatabaseConnectionConfig();
+        config.setIncludeTables(includes);
+        config.setExcludeTables(excludes);
+        return config;
+    }
+
+    @Test
+    public void testNoConditions() {
+        TableNameFilter filter = TableNameFilter.of(config(null, Arrays.asList(" ", "")));
+
+        assertTrue(filter.isEmpty());
+        assertFalse(filter.hasLikePatterns());
+        assertTrue(filter.matches("ANY_TABLE"));
+        assertFalse(filter.matches(null));
+        List<String> params = new ArrayList<>();
+        assertEquals("", filter.sqlCondition("TABLE_NAME", params));
+        assertTrue(params.isEmpty());
+    }
+
+    @Test
+    public void testLikeWildcards() {
+        TableNameFilter filter = TableNameFilter.of(config(Arrays.asList("sys_%", "t_user_"), null));
+
+        assertTrue(filter.matches("SYS_USER"));
+        assertTrue(filter.matches("sys_"));
+        assertTrue(filter.matches("t_user1"));
+        assertFalse(filter.matches("t_user12"));
+        assertFalse(filter.matches("t_user"));
+        assertFalse(filter.matches("order_sys_log"));
+    }
+
+    @Test
+    public void testLikeLiteralsAreNotRegex() {
+        // 除%和_之外的字符按字面匹配，包括正则元字符
+        TableNameFilter filter = TableNameFilter.of(config(Collections.singletonList("a.b$(1)%"), null));
+
+        assertTrue(filter.matches("A.B$(1)_LOG"));
+        assertFalse(filter.matches("axb$(1)"));
+        assertFalse(filter.matches("a.b1"));
+    }
+
+    @Test
+    public void testExcludeWinsOverInclude() {
+        TableNameFilter filter = TableNameFilter.of(config(Collections.singletonList("t_%"),
+                Collections.singletonList("%_bak")));
+
+        assertTrue(filter.matches("t_order"));
+        assertFalse(filter.matches("t_order_bak"));
+        assertFalse(filter.matches("order"));
+    }
+
+    @Test
+    public void testRegexConditions() {
+        DatabaseConnectionConfig config = config(null, null);
+        config.setIncludeTableRegex("t_.*");
+        config.setExcludeTableRegex(".*_\\d{8}");
+        TableNameFilter filter = TableNameFilter.of(config);
+
+        assertFalse(filter.isEmpty());
+        // 正则只在客户端匹配，不下推
+        assertFalse(filter.hasLikePatterns());
+        assertTrue(filter.matches("T_ORDER"));
+        assertFalse(filter.matches("t_order_20240101"));
+        assertFalse(filter.matches("order"));
+        assertEquals("", filter.sqlCondition("TABLE_NAME", new ArrayList<>()));
+    }
+
+    @Test
+    public void testInvalidRegex() {
+        DatabaseConnectionConfig config = config(null, null);
+        config.setIncludeTableRegex("t_(");
+
+        assertThrows(PatternSyntaxException.class, () -> TableNameFilter.of(config));
+    }
+
+    @Test
+    public void testSqlCondition() {
+        TableNameFilter filter = TableNameFilter.of(config(Arrays.asList("sys_%", " t_user "),
+                Arrays.asList("%_bak", "%_tmp")));
+        List<String> params = new ArrayList<>();
+
+        String condition = filter.sqlCondition("c.relname", params);
+
+        assertEquals(" AND (UPPER(c.relname) LIKE ? OR UPPER(c.relname) LIKE ?)"
+                + " AND UPPER(c.relname) NOT LIKE ? AND UPPER(c.relname) NOT LIKE ?", condition);
+        assertEquals(Arrays.asList("SYS_%", "T_USER", "%_BAK", "%_TMP"), params);
+    }
+
+    @Test
+    public void testSqlConditionExcludesOnly() {
+        TableNameFilter filter = TableNameFilter.of(config(null, Collections.singletonList("tmp%")));
+        List<String> params = new ArrayList<>();
+
+        assertEquals(" AND UPPER(TABLE_NAME) NOT LIKE ?", filter.sqlCondition("TABLE_NAME", params));
+        assertEquals(Collections.singletonList("TMP%"), params);
+    }
+
+    @Test
+    public void testIncluding() {
+        TableNameFilter filter = TableNameFilter.including(Arrays.asList("app_%", "REPORTING"));
+
+        assertTrue(filter.matches("APP_CORE"));
+        assertTrue(filter.matches("reporting"));
+        assertFalse(filter.matches("public"));
+    }
+}
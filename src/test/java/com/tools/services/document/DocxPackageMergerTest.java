@@ -0,0 +1,179 @@
+package com.tools.services.document;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DocxPackageMergerTest {
+
+    private static final String W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String STYLES = "<w:styles xmlns:w=\"" + W + "\"/>";
+    private static final String TEMPLATE_NUMBERING = "<w:abstractNum w:abstractNumId=\"0\"><w:lvl w:ilvl=\"0\"/></w:abstractNum>"
+            + "<w:num w:numId=\"1\"><w:abstractNumId w:val=\"0\"/></w:num>";
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 由同一模板渲染的片段：两个书签（ID 0和1），追加一个编号定义（abstractNum 1、num 2）并在正文中引用
+     */
+    private Path fragment(String name, String styles, String templateNumbering) throws IOException {
+        String document = "<w:document xmlns:w=\"" + W + "\"><w:body>"
+                + "<w:p><w:bookmarkStart w:id=\"0\" w:name=\"" + name + "-a\"/><w:r><w:t>" + name + "</w:t></w:r>"
+                + "<w:bookmarkEnd w:id=\"0\"/></w:p>"
+                + "<w:p><w:bookmarkStart w:id=\"1\" w:name=\"" + name + "-b\"/><w:bookmarkEnd w:id=\"1\"/></w:p>"
+                + "<w:p><w:pPr><w:numPr><w:ilvl w:val=\"0\"/><w:numId w:val=\"2\"/></w:numPr></w:pPr></w:p>"
+                + "<w:sectPr/></w:body></w:document>";
+        int split = templateNumbering.indexOf("<w:num ");
+        String numbering = "<w:numbering xmlns:w=\"" + W + "\">" + templateNumbering.substring(0, split)
+                + "<w:abstractNum w:abstractNumId=\"1\"><w:lvl w:ilvl=\"0\"><w:lvlText w:val=\"" + name + "\"/></w:lvl></w:abstractNum>"
+                + templateNumbering.substring(split)
+                + "<w:num w:numId=\"2\"><w:abstractNumId w:val=\"1\"/></w:num></w:numbering>";
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("word/document.xml", document);
+        entries.put("word/styles.xml", styles);
+        entries.put("word/numbering.xml", numbering);
+        Path file = directory.resolve(name + ".docx");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(zip(entries));
+        }
+        return file;
+    }
+
+    private static byte[] template() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("word/document.xml", "<w:document xmlns:w=\"" + W + "\"><w:body/></w:document>");
+        entries.put("word/styles.xml", STYLES);
+        entries.put("word/numbering.xml", "<w:numbering xmlns:w=\"" + W + "\">" + TEMPLATE_NUMBERING + "</w:numbering>");
+        return zip(entries);
+    }
+
+    private static byte[] zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(buffer)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    private static Map<String, String> unzip(byte[] content) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(content))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                byte[] chunk = new byte[8192];
+                int read;
+                while ((read = zip.read(chunk)) != -1) {
+                    buffer.write(chunk, 0, read);
+                }
+                entries.put(entry.getName(), new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private static List<String> matches(String xml, String regex) {
+        List<String> values = new ArrayList<>();
+        Matcher matcher = Pattern.compile(regex).matcher(xml);
+        while (matcher.find()) {
+            values.add(matcher.group(1));
+        }
+        return values;
+    }
+
+    private static Map<String, String> merge(List<Path> parts) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DocxPackageMerger.merge(parts, template(), output);
+        return unzip(output.toByteArray());
+    }
+
+    @Test
+    public void testBookmarkIdsAreUniqueAcrossFragments() throws IOException {
+        Map<String, String> merged = merge(Arrays.asList(
+                fragment("first", STYLES, TEMPLATE_NUMBERING), fragment("second", STYLES, TEMPLATE_NUMBERING)));
+        String document = merged.get("word/document.xml");
+
+        assertEquals(Arrays.asList("0", "1", "2", "3"), matches(document, "<w:bookmarkStart w:id=\"(\\d+)\""));
+        assertEquals(Arrays.asList("0", "1", "2", "3"), matches(document, "<w:bookmarkEnd w:id=\"(\\d+)\""));
+        assertEquals(Arrays.asList("first-a", "first-b", "second-a", "second-b"),
+                matches(document, "w:name=\"([\\w-]+)\""));
+        // 节属性只保留一份
+        assertEquals(1, matches(document, "(<w:sectPr)").size());
+        assertEquals(STYLES, merged.get("word/styles.xml"));
+    }
+
+    @Test
+    public void testAddedNumberingIsRenumbered() throws IOException {
+        Map<String, String> merged = merge(Arrays.asList(
+                fragment("first", STYLES, TEMPLATE_NUMBERING), fragment("second", STYLES, TEMPLATE_NUMBERING)));
+        String numbering = merged.get("word/numbering.xml");
+
+        // 模板自带的定义只保留一份，第二个片段追加的定义分配新ID
+        assertEquals(Arrays.asList("0", "1", "2"), matches(numbering, "w:abstractNumId=\"(\\d+)\""));
+        assertEquals(Arrays.asList("1", "2", "3"), matches(numbering, "<w:num w:numId=\"(\\d+)\""));
+        assertEquals(Arrays.asList("0", "1", "2"), matches(numbering, "<w:abstractNumId w:val=\"(\\d+)\""));
+        assertEquals(Arrays.asList("first", "second"), matches(numbering, "<w:lvlText w:val=\"(\\w+)\""));
+        assertTrue(numbering.indexOf("w:abstractNumId=\"2\"") < numbering.indexOf("<w:num "),
+                "abstractNum must precede num");
+
+        // 正文引用同步替换
+        assertEquals(Arrays.asList("2", "3"), matches(merged.get("word/document.xml"), "<w:numId w:val=\"(\\d+)\""));
+    }
+
+    @Test
+    public void testDifferentPartIsRejected() throws IOException {
+        List<Path> parts = Arrays.asList(fragment("first", STYLES, TEMPLATE_NUMBERING),
+                fragment("second", "<w:styles xmlns:w=\"" + W + "\"><w:style/></w:styles>", TEMPLATE_NUMBERING));
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> DocxPackageMerger.merge(parts, template(), new ByteArrayOutputStream()));
+        assertTrue(e.getMessage().contains("word/styles.xml"), e.getMessage());
+        assertTrue(e.getMessage().contains("second.docx"), e.getMessage());
+    }
+
+    @Test
+    public void testDifferentTemplateNumberingIsRejected() throws IOException {
+        String changed = TEMPLATE_NUMBERING.replace("<w:lvl w:ilvl=\"0\"/>", "<w:lvl w:ilvl=\"1\"/>");
+        List<Path> parts = Arrays.asList(fragment("first", STYLES, TEMPLATE_NUMBERING),
+                fragment("second", STYLES, changed));
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> DocxPackageMerger.merge(parts, template(), new ByteArrayOutputStream()));
+        assertTrue(e.getMessage().contains("word/numbering.xml"), e.getMessage());
+    }
+
+    @Test
+    public void testNumberingMustMatchWithoutTemplate() throws IOException {
+        List<Path> parts = Arrays.asList(fragment("first", STYLES, TEMPLATE_NUMBERING),
+                fragment("second", STYLES, TEMPLATE_NUMBERING));
+        // 不给模板时编号部件按普通部件比较，追加的定义不同即不一致
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> DocxPackageMerger.merge(parts, new ByteArrayOutputStream()));
+        assertTrue(e.getMessage().contains("word/numbering.xml"), e.getMessage());
+    }
+}
@@ -0,0 +1,125 @@
+package com.tools.services.document;
+
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.data.Numberings;
+import com.tools.metrics.PipelineMetrics;
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.usermodel.XWPFAbstractNum;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFNumbering;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBookmark;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelFragmentRendererTest {
+
+    private static final PipelineMetrics.RenderStages STAGES = PipelineMetrics.renderStages("test.render");
+
+    /**
+     * 模板：带书签的标题段落和列表标签，自带一个编号定义
+     */
+    private static byte[] template(boolean withHeader) throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            XWPFNumbering numbering = document.createNumbering();
+            CTAbstractNum abstractNum = CTAbstractNum.Factory.newInstance();
+            abstractNum.setAbstractNumId(BigInteger.ZERO);
+            abstractNum.addNewLvl().setIlvl(BigInteger.ZERO);
+            numbering.addNum(numbering.addAbstractNum(new XWPFAbstractNum(abstractNum)));
+
+            CTP title = document.createParagraph().getCTP();
+            CTBookmark start = title.addNewBookmarkStart();
+            start.setId(BigInteger.ZERO);
+            start.setName("title");
+            title.addNewR().addNewT().setStringValue("{{title}}");
+            title.addNewBookmarkEnd().setId(BigInteger.ZERO);
+            document.createParagraph().createRun().setText("{{*items}}");
+            if (withHeader) {
+                document.createHeader(HeaderFooterType.DEFAULT).createParagraph().createRun().setText("header");
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static ParallelFragmentRenderer.Fragment fragment(String name, byte[] template, String... items) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", name);
+        model.put("items", Numberings.ofDecimal(items).create());
+        return new ParallelFragmentRenderer.Fragment(name + ".docx", template, model);
+    }
+
+    @Test
+    public void testFragmentsAreMergedInOrder() throws IOException {
+        byte[] template = template(false);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ParallelFragmentRenderer.renderMerged(Arrays.asList(
+                fragment("first", template, "a1", "a2"), fragment("second", template, "b1", "b2")),
+                () -> Configure.builder().build(), STAGES, output);
+
+        try (XWPFDocument merged = new XWPFDocument(new ByteArrayInputStream(output.toByteArray()))) {
+            List<String> texts = new ArrayList<>();
+            List<BigInteger> bookmarkIds = new ArrayList<>();
+            Map<String, BigInteger> itemNumIds = new HashMap<>();
+            for (XWPFParagraph paragraph : merged.getParagraphs()) {
+                texts.add(paragraph.getText());
+                for (CTBookmark bookmark : paragraph.getCTP().getBookmarkStartList()) {
+                    bookmarkIds.add(bookmark.getId());
+                }
+                if (paragraph.getNumID() != null) {
+                    itemNumIds.put(paragraph.getText(), paragraph.getNumID());
+                }
+            }
+            assertEquals(Arrays.asList("first", "a1", "a2", "second", "b1", "b2"), texts);
+
+            // 书签ID在合并后的文档内唯一
+            assertEquals(2, bookmarkIds.size());
+            assertEquals(2, new HashSet<>(bookmarkIds).size());
+
+            // 每个片段追加的列表编号各自独立，且都在合并后的编号部件中
+            assertEquals(itemNumIds.get("a1"), itemNumIds.get("a2"));
+            assertEquals(itemNumIds.get("b1"), itemNumIds.get("b2"));
+            assertNotEquals(itemNumIds.get("a1"), itemNumIds.get("b1"));
+            Set<BigInteger> abstractNumIds = new HashSet<>();
+            for (BigInteger numId : new HashSet<>(itemNumIds.values())) {
+                assertNotNull(merged.getNumbering().getNum(numId), "missing num " + numId);
+                abstractNumIds.add(merged.getNumbering().getAbstractNumID(numId));
+            }
+            assertEquals(2, abstractNumIds.size());
+            for (BigInteger abstractNumId : abstractNumIds) {
+                assertNotNull(merged.getNumbering().getAbstractNum(abstractNumId), "missing abstractNum " + abstractNumId);
+            }
+        }
+    }
+
+    @Test
+    public void testFragmentsFromDifferentTemplatesAreRejected() throws IOException {
+        List<ParallelFragmentRenderer.Fragment> fragments = Arrays.asList(
+                fragment("first", template(false), "a1"), fragment("second", template(true), "b1"));
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ParallelFragmentRenderer.renderMerged(fragments, () -> Configure.builder().build(), STAGES,
+                        new ByteArrayOutputStream()));
+        assertTrue(e.getMessage().contains("second.docx"), e.getMessage());
+    }
+}